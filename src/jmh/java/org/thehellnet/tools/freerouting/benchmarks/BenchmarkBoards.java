@@ -0,0 +1,84 @@
+package org.thehellnet.tools.freerouting.benchmarks;
+
+import org.thehellnet.tools.freerouting.board.BoardObserverAdaptor;
+import org.thehellnet.tools.freerouting.board.Item;
+import org.thehellnet.tools.freerouting.board.ItemIdNoGenerator;
+import org.thehellnet.tools.freerouting.board.Pin;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+import org.thehellnet.tools.freerouting.board.TestLevel;
+import org.thehellnet.tools.freerouting.interactive.BoardHandling;
+import org.thehellnet.tools.freerouting.specctra.DsnFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Fixture boards of the benchmarks.
+ * The boards are Specctra dsn-files in the benchmark resources with a grid of resistors,
+ * whose pins are connected in random order, so that many connections cross each other.
+ */
+public final class BenchmarkBoards {
+
+    /**
+     * 36 resistors with 35 connections, completely routable.
+     */
+    public static final String GRID_6X6 = "grid_6x6.dsn";
+
+    /**
+     * 100 resistors with 99 connections on a denser grid.
+     */
+    public static final String GRID_10X10 = "grid_10x10.dsn";
+
+    private BenchmarkBoards() {
+    }
+
+    /**
+     * Returns the content of the fixture file with name fileName.
+     */
+    public static byte[] read(String fileName) throws IOException {
+        try (InputStream inputStream = BenchmarkBoards.class.getResourceAsStream(fileName)) {
+            if (inputStream == null) {
+                throw new IOException("Fixture " + fileName + " not found");
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, length);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    /**
+     * Imports the fixture file with name fileName without graphical user interface.
+     */
+    public static BoardHandling load(String fileName) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        BoardHandling boardHandling = new BoardHandling(Locale.ENGLISH);
+        DsnFile.ReadResult readResult = boardHandling.import_design(new ByteArrayInputStream(read(fileName)),
+                new BoardObserverAdaptor(), new ItemIdNoGenerator(), TestLevel.RELEASE_VERSION);
+        if (readResult != DsnFile.ReadResult.OK) {
+            throw new IOException("Unable to read fixture " + fileName + ": " + readResult);
+        }
+        return boardHandling;
+    }
+
+    /**
+     * Returns the pins of the net with number netNo.
+     */
+    public static List<Pin> netPins(RoutingBoard board, int netNo) {
+        List<Pin> result = new ArrayList<>();
+        for (Item item : board.get_connectable_items(netNo)) {
+            if (item instanceof Pin) {
+                result.add((Pin) item);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package org.thehellnet.tools.freerouting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thehellnet.tools.freerouting.datastructures.PlanarDelaunayTriangulation;
+import org.thehellnet.tools.freerouting.planar.IntPoint;
+import org.thehellnet.tools.freerouting.planar.Point;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the Delaunay triangulation used for calculating the ratsnest of a net,
+ * with random pin positions of a fixed seed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DelaunayTriangulationBenchmark {
+
+    private static final int AREA_WIDTH = 1000000;
+
+    @Param({"100", "1000"})
+    public int pointCount;
+
+    private final Collection<PlanarDelaunayTriangulation.Storable> objects = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        objects.clear();
+        for (int i = 0; i < pointCount; ++i) {
+            final Point[] corners = {new IntPoint(random.nextInt(AREA_WIDTH), random.nextInt(AREA_WIDTH))};
+            objects.add(new PlanarDelaunayTriangulation.Storable() {
+                @Override
+                public Point[] get_triangulation_corners() {
+                    return corners;
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int construction() {
+        PlanarDelaunayTriangulation triangulation = new PlanarDelaunayTriangulation(objects);
+        return triangulation.get_edge_lines().size();
+    }
+}
@@ -0,0 +1,89 @@
+package org.thehellnet.tools.freerouting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thehellnet.tools.freerouting.planar.IntBox;
+import org.thehellnet.tools.freerouting.planar.IntOctagon;
+import org.thehellnet.tools.freerouting.planar.Simplex;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intersection of the tile shapes used by the search trees and the expansion rooms.
+ * The shapes are random octagons of trace and pad size with a fixed seed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GeometryBenchmark {
+
+    private static final int SHAPE_COUNT = 256;
+    private static final int AREA_WIDTH = 100000;
+
+    private final IntOctagon[] octagons = new IntOctagon[SHAPE_COUNT];
+    private final Simplex[] simplexes = new Simplex[SHAPE_COUNT];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < SHAPE_COUNT; ++i) {
+            int x = random.nextInt(AREA_WIDTH);
+            int y = random.nextInt(AREA_WIDTH);
+            int width = 1000 + random.nextInt(20000);
+            int height = 1000 + random.nextInt(20000);
+            octagons[i] = new IntBox(x, y, x + width, y + height).enlarge(random.nextInt(3000));
+            simplexes[i] = octagons[i].to_Simplex();
+        }
+    }
+
+    @Benchmark
+    public int intOctagonIntersection() {
+        int nonEmptyCount = 0;
+        for (IntOctagon first : octagons) {
+            for (IntOctagon second : octagons) {
+                if (!first.intersection(second).is_empty()) {
+                    ++nonEmptyCount;
+                }
+            }
+        }
+        return nonEmptyCount;
+    }
+
+    @Benchmark
+    public int intOctagonIntersects() {
+        int intersectingCount = 0;
+        for (IntOctagon first : octagons) {
+            for (IntOctagon second : octagons) {
+                if (first.intersects(second)) {
+                    ++intersectingCount;
+                }
+            }
+        }
+        return intersectingCount;
+    }
+
+    @Benchmark
+    public int simplexIntersection() {
+        int nonEmptyCount = 0;
+        for (Simplex first : simplexes) {
+            for (int i = 0; i < SHAPE_COUNT; i += 4) {
+                if (!first.intersection(simplexes[i]).is_empty()) {
+                    ++nonEmptyCount;
+                }
+            }
+        }
+        return nonEmptyCount;
+    }
+}
@@ -0,0 +1,88 @@
+package org.thehellnet.tools.freerouting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thehellnet.tools.freerouting.autoroute.AutorouteControl;
+import org.thehellnet.tools.freerouting.autoroute.AutorouteEngine;
+import org.thehellnet.tools.freerouting.autoroute.MazeSearchAlgo;
+import org.thehellnet.tools.freerouting.board.Item;
+import org.thehellnet.tools.freerouting.board.Pin;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+import org.thehellnet.tools.freerouting.interactive.BoardHandling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maze search of all connections of an unrouted fixture board, without inserting the found routes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MazeSearchBenchmark {
+
+    @Param({BenchmarkBoards.GRID_6X6, BenchmarkBoards.GRID_10X10})
+    public String fixture;
+
+    private BoardHandling boardHandling;
+    private RoutingBoard board;
+    private final List<Connection> connections = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws Exception {
+        boardHandling = BenchmarkBoards.load(fixture);
+        board = boardHandling.get_routing_board();
+        connections.clear();
+        for (int netNo = 1; netNo <= board.rules.nets.max_net_no(); ++netNo) {
+            List<Pin> pins = BenchmarkBoards.netPins(board, netNo);
+            if (pins.size() < 2) {
+                continue;
+            }
+            Pin startPin = pins.get(0);
+            connections.add(new Connection(netNo, startPin.get_unconnected_set(netNo), startPin.get_connected_set(netNo)));
+        }
+    }
+
+    @Benchmark
+    public int findConnections() {
+        int foundCount = 0;
+        for (Connection connection : connections) {
+            AutorouteControl control = new AutorouteControl(board, connection.netNo, boardHandling.settings);
+            AutorouteEngine engine = board.init_autoroute(connection.netNo, control.trace_clearance_class_no,
+                    null, null, false);
+            MazeSearchAlgo mazeSearchAlgo = MazeSearchAlgo.get_instance(connection.startSet, connection.destSet, engine, control);
+            if (mazeSearchAlgo != null && mazeSearchAlgo.find_connection() != null) {
+                ++foundCount;
+            }
+            board.finish_autoroute();
+        }
+        return foundCount;
+    }
+
+    private static class Connection {
+
+        private final int netNo;
+        private final Set<Item> startSet;
+        private final Set<Item> destSet;
+
+        private Connection(int netNo, Set<Item> startSet, Set<Item> destSet) {
+            this.netNo = netNo;
+            this.startSet = startSet;
+            this.destSet = destSet;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.thehellnet.tools.freerouting.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+import org.thehellnet.tools.freerouting.board.ShapeSearchTree;
+import org.thehellnet.tools.freerouting.planar.IntBox;
+import org.thehellnet.tools.freerouting.planar.IntOctagon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clearance queries of the default search tree with octagons distributed over the whole fixture board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShapeSearchTreeBenchmark {
+
+    private static final int GRID_SIZE = 20;
+
+    @Param({BenchmarkBoards.GRID_6X6, BenchmarkBoards.GRID_10X10})
+    public String fixture;
+
+    private ShapeSearchTree searchTree;
+    private int layerCount;
+    private int clearanceClass;
+    private final List<IntOctagon> queryShapes = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws Exception {
+        RoutingBoard board = BenchmarkBoards.load(fixture).get_routing_board();
+        searchTree = board.search_tree_manager.get_default_tree();
+        layerCount = board.get_layer_count();
+        clearanceClass = board.rules.get_default_net_class().get_trace_clearance_class();
+        IntBox boardBox = board.get_bounding_box();
+        int width = boardBox.width() / GRID_SIZE;
+        int height = boardBox.height() / GRID_SIZE;
+        queryShapes.clear();
+        for (int i = 0; i < GRID_SIZE; ++i) {
+            for (int j = 0; j < GRID_SIZE; ++j) {
+                int x = boardBox.ll.x + i * width;
+                int y = boardBox.ll.y + j * height;
+                queryShapes.add(new IntBox(x, y, x + width / 2, y + height / 2).enlarge(width / 8));
+            }
+        }
+    }
+
+    @Benchmark
+    public int overlappingTreeEntriesWithClearance() {
+        int foundCount = 0;
+        int[] ignoreNetNos = new int[0];
+        for (IntOctagon shape : queryShapes) {
+            for (int layer = 0; layer < layerCount; ++layer) {
+                foundCount += searchTree.overlapping_tree_entries_with_clearance(shape, layer, ignoreNetNos,
+                        clearanceClass).size();
+            }
+        }
+        return foundCount;
+    }
+}
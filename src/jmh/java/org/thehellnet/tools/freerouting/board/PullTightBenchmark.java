@@ -0,0 +1,89 @@
+package org.thehellnet.tools.freerouting.board;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thehellnet.tools.freerouting.benchmarks.BenchmarkBoards;
+import org.thehellnet.tools.freerouting.planar.IntPoint;
+import org.thehellnet.tools.freerouting.planar.Point;
+import org.thehellnet.tools.freerouting.planar.Polyline;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulls tight zigzag polylines between the two pins of each net of the 6x6 fixture board.
+ * The polylines are not inserted into the board, so every invocation starts from the same state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PullTightBenchmark {
+
+    private static final int ZIGZAG_COUNT = 6;
+
+    private RoutingBoard board;
+    private final List<Connection> connections = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws Exception {
+        board = BenchmarkBoards.load(BenchmarkBoards.GRID_6X6).get_routing_board();
+        int zigzagOffset = 4 * board.rules.get_default_trace_half_width(0);
+        connections.clear();
+        for (int netNo = 1; netNo <= board.rules.nets.max_net_no(); ++netNo) {
+            List<Pin> pins = BenchmarkBoards.netPins(board, netNo);
+            if (pins.size() != 2) {
+                continue;
+            }
+            IntPoint from = pins.get(0).get_center().to_float().round();
+            IntPoint to = pins.get(1).get_center().to_float().round();
+            Point[] corners = new Point[ZIGZAG_COUNT + 2];
+            corners[0] = from;
+            for (int i = 1; i <= ZIGZAG_COUNT; ++i) {
+                int x = from.x + (to.x - from.x) * i / (ZIGZAG_COUNT + 1);
+                int y = from.y + (to.y - from.y) * i / (ZIGZAG_COUNT + 1);
+                int offset = (i % 2 == 0) ? zigzagOffset : -zigzagOffset;
+                corners[i] = new IntPoint(x + offset, y - offset);
+            }
+            corners[ZIGZAG_COUNT + 1] = to;
+            connections.add(new Connection(netNo, new Polyline(corners)));
+        }
+    }
+
+    @Benchmark
+    public int pullTight() {
+        int cornerCount = 0;
+        for (Connection connection : connections) {
+            int[] netNoArr = {connection.netNo};
+            int clearanceClass = board.rules.nets.get(connection.netNo).get_class().get_trace_clearance_class();
+            PullTightAlgo pullTightAlgo = PullTightAlgo.get_instance(board, netNoArr, null, 0, null, -1, null, -1);
+            Polyline result = pullTightAlgo.pull_tight(connection.polyline, 0,
+                    board.rules.get_trace_half_width(connection.netNo, 0), netNoArr, clearanceClass, new HashSet<Pin>());
+            cornerCount += result.corner_count();
+        }
+        return cornerCount;
+    }
+
+    private static class Connection {
+
+        private final int netNo;
+        private final Polyline polyline;
+
+        private Connection(int netNo, Polyline polyline) {
+            this.netNo = netNo;
+            this.polyline = polyline;
+        }
+    }
+}
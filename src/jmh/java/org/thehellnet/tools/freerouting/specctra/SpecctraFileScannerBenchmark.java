@@ -0,0 +1,50 @@
+package org.thehellnet.tools.freerouting.specctra;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thehellnet.tools.freerouting.benchmarks.BenchmarkBoards;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizing of a fixture dsn-file by the Specctra scanner, without building the board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SpecctraFileScannerBenchmark {
+
+    @Param({BenchmarkBoards.GRID_6X6, BenchmarkBoards.GRID_10X10})
+    public String fixture;
+
+    private byte[] content;
+
+    @Setup
+    public void setUp() throws IOException {
+        content = BenchmarkBoards.read(fixture);
+    }
+
+    @Benchmark
+    public int tokenize() throws IOException {
+        Scanner scanner = new SpecctraFileScanner(new ByteArrayInputStream(content));
+        int tokenCount = 0;
+        while (scanner.next_token() != null) {
+            ++tokenCount;
+        }
+        return tokenCount;
+    }
+}
@@ -12,6 +12,12 @@ public final class FreeRouting {
     private static final Logger logger = LoggerFactory.getLogger(FreeRouting.class);
 
     public static void main(String[] args) {
+        if (HeadlessRouting.isHeadless(args)) {
+            logger.info("Starting Headless Routing");
+            HeadlessRouting.main(args);
+            return;
+        }
+
         logger.info("Starting Main Application");
 
         try {
@@ -0,0 +1,278 @@
+package org.thehellnet.tools.freerouting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.thehellnet.tools.freerouting.autoroute.BatchAutorouter;
+import org.thehellnet.tools.freerouting.autoroute.BatchFanout;
+import org.thehellnet.tools.freerouting.autoroute.BatchOptRoute;
+import org.thehellnet.tools.freerouting.autoroute.MetricsWriter;
+import org.thehellnet.tools.freerouting.board.BoardObserverAdaptor;
+import org.thehellnet.tools.freerouting.board.ItemIdNoGenerator;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+import org.thehellnet.tools.freerouting.board.TestLevel;
+import org.thehellnet.tools.freerouting.interactive.AutorouteSettings;
+import org.thehellnet.tools.freerouting.interactive.BoardHandling;
+import org.thehellnet.tools.freerouting.interactive.InteractiveActionThread;
+import org.thehellnet.tools.freerouting.specctra.DsnFile;
+import org.thehellnet.tools.freerouting.specctra.SessionFile;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Runs the batch autorouter on a Specctra dsn-file and writes the result to a Specctra session file,
+ * without creating any window or other graphical user interface object.
+ * <p>
+ * Usage: -headless -de design.dsn [-do design.ses] [-mp max_pass_no] [-mt thread_count] [-sw search_weight] [-eb expansion_budget] [-tm metrics_file] [-fo] [-np] [-l de]
+ */
+public final class HeadlessRouting {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeadlessRouting.class);
+
+    private final String designFileName;
+    private final String sessionFileName;
+    private final int maxPassNo;
+    private final int threadCount;
+    private final double searchWeight;
+    private final int expansionBudget;
+    private final String metricsFileName;
+    private final boolean withFanout;
+    private final boolean withPostroute;
+    private final Locale locale;
+
+    private HeadlessRouting(String designFileName, String sessionFileName, int maxPassNo, int threadCount,
+                            double searchWeight, int expansionBudget, String metricsFileName,
+                            boolean withFanout, boolean withPostroute, Locale locale) {
+        this.designFileName = designFileName;
+        this.sessionFileName = sessionFileName;
+        this.maxPassNo = maxPassNo;
+        this.threadCount = threadCount;
+        this.searchWeight = searchWeight;
+        this.expansionBudget = expansionBudget;
+        this.metricsFileName = metricsFileName;
+        this.withFanout = withFanout;
+        this.withPostroute = withPostroute;
+        this.locale = locale;
+    }
+
+    /**
+     * Returns true, if the command line arguments request a run without graphical user interface.
+     */
+    public static boolean isHeadless(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("-headless")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) {
+        String designFileName = null;
+        String sessionFileName = null;
+        int maxPassNo = Integer.MAX_VALUE;
+        int threadCount = 1;
+        double searchWeight = 1;
+        int expansionBudget = 0;
+        String metricsFileName = null;
+        boolean withFanout = false;
+        boolean withPostroute = true;
+        Locale locale = Locale.ENGLISH;
+        for (int i = 0; i < args.length; ++i) {
+            boolean hasValue = args.length > i + 1 && !args[i + 1].startsWith("-");
+            if (args[i].equals("-de") && hasValue) {
+                designFileName = args[++i];
+            } else if (args[i].equals("-do") && hasValue) {
+                sessionFileName = args[++i];
+            } else if (args[i].equals("-mp") && hasValue) {
+                try {
+                    maxPassNo = Math.max(Integer.parseInt(args[++i]), 1);
+                } catch (NumberFormatException e) {
+                    logger.error("Illegal maximum pass number " + args[i]);
+                    System.exit(2);
+                }
+            } else if (args[i].equals("-mt") && hasValue) {
+                try {
+                    threadCount = Math.max(Integer.parseInt(args[++i]), 1);
+                } catch (NumberFormatException e) {
+                    logger.error("Illegal thread count " + args[i]);
+                    System.exit(2);
+                }
+            } else if (args[i].equals("-sw") && hasValue) {
+                try {
+                    searchWeight = Math.max(Double.parseDouble(args[++i]), 1);
+                } catch (NumberFormatException e) {
+                    logger.error("Illegal search weight " + args[i]);
+                    System.exit(2);
+                }
+            } else if (args[i].equals("-eb") && hasValue) {
+                try {
+                    expansionBudget = Math.max(Integer.parseInt(args[++i]), 0);
+                } catch (NumberFormatException e) {
+                    logger.error("Illegal expansion budget " + args[i]);
+                    System.exit(2);
+                }
+            } else if (args[i].equals("-tm") && hasValue) {
+                metricsFileName = args[++i];
+            } else if (args[i].equals("-fo")) {
+                withFanout = true;
+            } else if (args[i].equals("-np")) {
+                withPostroute = false;
+            } else if (args[i].equals("-l") && hasValue) {
+                if (args[++i].startsWith("d")) {
+                    locale = Locale.GERMAN;
+                }
+            }
+        }
+
+        if (designFileName == null) {
+            logger.error("Usage: -headless -de design.dsn [-do design.ses] [-mp max_pass_no] [-mt thread_count] [-sw search_weight] [-eb expansion_budget] [-tm metrics_file] [-fo] [-np] [-l de]");
+            System.exit(2);
+        }
+
+        if (sessionFileName == null) {
+            sessionFileName = designName(designFileName) + ".ses";
+        }
+
+        HeadlessRouting headlessRouting = new HeadlessRouting(designFileName, sessionFileName, maxPassNo, threadCount,
+                searchWeight, expansionBudget, metricsFileName, withFanout, withPostroute, locale);
+        System.exit(headlessRouting.run() ? 0 : 1);
+    }
+
+    /**
+     * Imports the design, routes it and writes the session file.
+     * Returns false, if the design could not be read or the session file could not be written.
+     */
+    private boolean run() {
+        System.setProperty("java.awt.headless", "true");
+
+        BoardHandling boardHandling = new BoardHandling(locale);
+
+        logger.info("Reading design " + designFileName);
+        DsnFile.ReadResult readResult;
+        try {
+            InputStream inputStream = new FileInputStream(designFileName);
+            readResult = boardHandling.import_design(inputStream, new BoardObserverAdaptor(), new ItemIdNoGenerator(), TestLevel.RELEASE_VERSION);
+        } catch (IOException e) {
+            logger.error("Unable to open design " + designFileName + ": " + e.getMessage());
+            return false;
+        }
+        if (readResult != DsnFile.ReadResult.OK) {
+            logger.error("Unable to read design " + designFileName + ": " + readResult);
+            return false;
+        }
+
+        AutorouteSettings autorouteSettings = boardHandling.settings.autoroute_settings;
+        autorouteSettings.set_with_fanout(withFanout);
+        autorouteSettings.set_with_postroute(withPostroute);
+
+        MetricsWriter metricsWriter = null;
+        if (metricsFileName != null) {
+            try {
+                OutputStream metricsStream = new FileOutputStream(metricsFileName);
+                metricsWriter = new MetricsWriter(new OutputStreamWriter(metricsStream, StandardCharsets.UTF_8),
+                        metricsFileName.toLowerCase(Locale.ENGLISH).endsWith(".csv"));
+            } catch (IOException e) {
+                logger.error("Unable to open metrics file " + metricsFileName + ": " + e.getMessage());
+                return false;
+            }
+        }
+
+        BatchRouterThread routerThread = new BatchRouterThread(boardHandling, maxPassNo, threadCount, searchWeight,
+                expansionBudget, metricsWriter);
+        routerThread.run();
+        if (metricsWriter != null) {
+            metricsWriter.close();
+            logger.info("Metrics written to " + metricsFileName);
+        }
+
+        logger.info(String.format("Routing finished: %d incomplete connections, %d vias",
+                routerThread.incompleteCount, boardHandling.get_routing_board().get_vias().size()));
+
+        String designName = designName(new File(designFileName).getName());
+        try (OutputStream outputStream = new FileOutputStream(sessionFileName)) {
+            if (!SessionFile.write(boardHandling.get_routing_board(), outputStream, designName)) {
+                logger.error("Unable to write session file " + sessionFileName);
+                return false;
+            }
+        } catch (IOException e) {
+            logger.error("Unable to write session file " + sessionFileName + ": " + e.getMessage());
+            return false;
+        }
+        logger.info("Session file written to " + sessionFileName);
+        return true;
+    }
+
+    private static String designName(String fileName) {
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex <= 0) {
+            return fileName;
+        }
+        return fileName.substring(0, extensionIndex);
+    }
+
+    /**
+     * Runs fanout, autoroute and optimize passes like the batch autorouter thread of the board frame,
+     * but in the calling thread and without any screen output.
+     */
+    private static class BatchRouterThread extends InteractiveActionThread {
+
+        private final int maxPassNo;
+        private final int threadCount;
+        private final double searchWeight;
+        private final int expansionBudget;
+        private final MetricsWriter metricsWriter;
+        private int incompleteCount = 0;
+
+        private BatchRouterThread(BoardHandling boardHandling, int maxPassNo, int threadCount, double searchWeight,
+                                  int expansionBudget, MetricsWriter metricsWriter) {
+            super(boardHandling);
+            this.maxPassNo = maxPassNo;
+            this.threadCount = threadCount;
+            this.searchWeight = searchWeight;
+            this.expansionBudget = expansionBudget;
+            this.metricsWriter = metricsWriter;
+        }
+
+        @Override
+        protected void thread_action() {
+            AutorouteSettings autorouteSettings = hdlg.settings.autoroute_settings;
+            RoutingBoard routingBoard = hdlg.get_routing_board();
+
+            if (autorouteSettings.get_with_fanout() && autorouteSettings.get_pass_no() <= 1) {
+                logger.info("Fanout");
+                BatchFanout.fanout_board(this, threadCount);
+            }
+
+            if (autorouteSettings.get_with_autoroute() && !is_stop_requested()) {
+                logger.info("Autoroute");
+                BatchAutorouter batchAutorouter = new BatchAutorouter(this, !autorouteSettings.get_with_fanout(),
+                        true, autorouteSettings.get_start_ripup_costs());
+                batchAutorouter.set_thread_count(threadCount);
+                batchAutorouter.set_search_weight(searchWeight);
+                batchAutorouter.set_max_expansion_count(expansionBudget);
+                batchAutorouter.set_metrics_listener(metricsWriter);
+                batchAutorouter.autoroute_passes(maxPassNo);
+            }
+            routingBoard.finish_autoroute();
+
+            if (autorouteSettings.get_with_postroute() && !is_stop_requested()) {
+                logger.info("Optimize");
+                BatchOptRoute batchOptRoute = new BatchOptRoute(this);
+                batchOptRoute.set_thread_count(threadCount);
+                batchOptRoute.set_metrics_listener(metricsWriter);
+                batchOptRoute.optimize_board();
+            }
+
+            hdlg.remove_ratsnest();
+            incompleteCount = hdlg.get_ratsnest().incomplete_count();
+        }
+    }
+}
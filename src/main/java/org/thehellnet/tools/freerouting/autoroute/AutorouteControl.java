@@ -88,6 +88,8 @@ public class AutorouteControl
         ripup_allowed = false;
         ripup_costs = 1000;
         ripup_pass_no = 1;
+        search_weight = 1;
+        max_expansion_count = 0;
     }
 
     private void init_net(int p_net_no, RoutingBoard p_board, int p_via_costs)
@@ -219,6 +221,14 @@ public class AutorouteControl
     public boolean ripup_allowed;
     public int ripup_costs;
     public int ripup_pass_no;
+    /**
+     * The factor, with which the lower bound of the costs to the destination is weighted in the maze search.
+     * With a factor bigger than 1 the search is drawn stronger to the destination and expands less rooms,
+     * but the costs of the found connection may be up to this factor higher than the minimal costs.
+     */
+    public double search_weight;
+    /** The maximal number of expanded door sections and drills in the maze search of a connection, or 0, if there is no limit. */
+    public int max_expansion_count;
     public final boolean with_neckdown;
     /** If true, the org.thehellnet.tools.freerouting.autoroute algorithm completes after the first drill */
     public boolean is_fanout;
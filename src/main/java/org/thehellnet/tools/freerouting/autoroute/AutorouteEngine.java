@@ -111,6 +111,9 @@ public class AutorouteEngine
     public AutorouteResult autoroute_connection(Set<Item> p_start_set, Set<Item> p_dest_set,
             AutorouteControl p_ctrl, SortedSet<Item> p_ripped_item_list)
     {
+        this.completed_room_count = 0;
+        this.expanded_element_count = 0;
+        this.shove_count = 0;
         MazeSearchAlgo maze_search_algo;
         try
         {
@@ -127,6 +130,7 @@ public class AutorouteEngine
             try
             {
                 search_result = maze_search_algo.find_connection();
+                this.expanded_element_count = maze_search_algo.expansion_count;
             } catch (Exception e)
             {
                 System.out.println("AutorouteEngine.autoroute_connection: Exception in maze_search_algo.find_connection");
@@ -438,6 +442,7 @@ public class AutorouteEngine
                     }
                 }
             }
+            this.completed_room_count += result.size();
             return result;
         } catch (Exception e)
         {
@@ -672,6 +677,12 @@ public class AutorouteEngine
     private List<CompleteFreeSpaceExpansionRoom> complete_expansion_rooms = null;
     /** The count of expansion rooms created so far */
     private int expansion_room_instance_count = 0;
+    /** The number of expansion rooms completed for the last connection */
+    int completed_room_count = 0;
+    /** The number of door sections and drills expanded by the maze search for the last connection */
+    int expanded_element_count = 0;
+    /** The number of attempts to shove traces in the maze search for the last connection */
+    int shove_count = 0;
 
     /**
      *  The pussible results of autorouting a connection
@@ -0,0 +1,148 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * AutorouteMetrics.java
+ */
+
+package org.thehellnet.tools.freerouting.autoroute;
+
+/**
+ * Metrics of the connections and passes of the batch autorouter and the batch optimizer,
+ * which are reported to a Listener.
+ */
+public class AutorouteMetrics
+{
+
+    private AutorouteMetrics()
+    {
+    }
+
+    /**
+     * Receives the metrics of the batch autorouter and the batch optimizer.
+     * The functions may be called from several threads at the same time, if more than one thread is used for routing.
+     */
+    public interface Listener
+    {
+
+        /**
+         * Called after the maze search for a connection is done.
+         * In a parallel autoroute pass it is called only for connections, whose result is transferred to the routing org.thehellnet.tools.freerouting.board.
+         */
+        void connection_completed(Connection p_metrics);
+
+        /**
+         * Called after an autoroute or optimize pass is done.
+         */
+        void pass_completed(Pass p_metrics);
+    }
+
+    /**
+     * The metrics of the search for a connection by the batch autorouter.
+     */
+    public static class Connection
+    {
+
+        Connection(int p_pass_no, int p_net_no, int p_item_id_no, AutorouteEngine.AutorouteResult p_result,
+                long p_nanoseconds, AutorouteEngine p_engine, int p_ripped_item_count)
+        {
+            pass_no = p_pass_no;
+            net_no = p_net_no;
+            item_id_no = p_item_id_no;
+            result = p_result;
+            milliseconds = p_nanoseconds / 1000000.0;
+            completed_room_count = p_engine.completed_room_count;
+            expanded_element_count = p_engine.expanded_element_count;
+            shove_count = p_engine.shove_count;
+            ripped_item_count = p_ripped_item_count;
+        }
+
+        /** The number of the autoroute pass */
+        public final int pass_no;
+
+        /** The net of the connection */
+        public final int net_no;
+
+        /** The id number of the item, from which the connection was routed */
+        public final int item_id_no;
+
+        public final AutorouteEngine.AutorouteResult result;
+
+        /** The time used for searching and inserting the connection in milliseconds */
+        public final double milliseconds;
+
+        /** The number of expansion rooms completed during the search */
+        public final int completed_room_count;
+
+        /** The number of door sections and drills expanded by the maze search */
+        public final int expanded_element_count;
+
+        /** The number of attempts to shove a trace out of the way of the connection */
+        public final int shove_count;
+
+        /** The number of items ripped up for the connection */
+        public final int ripped_item_count;
+    }
+
+    /**
+     * The totals of a pass of the batch autorouter or the batch optimizer.
+     */
+    public static class Pass
+    {
+
+        Pass(Type p_type, int p_pass_no, int p_item_count, int p_routed_count, int p_ripped_item_count,
+                int p_not_found_count, int p_via_count, double p_trace_length, long p_nanoseconds)
+        {
+            type = p_type;
+            pass_no = p_pass_no;
+            item_count = p_item_count;
+            routed_count = p_routed_count;
+            ripped_item_count = p_ripped_item_count;
+            not_found_count = p_not_found_count;
+            via_count = p_via_count;
+            trace_length = p_trace_length;
+            milliseconds = p_nanoseconds / 1000000.0;
+        }
+
+        public final Type type;
+
+        public final int pass_no;
+
+        /** The number of items to route in an autoroute pass, not counted in an optimize pass */
+        public final int item_count;
+
+        /** The number of routed items in an autoroute pass, not counted in an optimize pass */
+        public final int routed_count;
+
+        /** The number of ripped items in an autoroute pass, not counted in an optimize pass */
+        public final int ripped_item_count;
+
+        /** The number of items, which could not be routed in an autoroute pass, not counted in an optimize pass */
+        public final int not_found_count;
+
+        /** The number of vias on the org.thehellnet.tools.freerouting.board after the pass */
+        public final int via_count;
+
+        /** The cumulative trace length on the org.thehellnet.tools.freerouting.board after the pass in org.thehellnet.tools.freerouting.board units */
+        public final double trace_length;
+
+        /** The time used for the pass in milliseconds */
+        public final double milliseconds;
+
+        public enum Type
+        {
+            AUTOROUTE, OPTIMIZE
+        }
+    }
+}
@@ -52,7 +52,18 @@ public class BatchAutorouter
     public static int autoroute_passes_for_optimizing_item(InteractiveActionThread p_thread,
             int p_max_pass_count, int p_ripup_costs, boolean p_with_prefered_directions)
     {
-        BatchAutorouter router_instance = new BatchAutorouter(p_thread, true, p_with_prefered_directions, p_ripup_costs);
+        return autoroute_passes_for_optimizing_item(p_thread, p_thread.hdlg.get_routing_board(),
+                p_max_pass_count, p_ripup_costs, p_with_prefered_directions);
+    }
+
+    /**
+     *  Autoroutes ripup passes for optimizing on p_board, which is the routing org.thehellnet.tools.freerouting.board
+     *  or a copy of it used by a thread of a parallel optimize pass.
+     */
+    static int autoroute_passes_for_optimizing_item(InteractiveActionThread p_thread, RoutingBoard p_board,
+            int p_max_pass_count, int p_ripup_costs, boolean p_with_prefered_directions)
+    {
+        BatchAutorouter router_instance = new BatchAutorouter(p_thread, p_board, true, p_with_prefered_directions, p_ripup_costs);
         boolean still_unrouted_items = true;
         int curr_pass_no = 1;
         while (still_unrouted_items && !router_instance.is_interrupted && curr_pass_no <= p_max_pass_count)
@@ -62,7 +73,7 @@ public class BatchAutorouter
                 router_instance.is_interrupted = true;
             }
             still_unrouted_items = router_instance.autoroute_pass(curr_pass_no, false);
-            if (still_unrouted_items && !router_instance.is_interrupted)
+            if (still_unrouted_items && !router_instance.is_interrupted && router_instance.is_main_board())
             {
                 p_thread.hdlg.settings.autoroute_settings.increment_pass_no();
             }
@@ -81,10 +92,19 @@ public class BatchAutorouter
      */
     public BatchAutorouter(InteractiveActionThread p_thread, boolean p_remove_unconnected_vias, boolean p_with_preferred_directions,
             int p_start_ripup_costs)
+    {
+        this(p_thread, p_thread.hdlg.get_routing_board(), p_remove_unconnected_vias, p_with_preferred_directions, p_start_ripup_costs);
+    }
+
+    /**
+     * Creates a new batch autorouter routing on p_board, which may be a copy of the routing org.thehellnet.tools.freerouting.board of p_thread.
+     */
+    private BatchAutorouter(InteractiveActionThread p_thread, RoutingBoard p_board, boolean p_remove_unconnected_vias,
+            boolean p_with_preferred_directions, int p_start_ripup_costs)
     {
         this.thread = p_thread;
         this.hdlg = p_thread.hdlg;
-        this.routing_board = this.hdlg.get_routing_board();
+        this.routing_board = p_board;
         this.remove_unconnected_vias = p_remove_unconnected_vias;
         if (p_with_preferred_directions)
         {
@@ -110,11 +130,22 @@ public class BatchAutorouter
      *  Returns true if the org.thehellnet.tools.freerouting.board is completed.
      */
     public boolean autoroute_passes()
+    {
+        return autoroute_passes(Integer.MAX_VALUE);
+    }
+
+    /**
+     *  Autoroutes ripup passes until the org.thehellnet.tools.freerouting.board is completed, the autorouter is stopped by the user,
+     *  or the pass number p_max_pass_no is done.
+     *  Returns false, if the autorouter was interrupted.
+     */
+    public boolean autoroute_passes(int p_max_pass_no)
     {
         java.util.ResourceBundle resources =
                 java.util.ResourceBundle.getBundle("interactive/InteractiveState", hdlg.get_locale());
+        this.routing_board.search_tree_manager.build_autoroute_trees(this.thread_count);
         boolean still_unrouted_items = true;
-        while (still_unrouted_items && !this.is_interrupted)
+        while (still_unrouted_items && !this.is_interrupted && hdlg.settings.autoroute_settings.get_pass_no() <= p_max_pass_no)
         {
             if (thread.is_stop_requested())
             {
@@ -145,6 +176,7 @@ public class BatchAutorouter
     {
         try
         {
+            long start_time = System.nanoTime();
             Collection<Item> autoroute_item_list = new java.util.LinkedList<Item>();
             Set<Item> handeled_items = new TreeSet<Item>();
             Iterator<UndoableObjects.UndoableObjectNode> it = routing_board.item_list.start_read_object();
@@ -173,8 +205,7 @@ public class BatchAutorouter
                                         handeled_items.add(curr_connected_item);
                                     }
                                 }
-                                int net_item_count = routing_board.connectable_item_count(curr_net_no);
-                                if (connected_set.size() < net_item_count)
+                                if (!routing_board.is_net_complete(curr_net_no))
                                 {
                                     autoroute_item_list.add(curr_item);
                                 }
@@ -188,7 +219,8 @@ public class BatchAutorouter
                 this.air_line = null;
                 return false;
             }
-            int items_to_go_count = autoroute_item_list.size();
+            int item_count = autoroute_item_list.size();
+            int items_to_go_count = item_count;
             int ripped_item_count = 0;
             int not_found = 0;
             int routed = 0;
@@ -196,6 +228,19 @@ public class BatchAutorouter
             {
                 hdlg.screen_messages.set_batch_autoroute_info(items_to_go_count, routed, ripped_item_count, not_found);
             }
+            if (this.thread_count > 1)
+            {
+                ParallelAutoroutePass parallel_pass = ParallelAutoroutePass.get_instance(this, this.routing_board, this.thread, this.thread_count);
+                if (parallel_pass != null)
+                {
+                    parallel_pass.autoroute_items(autoroute_item_list, p_pass_no, p_with_screen_message);
+                    routed = parallel_pass.routed_count;
+                    ripped_item_count = parallel_pass.ripped_item_count;
+                    not_found = parallel_pass.not_found_count;
+                    autoroute_item_list.clear();
+                    this.is_interrupted = this.thread.is_stop_requested();
+                }
+            }
             for (Item curr_item : autoroute_item_list)
             {
                 if (this.is_interrupted)
@@ -211,10 +256,13 @@ public class BatchAutorouter
                     }
                     routing_board.start_marking_changed_area();
                     SortedSet<Item> ripped_item_list = new TreeSet<Item>();
-                    if (autoroute_item(curr_item, curr_item.get_net_no(i), ripped_item_list, p_pass_no))
+                    if (autoroute_item(this.routing_board, curr_item, curr_item.get_net_no(i), ripped_item_list, p_pass_no, null))
                     {
                         ++routed;
-                        hdlg.repaint();
+                        if (is_main_board())
+                        {
+                            hdlg.repaint();
+                        }
                     }
                     else
                     {
@@ -241,6 +289,12 @@ public class BatchAutorouter
                 }
                 remove_tails(stop_connection_option);
             }
+            if (this.metrics_listener != null)
+            {
+                this.metrics_listener.pass_completed(new AutorouteMetrics.Pass(AutorouteMetrics.Pass.Type.AUTOROUTE, p_pass_no,
+                        item_count, routed, ripped_item_count, not_found, this.routing_board.get_vias().size(),
+                        this.routing_board.cumulative_trace_length(), System.nanoTime() - start_time));
+            }
             this.air_line = null;
             return true;
         } catch (Exception e)
@@ -250,6 +304,68 @@ public class BatchAutorouter
         }
     }
 
+    /**
+     * Sets the number of threads used for autorouting.
+     * If p_thread_count > 1, connections in disjoint org.thehellnet.tools.freerouting.board regions are routed at the same time
+     * on copies of the org.thehellnet.tools.freerouting.board.
+     */
+    public void set_thread_count(int p_thread_count)
+    {
+        this.thread_count = Math.max(p_thread_count, 1);
+    }
+
+    /**
+     * Sets the factor, with which the lower bound of the costs to the destination is weighted in the maze search.
+     * A factor bigger than 1 directs the search stronger to the destination, so that less rooms are expanded,
+     * but the found connections may get more expensive. The factor is reduced towards 1 in later passes.
+     * The default 1 finds the connections with minimal costs.
+     */
+    public void set_search_weight(double p_value)
+    {
+        this.search_weight = Math.max(p_value, 1);
+    }
+
+    /**
+     * Sets the maximal number of door sections and drills expanded by the maze search of a connection in the first pass.
+     * A connection not found within this budget is tried again in the next pass with the doubled budget.
+     * If p_value is 0, the maze search is not limited, which is the default.
+     */
+    public void set_max_expansion_count(int p_value)
+    {
+        this.max_expansion_count = Math.max(p_value, 0);
+    }
+
+    /**
+     * Sets the listener, which receives the metrics of the connections and passes of this autorouter, or null.
+     */
+    public void set_metrics_listener(AutorouteMetrics.Listener p_listener)
+    {
+        this.metrics_listener = p_listener;
+    }
+
+    /**
+     * Reports p_connection_metrics collected by autoroute_item to the metrics listener.
+     */
+    void report_connection_metrics(Collection<AutorouteMetrics.Connection> p_connection_metrics)
+    {
+        if (this.metrics_listener == null)
+        {
+            return;
+        }
+        for (AutorouteMetrics.Connection curr_metrics : p_connection_metrics)
+        {
+            this.metrics_listener.connection_completed(curr_metrics);
+        }
+    }
+
+    /**
+     * Returns false, if this autorouter works on a copy of the routing org.thehellnet.tools.freerouting.board.
+     */
+    private boolean is_main_board()
+    {
+        return this.routing_board == this.hdlg.get_routing_board();
+    }
+
     private void remove_tails(Item.StopConnectionOption p_stop_connection_option)
     {
         routing_board.start_marking_changed_area();
@@ -258,12 +374,20 @@ public class BatchAutorouter
                 this.trace_cost_arr, this.thread, TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP);
     }
 
-    private boolean autoroute_item(Item p_item, int p_route_net_no, SortedSet<Item> p_ripped_item_list, int p_ripup_pass_no)
+    /**
+     * Autoroutes the connection of p_item in the net p_route_net_no on p_board, which is the routed org.thehellnet.tools.freerouting.board
+     * or a copy of it used by a thread of a parallel org.thehellnet.tools.freerouting.autoroute pass.
+     * The changed area of p_board must be marked before calling this function.
+     * If p_connection_metrics != null, the metrics of the connection are added to p_connection_metrics
+     * instead of being reported to the metrics listener, so that they can be reported later with report_connection_metrics.
+     */
+    boolean autoroute_item(RoutingBoard p_board, Item p_item, int p_route_net_no, SortedSet<Item> p_ripped_item_list, int p_ripup_pass_no,
+            Collection<AutorouteMetrics.Connection> p_connection_metrics)
     {
         try
         {
             boolean contains_plane = false;
-            org.thehellnet.tools.freerouting.rules.Net route_net = routing_board.rules.nets.get(p_route_net_no);
+            org.thehellnet.tools.freerouting.rules.Net route_net = p_board.rules.nets.get(p_route_net_no);
             if (route_net != null)
             {
                 contains_plane = route_net.contains_plane();
@@ -278,10 +402,18 @@ public class BatchAutorouter
             {
                 curr_via_costs = hdlg.settings.autoroute_settings.get_via_costs();
             }
-            AutorouteControl autoroute_control = new AutorouteControl(this.routing_board, p_route_net_no, hdlg.settings, curr_via_costs, this.trace_cost_arr);
+            AutorouteControl autoroute_control = new AutorouteControl(p_board, p_route_net_no, hdlg.settings, curr_via_costs, this.trace_cost_arr);
             autoroute_control.ripup_allowed = true;
             autoroute_control.ripup_costs = this.start_ripup_costs * p_ripup_pass_no;
             autoroute_control.remove_unconnected_vias = this.remove_unconnected_vias;
+            // Connections not found in a pass are searched again in the next pass
+            // with a weight closer to 1 and a doubled expansion budget.
+            double pass_factor = Math.pow(2, p_ripup_pass_no - 1);
+            autoroute_control.search_weight = 1 + (this.search_weight - 1) / pass_factor;
+            if (this.max_expansion_count > 0)
+            {
+                autoroute_control.max_expansion_count = (int) Math.min(this.max_expansion_count * pass_factor, Integer.MAX_VALUE);
+            }
 
             Set<Item> unconnected_set = p_item.get_unconnected_set(p_route_net_no);
             if (unconnected_set.size() == 0)
@@ -314,17 +446,34 @@ public class BatchAutorouter
                 route_dest_set = connected_set;
             }
 
-            calc_airline(route_start_set, route_dest_set);
+            if (p_board == this.hdlg.get_routing_board())
+            {
+                calc_airline(route_start_set, route_dest_set);
+            }
             double max_milliseconds = 100000 * Math.pow(2, p_ripup_pass_no - 1);
             max_milliseconds = Math.min(max_milliseconds, Integer.MAX_VALUE);
             TimeLimit time_limit = new TimeLimit((int) max_milliseconds);
-            AutorouteEngine autoroute_engine = routing_board.init_autoroute(p_route_net_no,
+            long start_time = System.nanoTime();
+            AutorouteEngine autoroute_engine = p_board.init_autoroute(p_route_net_no,
                     autoroute_control.trace_clearance_class_no, this.thread, time_limit, this.retain_autoroute_database);
             AutorouteEngine.AutorouteResult autoroute_result = autoroute_engine.autoroute_connection(route_start_set, route_dest_set, autoroute_control,
                     p_ripped_item_list);
+            if (this.metrics_listener != null)
+            {
+                AutorouteMetrics.Connection connection_metrics = new AutorouteMetrics.Connection(p_ripup_pass_no, p_route_net_no,
+                        p_item.get_id_no(), autoroute_result, System.nanoTime() - start_time, autoroute_engine, p_ripped_item_list.size());
+                if (p_connection_metrics != null)
+                {
+                    p_connection_metrics.add(connection_metrics);
+                }
+                else
+                {
+                    this.metrics_listener.connection_completed(connection_metrics);
+                }
+            }
             if (autoroute_result == AutorouteEngine.AutorouteResult.ROUTED)
             {
-                routing_board.opt_changed_area(new int[0], null, this.hdlg.settings.get_trace_pull_tight_accuracy(), autoroute_control.trace_costs, this.thread, TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP);
+                p_board.opt_changed_area(new int[0], null, this.hdlg.settings.get_trace_pull_tight_accuracy(), autoroute_control.trace_costs, this.thread, TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP);
             }
             // org.thehellnet.tools.freerouting.tests.Validate.check("Autoroute  ", hdlg.get_routing_board());
             boolean result = autoroute_result == AutorouteEngine.AutorouteResult.ROUTED || autoroute_result == AutorouteEngine.AutorouteResult.ALREADY_CONNECTED;
@@ -389,7 +538,11 @@ public class BatchAutorouter
     private final boolean remove_unconnected_vias;
     private final AutorouteControl.ExpansionCostFactor[] trace_cost_arr;
     private final boolean retain_autoroute_database;
+    private double search_weight = 1;
+    private int max_expansion_count = 0;
+    private AutorouteMetrics.Listener metrics_listener = null;
     private final int start_ripup_costs;
+    private int thread_count = 1;
     /** Used to draw the airline of the current routed incomplete. */
     private FloatLine air_line = null;
     private static final int TIME_LIMIT_TO_PREVENT_ENDLESS_LOOP = 1000;
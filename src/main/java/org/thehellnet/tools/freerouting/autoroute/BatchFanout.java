@@ -35,8 +35,23 @@ public class BatchFanout
 {
 
     public static void fanout_board(InteractiveActionThread p_thread)
+    {
+        fanout_board(p_thread, 1);
+    }
+
+    /**
+     * Fanouts the SMD pins of the org.thehellnet.tools.freerouting.board.
+     * If p_thread_count > 1, components in disjoint org.thehellnet.tools.freerouting.board regions are fanouted at the same time
+     * by p_thread_count threads.
+     */
+    public static void fanout_board(InteractiveActionThread p_thread, int p_thread_count)
     {
         BatchFanout fanout_instance = new BatchFanout(p_thread);
+        fanout_instance.routing_board.search_tree_manager.build_autoroute_trees(p_thread_count);
+        if (p_thread_count > 1 && fanout_instance.sorted_components.size() > 1)
+        {
+            fanout_instance.parallel_pass = ParallelFanoutPass.get_instance(fanout_instance.routing_board, p_thread, p_thread_count);
+        }
         final int MAX_PASS_COUNT = 20;
         for (int i = 0; i < MAX_PASS_COUNT; ++i)
         {
@@ -71,6 +86,10 @@ public class BatchFanout
      */
     private int fanout_pass(int p_pass_no)
     {
+        if (this.parallel_pass != null)
+        {
+            return parallel_fanout_pass(p_pass_no);
+        }
         int components_to_go = this.sorted_components.size();
         int routed_count = 0;
         int not_routed_count = 0;
@@ -117,8 +136,38 @@ public class BatchFanout
         return routed_count;
     }
     
+    /**
+     *  Routes a fanout pass with the threads of this.parallel_pass and returns the number of new fanouted SMD-pins
+     *  in this pass.
+     */
+    private int parallel_fanout_pass(int p_pass_no)
+    {
+        int ripup_costs = this.thread.hdlg.settings.autoroute_settings.get_start_ripup_costs() * (p_pass_no + 1);
+        Collection<Collection<org.thehellnet.tools.freerouting.board.Pin>> pin_lists =
+                new java.util.LinkedList<Collection<org.thehellnet.tools.freerouting.board.Pin>>();
+        for (Component curr_component : this.sorted_components)
+        {
+            Collection<org.thehellnet.tools.freerouting.board.Pin> curr_pin_list =
+                    new java.util.LinkedList<org.thehellnet.tools.freerouting.board.Pin>();
+            for (Component.Pin curr_pin : curr_component.smd_pins)
+            {
+                curr_pin_list.add(curr_pin.board_pin);
+            }
+            pin_lists.add(curr_pin_list);
+        }
+        int routed_count = this.parallel_pass.fanout_components(pin_lists, p_pass_no, ripup_costs);
+        if (this.routing_board.get_test_level() != org.thehellnet.tools.freerouting.board.TestLevel.RELEASE_VERSION)
+        {
+            System.out.println("fanout pass: " + (p_pass_no + 1) + ", routed: " + routed_count 
+                    + ", not routed: " + this.parallel_pass.not_routed_count + ", errors: " + this.parallel_pass.insert_error_count);
+        }
+        return routed_count;
+    }
+    
     private final InteractiveActionThread thread;
     private final RoutingBoard routing_board;
+    /** Used instead of the sequential fanout, if more than one thread is used, else null. */
+    private ParallelFanoutPass parallel_pass = null;
 
     private static class Component implements Comparable<Component>
     {
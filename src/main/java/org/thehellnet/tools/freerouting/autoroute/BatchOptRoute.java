@@ -31,6 +31,7 @@ import org.thehellnet.tools.freerouting.board.FixedState;
 import org.thehellnet.tools.freerouting.board.TestLevel;
 
 import org.thehellnet.tools.freerouting.interactive.InteractiveActionThread;
+import org.thehellnet.tools.freerouting.interactive.RatsNest;
 
 /**
  * To optimize the vias and traces after the batch autorouter has completed the org.thehellnet.tools.freerouting.board.
@@ -62,13 +63,43 @@ public class BatchOptRoute
         boolean route_improved = true;
         int curr_pass_no = 0;
         use_increased_ripup_costs = true;
+        if (this.thread_count > 1)
+        {
+            this.parallel_opt_route = ParallelOptRoute.get_instance(this, this.routing_board, this.thread, this.thread_count);
+        }
 
         while (route_improved)
         {
             ++curr_pass_no;
             boolean with_prefered_directions = (curr_pass_no % 2 != 0); // to create more variations
+            long start_time = System.nanoTime();
             route_improved = opt_route_pass(curr_pass_no, with_prefered_directions);
+            if (this.metrics_listener != null)
+            {
+                this.metrics_listener.pass_completed(new AutorouteMetrics.Pass(AutorouteMetrics.Pass.Type.OPTIMIZE, curr_pass_no,
+                        0, 0, 0, 0, this.routing_board.get_vias().size(), this.routing_board.cumulative_trace_length(),
+                        System.nanoTime() - start_time));
+            }
         }
+        this.parallel_opt_route = null;
+    }
+
+    /**
+     * Sets the number of threads used for optimizing.
+     * If p_thread_count > 1, route items in disjoint org.thehellnet.tools.freerouting.board regions are rerouted at the same time
+     * on copies of the org.thehellnet.tools.freerouting.board.
+     */
+    public void set_thread_count(int p_thread_count)
+    {
+        this.thread_count = Math.max(p_thread_count, 1);
+    }
+
+    /**
+     * Sets the listener, which receives the metrics of the optimize passes, or null.
+     */
+    public void set_metrics_listener(AutorouteMetrics.Listener p_listener)
+    {
+        this.metrics_listener = p_listener;
     }
 
     /**
@@ -82,21 +113,34 @@ public class BatchOptRoute
         double trace_length_before = this.thread.hdlg.coordinate_transform.board_to_user(this.routing_board.cumulative_trace_length());
         this.thread.hdlg.screen_messages.set_post_route_info(via_count_before, trace_length_before);
         this.sorted_route_items = new ReadSortedRouteItems();
+        // Recalculate the ratsnest once per pass, inside the pass it is updated incrementally.
+        this.thread.hdlg.remove_ratsnest();
         this.min_cumulative_trace_length_before = calc_weighted_trace_length(routing_board);
-        for (;;)
+        if (this.parallel_opt_route != null)
         {
+            route_improved = this.parallel_opt_route.opt_route_items(p_pass_no, p_with_prefered_directions);
             if (this.thread.is_stop_requested())
             {
                 return route_improved;
             }
-            Item curr_item = sorted_route_items.next();
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (opt_route_item(curr_item, p_pass_no, p_with_prefered_directions))
+        }
+        else
+        {
+            for (;;)
             {
-                route_improved = true;
+                if (this.thread.is_stop_requested())
+                {
+                    return route_improved;
+                }
+                Item curr_item = sorted_route_items.next();
+                if (curr_item == null)
+                {
+                    break;
+                }
+                if (opt_route_item(curr_item, p_pass_no, p_with_prefered_directions))
+                {
+                    route_improved = true;
+                }
             }
         }
         this.sorted_route_items = null;
@@ -112,14 +156,69 @@ public class BatchOptRoute
      * Trie to improve the route by retouting the connections containing p_item.
      */
     private boolean opt_route_item(Item p_item, int p_pass_no, boolean p_with_prefered_directions)
+    {
+        this.thread.hdlg.screen_messages.set_status_message(start_message(p_pass_no));
+        RatsNest ratsnest = this.thread.hdlg.get_ratsnest();
+        int incomplete_count_before = ratsnest.incomplete_count();
+        int via_count_before = this.routing_board.get_vias().size();
+        Set<Item> ripped_connections = get_ripped_connections(p_item);
+        if (ripped_connections == null)
+        {
+            return false;
+        }
+        routing_board.generate_snapshot();
+        this.routing_board.remove_items(ripped_connections, false);
+        for (int i = 0; i < p_item.net_count(); ++i)
+        {
+            this.routing_board.combine_traces(p_item.get_net_no(i));
+        }
+        BatchAutorouter.autoroute_passes_for_optimizing_item(this.thread, MAX_AUTOROUTE_PASSES,
+                get_ripup_costs(p_item), p_with_prefered_directions);
+        // Only the nets changed by the rerouting have to be recalculated in the ratsnest.
+        Set<Integer> changed_nets = routing_board.get_changed_nets();
+        ratsnest.recalculate(changed_nets, this.routing_board);
+        int incomplete_count_after = ratsnest.incomplete_count();
+        int via_count_after = this.routing_board.get_vias().size();
+        double trace_length_after = calc_weighted_trace_length(routing_board);
+        boolean route_improved = !this.thread.is_stop_requested() && is_improved(incomplete_count_before, via_count_before,
+                incomplete_count_after, via_count_after, trace_length_after);
+        if (route_improved)
+        {
+            update_min_trace_length(incomplete_count_before, via_count_before, incomplete_count_after,
+                    via_count_after, trace_length_after);
+            routing_board.pop_snapshot();
+            double new_trace_length = this.thread.hdlg.coordinate_transform.board_to_user(this.routing_board.cumulative_trace_length());
+            this.thread.hdlg.screen_messages.set_post_route_info(via_count_after, new_trace_length);
+        }
+        else
+        {
+            routing_board.undo(null);
+            ratsnest.recalculate(changed_nets, this.routing_board);
+        }
+        return route_improved;
+    }
+
+    /**
+     * Returns the next item to reroute in the current pass, or null, if all items are read.
+     */
+    Item next_route_item()
+    {
+        return this.sorted_route_items.next();
+    }
+
+    String start_message(int p_pass_no)
     {
         java.util.ResourceBundle resources =
                 java.util.ResourceBundle.getBundle("interactive/InteractiveState", this.thread.hdlg.get_locale());
-        String start_message = resources.getString("batch_optimizer") + " " + resources.getString("stop_message") + "        " + resources.getString("pass") + " " + (new Integer(p_pass_no)).toString() + ": ";
-        this.thread.hdlg.screen_messages.set_status_message(start_message);
-        this.thread.hdlg.remove_ratsnest();
-        int incomplete_count_before = this.thread.hdlg.get_ratsnest().incomplete_count();
-        int via_count_before = this.routing_board.get_vias().size();
+        return resources.getString("batch_optimizer") + " " + resources.getString("stop_message") + "        " + resources.getString("pass") + " " + (new Integer(p_pass_no)).toString() + ": ";
+    }
+
+    /**
+     * Returns the connections, which are ripped up to reroute p_item,
+     * or null, if one of them is fixed by the user.
+     */
+    static Set<Item> get_ripped_connections(Item p_item)
+    {
         Set<Item> ripped_items = new java.util.TreeSet<Item>();
         ripped_items.add(p_item);
         if (p_item instanceof Trace)
@@ -146,15 +245,17 @@ public class BatchOptRoute
         {
             if (curr_item.is_user_fixed())
             {
-                return false;
+                return null;
             }
         }
-        routing_board.generate_snapshot();
-        this.routing_board.remove_items(ripped_connections, false);
-        for (int i = 0; i < p_item.net_count(); ++i)
-        {
-            this.routing_board.combine_traces(p_item.get_net_no(i));
-        }
+        return ripped_connections;
+    }
+
+    /**
+     * Returns the ripup costs for rerouting the connections of p_item.
+     */
+    int get_ripup_costs(Item p_item)
+    {
         int ripup_costs = this.thread.hdlg.settings.autoroute_settings.get_start_ripup_costs();
         if (this.use_increased_ripup_costs)
         {
@@ -165,39 +266,52 @@ public class BatchOptRoute
             // taking less ripup costs seems to produce better results
             ripup_costs = (int) Math.round(0.6 * (double) ripup_costs);
         }
-        BatchAutorouter.autoroute_passes_for_optimizing_item(this.thread, MAX_AUTOROUTE_PASSES,
-                ripup_costs, p_with_prefered_directions);
-        this.thread.hdlg.remove_ratsnest();
-        int incomplete_count_after = this.thread.hdlg.get_ratsnest().incomplete_count();
-        int via_count_after = this.routing_board.get_vias().size();
-        double trace_length_after = calc_weighted_trace_length(routing_board);
-        boolean route_improved = !this.thread.is_stop_requested() && (incomplete_count_after < incomplete_count_before ||
-                incomplete_count_after == incomplete_count_before &&
-                (via_count_after < via_count_before ||
-                via_count_after == via_count_before &&
-                this.min_cumulative_trace_length_before > trace_length_after));
-        if (route_improved)
+        return ripup_costs;
+    }
+
+    /**
+     * Returns true, if the route after rerouting is better than the route before:
+     * the incomplete count, the via count and the weighted trace length are compared in this order.
+     */
+    boolean is_improved(int p_incomplete_count_before, int p_via_count_before,
+            int p_incomplete_count_after, int p_via_count_after, double p_trace_length_after)
+    {
+        return is_improved(p_incomplete_count_before, p_via_count_before, p_incomplete_count_after,
+                p_via_count_after, p_trace_length_after, 0);
+    }
+
+    /**
+     * Like is_improved, but a decrease of the weighted trace length is only regarded as improvement,
+     * if it is bigger than p_relative_tolerance times the weighted trace length before.
+     */
+    boolean is_improved(int p_incomplete_count_before, int p_via_count_before,
+            int p_incomplete_count_after, int p_via_count_after, double p_trace_length_after, double p_relative_tolerance)
+    {
+        return p_incomplete_count_after < p_incomplete_count_before ||
+                p_incomplete_count_after == p_incomplete_count_before &&
+                (p_via_count_after < p_via_count_before ||
+                p_via_count_after == p_via_count_before &&
+                this.min_cumulative_trace_length_before - p_trace_length_after >
+                p_relative_tolerance * this.min_cumulative_trace_length_before);
+    }
+
+    /**
+     * Updates the minimal weighted trace length after an improvement of the route.
+     */
+    void update_min_trace_length(int p_incomplete_count_before, int p_via_count_before,
+            int p_incomplete_count_after, int p_via_count_after, double p_trace_length_after)
+    {
+        if (p_incomplete_count_after < p_incomplete_count_before ||
+                p_incomplete_count_after == p_incomplete_count_before && p_via_count_after < p_via_count_before)
         {
-            if (incomplete_count_after < incomplete_count_before ||
-                    incomplete_count_after == incomplete_count_before && via_count_after < via_count_before)
-            {
-                this.min_cumulative_trace_length_before = trace_length_after;
-            }
-            else
-            {
-                // Only cumulative trace length shortened.
-                // Catch unexpected increase of cumulative trace length somewhere for examole by removing acid trapsw.
-                this.min_cumulative_trace_length_before = Math.min(this.min_cumulative_trace_length_before, trace_length_after);
-            }
-            routing_board.pop_snapshot();
-            double new_trace_length = this.thread.hdlg.coordinate_transform.board_to_user(this.routing_board.cumulative_trace_length());
-            this.thread.hdlg.screen_messages.set_post_route_info(via_count_after, new_trace_length);
+            this.min_cumulative_trace_length_before = p_trace_length_after;
         }
         else
         {
-            routing_board.undo(null);
+            // Only cumulative trace length shortened.
+            // Catch unexpected increase of cumulative trace length somewhere for examole by removing acid trapsw.
+            this.min_cumulative_trace_length_before = Math.min(this.min_cumulative_trace_length_before, p_trace_length_after);
         }
-        return route_improved;
     }
 
     static boolean contains_only_unfixed_traces(Collection<Item> p_item_list)
@@ -216,7 +330,7 @@ public class BatchOptRoute
      *  Calculates the cumulative trace lengths multiplied by the trace radius of all traces
      *  on the org.thehellnet.tools.freerouting.board, which are not shove_fixed.
      */
-    private static double calc_weighted_trace_length(RoutingBoard p_board)
+    static double calc_weighted_trace_length(RoutingBoard p_board)
     {
         double result = 0;
         int default_clearance_class = org.thehellnet.tools.freerouting.rules.BoardRules.default_clearance_class();
@@ -263,7 +377,10 @@ public class BatchOptRoute
     private ReadSortedRouteItems sorted_route_items;
     private boolean use_increased_ripup_costs; // in the first passes the ripup costs are icreased for better performance.
     private double min_cumulative_trace_length_before = 0;
-    private static int MAX_AUTOROUTE_PASSES = 6;
+    private int thread_count = 1;
+    private ParallelOptRoute parallel_opt_route = null;
+    private AutorouteMetrics.Listener metrics_listener = null;
+    static final int MAX_AUTOROUTE_PASSES = 6;
     private static int ADDITIONAL_RIPUP_COST_FACTOR_AT_START = 10;
 
     /**
@@ -0,0 +1,447 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * BoardCopies.java
+ */
+package org.thehellnet.tools.freerouting.autoroute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.thehellnet.tools.freerouting.datastructures.UndoableObjects;
+
+import org.thehellnet.tools.freerouting.planar.IntBox;
+
+import org.thehellnet.tools.freerouting.board.Connectable;
+import org.thehellnet.tools.freerouting.board.Item;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+import org.thehellnet.tools.freerouting.board.Via;
+
+/**
+ * Private copies of the routing org.thehellnet.tools.freerouting.board for the threads of a parallel batch pass.
+ * A thread changes its copy after a snapshot, and the changes are taken back from the copy with
+ * get_changes. The changes of the threads are transferred to the routing org.thehellnet.tools.freerouting.board with commit
+ * and afterwards to all copies with synchronize, so that the copies stay equal to the routing org.thehellnet.tools.freerouting.board.
+ * A copy, which may no longer be equal to the routing org.thehellnet.tools.freerouting.board because of an exception in its thread,
+ * is marked with invalidate and replaced by a new copy in renew_invalid_copies.
+ */
+class BoardCopies
+{
+
+    /**
+     * Creates p_count copies of p_board.
+     * Returns null, if the org.thehellnet.tools.freerouting.board could not be copied.
+     */
+    static BoardCopies get_instance(RoutingBoard p_board, int p_count)
+    {
+        RoutingBoard[] board_copies = new RoutingBoard[p_count];
+        for (int i = 0; i < p_count; ++i)
+        {
+            board_copies[i] = p_board.deep_copy();
+            if (board_copies[i] == null)
+            {
+                return null;
+            }
+        }
+        return new BoardCopies(p_board, board_copies);
+    }
+
+    private BoardCopies(RoutingBoard p_board, RoutingBoard[] p_board_copies)
+    {
+        this.routing_board = p_board;
+        this.board_copies = p_board_copies;
+        this.invalid_copies = new boolean[p_board_copies.length];
+        int max_clearance = 0;
+        for (int i = 0; i < p_board.get_layer_count(); ++i)
+        {
+            max_clearance = Math.max(max_clearance, p_board.rules.clearance_matrix.max_value(i));
+        }
+        this.region_offset = 2 * (p_board.get_max_trace_half_width() + max_clearance) +
+                (int) Math.ceil(p_board.rules.get_default_via_diameter());
+    }
+
+    /**
+     * Returns the number of org.thehellnet.tools.freerouting.board copies.
+     */
+    int count()
+    {
+        return this.board_copies.length;
+    }
+
+    /**
+     * Returns the org.thehellnet.tools.freerouting.board copy with index p_no.
+     */
+    RoutingBoard get(int p_no)
+    {
+        return this.board_copies[p_no];
+    }
+
+    /**
+     * Calculates for each net a box containing all its connectable items enlarged by this.region_offset.
+     */
+    Map<Integer, IntBox> calculate_net_regions()
+    {
+        Map<Integer, IntBox> result = new TreeMap<Integer, IntBox>();
+        Iterator<UndoableObjects.UndoableObjectNode> it = this.routing_board.item_list.start_read_object();
+        for (;;)
+        {
+            UndoableObjects.Storable curr_ob = this.routing_board.item_list.read_object(it);
+            if (curr_ob == null)
+            {
+                break;
+            }
+            if (!(curr_ob instanceof Connectable && curr_ob instanceof Item))
+            {
+                continue;
+            }
+            Item curr_item = (Item) curr_ob;
+            IntBox curr_box = curr_item.bounding_box();
+            for (int i = 0; i < curr_item.net_count(); ++i)
+            {
+                Integer curr_net_no = curr_item.get_net_no(i);
+                IntBox curr_region = result.get(curr_net_no);
+                if (curr_region == null)
+                {
+                    result.put(curr_net_no, curr_box);
+                }
+                else
+                {
+                    result.put(curr_net_no, curr_region.union(curr_box));
+                }
+            }
+        }
+        for (Map.Entry<Integer, IntBox> curr_entry : result.entrySet())
+        {
+            curr_entry.setValue(curr_entry.getValue().offset(this.region_offset));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the union of the regions in p_net_regions of the nets of p_item.
+     */
+    static IntBox get_region(Item p_item, Map<Integer, IntBox> p_net_regions)
+    {
+        IntBox result = IntBox.EMPTY;
+        for (int i = 0; i < p_item.net_count(); ++i)
+        {
+            IntBox net_region = p_net_regions.get(p_item.get_net_no(i));
+            if (net_region != null)
+            {
+                result = result.union(net_region);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the union of the bounding boxes of p_items enlarged by this.region_offset.
+     */
+    IntBox get_region(Collection<? extends Item> p_items)
+    {
+        IntBox result = IntBox.EMPTY;
+        for (Item curr_item : p_items)
+        {
+            result = result.union(curr_item.bounding_box());
+        }
+        return result.offset(this.region_offset);
+    }
+
+    /**
+     * Restores the state of the last snapshot of p_board_copy and returns the undone changes.
+     */
+    Changes get_changes(RoutingBoard p_board_copy)
+    {
+        Collection<Item> new_items = new LinkedList<Item>();
+        Collection<Item> removed_items = new LinkedList<Item>();
+        p_board_copy.undo(null, new_items, removed_items);
+        IntBox changed_region = IntBox.EMPTY;
+        for (Item curr_changed_item : new_items)
+        {
+            changed_region = changed_region.union(curr_changed_item.bounding_box());
+        }
+        for (Item curr_changed_item : removed_items)
+        {
+            changed_region = changed_region.union(curr_changed_item.bounding_box());
+        }
+        return new Changes(new_items, removed_items, changed_region.offset(this.region_offset));
+    }
+
+    /**
+     * Transfers p_changes to the routing org.thehellnet.tools.freerouting.board.
+     * Returns false, if the changes conflict with p_committed_changes,
+     * which were already transferred since the last synchronisation of the org.thehellnet.tools.freerouting.board copies.
+     */
+    boolean commit(Changes p_changes, Collection<Changes> p_committed_changes)
+    {
+        if (p_changes.is_empty())
+        {
+            return true;
+        }
+        for (Changes curr_committed : p_committed_changes)
+        {
+            if (curr_committed.changed_region.intersects(p_changes.changed_region))
+            {
+                return false;
+            }
+        }
+        Set<Integer> removed_id_nos = new TreeSet<Integer>();
+        for (Item curr_item : p_changes.removed_items)
+        {
+            removed_id_nos.add(curr_item.get_id_no());
+        }
+        Map<Integer, Item> items_to_remove = get_items(this.routing_board, removed_id_nos);
+        if (items_to_remove.size() != removed_id_nos.size())
+        {
+            return false;
+        }
+        boolean observers_activated = !this.routing_board.observers_active();
+        if (observers_activated)
+        {
+            this.routing_board.start_notify_observers();
+        }
+        for (Item curr_item : items_to_remove.values())
+        {
+            this.routing_board.remove_item(curr_item);
+        }
+        List<Item> committed_items = new ArrayList<Item>(p_changes.new_items.size());
+        for (Item curr_item : p_changes.new_items)
+        {
+            // Items changed by the thread keep their id number, new items get an id number of the routing org.thehellnet.tools.freerouting.board.
+            int new_id_no;
+            if (removed_id_nos.contains(curr_item.get_id_no()))
+            {
+                new_id_no = curr_item.get_id_no();
+            }
+            else
+            {
+                new_id_no = this.routing_board.communication.id_no_generator.new_no();
+            }
+            Item new_item = copy_item(curr_item, new_id_no, this.routing_board);
+            this.routing_board.insert_item(new_item);
+            committed_items.add(new_item);
+        }
+        if (observers_activated)
+        {
+            this.routing_board.end_notify_observers();
+        }
+        p_changes.committed_items = committed_items;
+        p_changes.removed_id_nos = removed_id_nos;
+        return true;
+    }
+
+    /**
+     * Transfers p_committed_changes from the routing org.thehellnet.tools.freerouting.board to all org.thehellnet.tools.freerouting.board copies.
+     */
+    void synchronize(final Collection<Changes> p_committed_changes, ExecutorService p_executor)
+    {
+        final Set<Integer> removed_id_nos = new TreeSet<Integer>();
+        for (Changes curr_changes : p_committed_changes)
+        {
+            removed_id_nos.addAll(curr_changes.removed_id_nos);
+        }
+        final int max_id_no = this.routing_board.communication.id_no_generator.max_generated_no();
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(this.board_copies.length);
+        for (int i = 0; i < this.board_copies.length; ++i)
+        {
+            if (this.invalid_copies[i])
+            {
+                // the copy will be replaced anyway
+                futures.add(null);
+                continue;
+            }
+            final RoutingBoard curr_board = this.board_copies[i];
+            futures.add(p_executor.submit(new Callable<Boolean>()
+            {
+
+                public Boolean call()
+                {
+                    for (Item curr_item : get_items(curr_board, removed_id_nos).values())
+                    {
+                        curr_board.remove_item(curr_item);
+                    }
+                    for (Changes curr_changes : p_committed_changes)
+                    {
+                        for (Item curr_item : curr_changes.committed_items)
+                        {
+                            curr_board.insert_item(copy_item(curr_item, curr_item.get_id_no(), curr_board));
+                        }
+                    }
+                    // Items created on this copy later must not get the id number of an item of the routing org.thehellnet.tools.freerouting.board.
+                    while (curr_board.communication.id_no_generator.max_generated_no() < max_id_no)
+                    {
+                        curr_board.communication.id_no_generator.new_no();
+                    }
+                    return Boolean.TRUE;
+                }
+            }));
+        }
+        for (int i = 0; i < futures.size(); ++i)
+        {
+            Future<Boolean> curr_future = futures.get(i);
+            if (curr_future == null)
+            {
+                continue;
+            }
+            try
+            {
+                curr_future.get();
+            } catch (Exception e)
+            {
+                invalidate(i, e);
+            }
+        }
+    }
+
+    /**
+     * Marks the org.thehellnet.tools.freerouting.board copy with index p_no as no longer equal to the routing org.thehellnet.tools.freerouting.board,
+     * because its thread was aborted by p_exception.
+     * The copy is not synchronized any more and must be replaced with renew_invalid_copies before it is used again.
+     */
+    void invalidate(int p_no, Exception p_exception)
+    {
+        Throwable cause = p_exception;
+        if (p_exception instanceof java.util.concurrent.ExecutionException && p_exception.getCause() != null)
+        {
+            cause = p_exception.getCause();
+        }
+        System.out.println("BoardCopies: org.thehellnet.tools.freerouting.board copy " + p_no + " is renewed after " + cause);
+        this.invalid_copies[p_no] = true;
+    }
+
+    /**
+     * Replaces the org.thehellnet.tools.freerouting.board copies marked with invalidate by new copies of the routing org.thehellnet.tools.freerouting.board.
+     * Must be called after the committed changes are synchronized.
+     * Returns false, if the routing org.thehellnet.tools.freerouting.board could not be copied.
+     */
+    boolean renew_invalid_copies()
+    {
+        for (int i = 0; i < this.board_copies.length; ++i)
+        {
+            if (!this.invalid_copies[i])
+            {
+                continue;
+            }
+            RoutingBoard new_copy = this.routing_board.deep_copy();
+            if (new_copy == null)
+            {
+                return false;
+            }
+            this.board_copies[i] = new_copy;
+            this.invalid_copies[i] = false;
+        }
+        return true;
+    }
+
+    /**
+     * Copies p_item with the id number p_id_no for inserting it into p_board.
+     * The padstack of a via is replaced by the padstack with the same number in the library of p_board,
+     * so that the items of a org.thehellnet.tools.freerouting.board do not point into the library of another org.thehellnet.tools.freerouting.board.
+     */
+    private static Item copy_item(Item p_item, int p_id_no, RoutingBoard p_board)
+    {
+        Item result = p_item.copy(p_id_no);
+        if (result instanceof Via)
+        {
+            Via curr_via = (Via) result;
+            curr_via.set_padstack(p_board.library.padstacks.get(curr_via.get_padstack().no));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the items of p_board with an id number in p_id_nos.
+     */
+    static Map<Integer, Item> get_items(RoutingBoard p_board, Set<Integer> p_id_nos)
+    {
+        Map<Integer, Item> result = new TreeMap<Integer, Item>();
+        for (Integer curr_id_no : p_id_nos)
+        {
+            Item curr_item = p_board.get_item(curr_id_no);
+            if (curr_item != null)
+            {
+                result.put(curr_id_no, curr_item);
+            }
+        }
+        return result;
+    }
+
+    private final RoutingBoard routing_board;
+    /** The private org.thehellnet.tools.freerouting.board copies of the threads. */
+    private final RoutingBoard[] board_copies;
+    /** The org.thehellnet.tools.freerouting.board copies, which must be replaced, because they may differ from the routing org.thehellnet.tools.freerouting.board. */
+    private final boolean[] invalid_copies;
+    /** The offset added to the bounding box of a net to get the region, which may be changed by routing it. */
+    private final int region_offset;
+
+    /**
+     * The changes made on a org.thehellnet.tools.freerouting.board copy since its last snapshot.
+     */
+    static class Changes
+    {
+
+        Changes(Collection<Item> p_new_items, Collection<Item> p_removed_items, IntBox p_changed_region)
+        {
+            this.new_items = p_new_items;
+            this.removed_items = p_removed_items;
+            this.changed_region = p_changed_region;
+        }
+
+        boolean is_empty()
+        {
+            return this.new_items.isEmpty() && this.removed_items.isEmpty();
+        }
+
+        /**
+         * Adds the numbers of the nets of the new and removed items to p_net_nos.
+         */
+        void add_net_nos(Set<Integer> p_net_nos)
+        {
+            for (Item curr_item : this.new_items)
+            {
+                for (int i = 0; i < curr_item.net_count(); ++i)
+                {
+                    p_net_nos.add(curr_item.get_net_no(i));
+                }
+            }
+            for (Item curr_item : this.removed_items)
+            {
+                for (int i = 0; i < curr_item.net_count(); ++i)
+                {
+                    p_net_nos.add(curr_item.get_net_no(i));
+                }
+            }
+        }
+        /** The items inserted or changed on the org.thehellnet.tools.freerouting.board copy */
+        final Collection<Item> new_items;
+        /** The items removed or changed on the org.thehellnet.tools.freerouting.board copy in their state before */
+        final Collection<Item> removed_items;
+        /** Contains the shapes of all new and removed items */
+        final IntBox changed_region;
+        /** The new items as inserted into the routing org.thehellnet.tools.freerouting.board */
+        Collection<Item> committed_items = new LinkedList<Item>();
+        Set<Integer> removed_id_nos = new TreeSet<Integer>();
+    }
+}
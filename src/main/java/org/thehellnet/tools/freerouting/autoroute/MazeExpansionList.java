@@ -0,0 +1,142 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * MazeExpansionList.java
+ */
+
+package org.thehellnet.tools.freerouting.autoroute;
+
+/**
+ * The queue of the maze search algorithm, implemented as binary heap sorted by
+ * MazeListElement.sorting_value.
+ * Elements with equal sorting values are removed in the order of their insertion.
+ * All added elements are kept, also several elements for the same door section,
+ * because a door section may be left unoccupied to allow ripup later.
+ */
+class MazeExpansionList
+{
+
+    /** Creates a new empty MazeExpansionList */
+    MazeExpansionList()
+    {
+        this.heap = new MazeListElement[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns true, if this list contains no elements.
+     */
+    boolean is_empty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Inserts p_element into this list.
+     */
+    void add(MazeListElement p_element)
+    {
+        p_element.insertion_no = this.insertion_count++;
+        if (this.size == this.heap.length)
+        {
+            MazeListElement[] new_heap = new MazeListElement[2 * this.heap.length];
+            System.arraycopy(this.heap, 0, new_heap, 0, this.size);
+            this.heap = new_heap;
+        }
+        int index = this.size++;
+        this.heap[index] = p_element;
+        sift_up(index);
+    }
+
+    /**
+     * Removes and returns the element with the smallest sorting value.
+     * Returns null, if the list is empty.
+     */
+    MazeListElement poll()
+    {
+        if (this.size == 0)
+        {
+            return null;
+        }
+        MazeListElement result = this.heap[0];
+        --this.size;
+        if (this.size > 0)
+        {
+            this.heap[0] = this.heap[this.size];
+            sift_down(0);
+        }
+        this.heap[this.size] = null;
+        return result;
+    }
+
+    private void sift_up(int p_index)
+    {
+        MazeListElement curr_element = this.heap[p_index];
+        int index = p_index;
+        while (index > 0)
+        {
+            int parent_index = (index - 1) >>> 1;
+            MazeListElement parent = this.heap[parent_index];
+            if (!is_before(curr_element, parent))
+            {
+                break;
+            }
+            this.heap[index] = parent;
+            index = parent_index;
+        }
+        this.heap[index] = curr_element;
+    }
+
+    private void sift_down(int p_index)
+    {
+        MazeListElement curr_element = this.heap[p_index];
+        int index = p_index;
+        int half_size = this.size >>> 1;
+        while (index < half_size)
+        {
+            int child_index = 2 * index + 1;
+            MazeListElement child = this.heap[child_index];
+            int right_index = child_index + 1;
+            if (right_index < this.size && is_before(this.heap[right_index], child))
+            {
+                child_index = right_index;
+                child = this.heap[child_index];
+            }
+            if (!is_before(child, curr_element))
+            {
+                break;
+            }
+            this.heap[index] = child;
+            index = child_index;
+        }
+        this.heap[index] = curr_element;
+    }
+
+    /**
+     * Returns true, if p_1 has to be removed from the list before p_2.
+     */
+    private static boolean is_before(MazeListElement p_1, MazeListElement p_2)
+    {
+        if (p_1.sorting_value != p_2.sorting_value)
+        {
+            return p_1.sorting_value < p_2.sorting_value;
+        }
+        return p_1.insertion_no < p_2.insertion_no;
+    }
+
+    private MazeListElement[] heap;
+    private int size = 0;
+    private int insertion_count = 0;
+    private static final int INITIAL_CAPACITY = 256;
+}
@@ -103,4 +103,7 @@ public class MazeListElement implements Comparable<MazeListElement>
     final MazeSearchElement.Adjustment adjustment;
     
     final boolean already_checked;
+    
+    /** Used in the MazeExpansionList to remove elements with equal sorting value in the order of their insertion */
+    int insertion_no = 0;
 }
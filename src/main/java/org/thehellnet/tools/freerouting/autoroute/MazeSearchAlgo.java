@@ -81,7 +81,7 @@ public class MazeSearchAlgo
         ctrl = p_ctrl;
         random_generator.setSeed(p_ctrl.ripup_costs); // To get reproducable random numbers in the ripup algorithm.
         this.search_tree = p_autoroute_engine.autoroute_search_tree;
-        maze_expansion_list = new TreeSet<MazeListElement>();
+        maze_expansion_list = new MazeExpansionList();
         destination_distance =
                 new DestinationDistance(ctrl.trace_costs, ctrl.layer_active,
                 ctrl.min_normal_via_cost, ctrl.min_cheap_via_cost);
@@ -119,17 +119,15 @@ public class MazeSearchAlgo
         MazeSearchElement curr_door_section = null;
         // Search the next element, which is not yet expanded.
         boolean next_element_found = false;
-        while (!maze_expansion_list.isEmpty())
+        while (!maze_expansion_list.is_empty())
         {
             if (this.autoroute_engine.is_stop_requested())
             {
                 return false;
             }
-            Iterator<MazeListElement> it = maze_expansion_list.iterator();
-            list_element = it.next();
+            list_element = maze_expansion_list.poll();
             int curr_section_no = list_element.section_no_of_door;
             curr_door_section = list_element.door.get_maze_search_element(curr_section_no);
-            it.remove();
             if (!curr_door_section.is_occupied)
             {
                 next_element_found = true;
@@ -140,6 +138,12 @@ public class MazeSearchAlgo
         {
             return false;
         }
+        if (ctrl.max_expansion_count > 0 && this.expansion_count >= ctrl.max_expansion_count)
+        {
+            // The expansion budget of this connection is used up.
+            return false;
+        }
+        ++this.expansion_count;
         curr_door_section.backtrack_door = list_element.backtrack_door;
         curr_door_section.section_no_of_backtrack_door = list_element.section_no_of_backtrack_door;
         curr_door_section.room_ripped = list_element.room_ripped;
@@ -594,7 +598,7 @@ public class MazeSearchAlgo
         double expansion_value = p_from_element.expansion_value + p_add_costs
                 + shape_entry_middle.weighted_distance(p_from_element.shape_entry.a.middle_point(p_from_element.shape_entry.b),
                 ctrl.trace_costs[layer].horizontal, ctrl.trace_costs[layer].vertical);
-        double sorting_value = expansion_value + this.destination_distance.calculate(shape_entry_middle, layer);
+        double sorting_value = expansion_value + estimated_destination_costs(shape_entry_middle, layer);
         boolean room_ripped = p_add_costs > 0 && p_adjustment == MazeSearchElement.Adjustment.NONE || p_from_element.already_checked && p_from_element.room_ripped;
 
         MazeListElement new_element =
@@ -659,7 +663,7 @@ public class MazeSearchAlgo
             new_section_no_of_backtrack_door = p_from_element.section_no_of_door;
             expansion_value += ctrl.min_normal_via_cost;
         }
-        double sorting_value = expansion_value + this.destination_distance.calculate(nearest_point, layer);
+        double sorting_value = expansion_value + estimated_destination_costs(nearest_point, layer);
         MazeListElement new_element =
                 new MazeListElement(p_drill, section_no, new_backtrack_door,
                 new_section_no_of_backtrack_door, expansion_value, sorting_value, null, shape_entry,
@@ -667,6 +671,15 @@ public class MazeSearchAlgo
         this.maze_expansion_list.add(new_element);
     }
 
+    /**
+     * Returns the lower bound for the costs from p_point on p_layer to the destination
+     * multiplied with the search weight of the org.thehellnet.tools.freerouting.autoroute control.
+     */
+    private double estimated_destination_costs(FloatPoint p_point, int p_layer)
+    {
+        return ctrl.search_weight * this.destination_distance.calculate(p_point, p_layer);
+    }
+
     /**
      * A drill page is inserted between an expansion roomm and the drill to expand
      * in order to prevent performance problems with rooms with big shapes containing many drills.
@@ -681,7 +694,7 @@ public class MazeSearchAlgo
         double expansion_value = p_from_element.expansion_value + ctrl.min_normal_via_cost;
         double sorting_value =
                 expansion_value + nearest_point.weighted_distance(from_element_shape_entry_middle,
-                ctrl.trace_costs[layer].horizontal, ctrl.trace_costs[layer].vertical) + this.destination_distance.calculate(nearest_point, layer);
+                ctrl.trace_costs[layer].horizontal, ctrl.trace_costs[layer].vertical) + estimated_destination_costs(nearest_point, layer);
         MazeListElement new_element =
                 new MazeListElement(p_drill_page, layer, p_from_element.door, p_from_element.section_no_of_door,
                 expansion_value, sorting_value, p_from_element.next_room, p_from_element.shape_entry,
@@ -867,7 +880,7 @@ public class MazeSearchAlgo
             }
             double expansion_value = p_list_element.expansion_value + ctrl.add_via_costs[from_layer].to_layer[to_layer];
             FloatPoint shape_entry_middle = p_list_element.shape_entry.a.middle_point(p_list_element.shape_entry.b);
-            double sorting_value = expansion_value + this.destination_distance.calculate(shape_entry_middle, to_layer);
+            double sorting_value = expansion_value + estimated_destination_costs(shape_entry_middle, to_layer);
             int curr_room_index = to_layer - curr_drill.first_layer;
             MazeListElement new_element =
                     new MazeListElement(curr_drill, curr_room_index, curr_drill, p_list_element.section_no_of_door,
@@ -986,7 +999,7 @@ public class MazeSearchAlgo
                 connection_shape = connection_shape.intersection(curr_door.room.get_shape());
                 FloatPoint curr_center = connection_shape.centre_of_gravity();
                 FloatLine shape_entry = new FloatLine(curr_center, curr_center);
-                double sorting_value = this.destination_distance.calculate(curr_center, curr_room.get_layer());
+                double sorting_value = estimated_destination_costs(curr_center, curr_room.get_layer());
                 MazeListElement new_list_element =
                         new MazeListElement(curr_door, 0, null, 0, 0, sorting_value, curr_room, shape_entry, false,
                         MazeSearchElement.Adjustment.NONE, false);
@@ -1220,6 +1233,7 @@ public class MazeSearchAlgo
             // No delay of occupation necessesary because inner sections of a door are currently not shoved.
             return true;
         }
+        ++this.autoroute_engine.shove_count;
         boolean result = false;
         if (p_list_element.adjustment != MazeSearchElement.Adjustment.RIGHT)
         {
@@ -1450,7 +1464,7 @@ public class MazeSearchAlgo
     /**
      * The queue of of expanded elements used in this search algorithm.
      */
-    final java.util.SortedSet<MazeListElement> maze_expansion_list;
+    final MazeExpansionList maze_expansion_list;
     /**
      * Used for calculating of a good lower bound for the distance between a new MazeExpansionElement
      * and the destination set of the expansion.
@@ -1461,6 +1475,8 @@ public class MazeSearchAlgo
      */
     private ExpandableObject destination_door = null;
     private int section_no_of_destination_door = 0;
+    /** The number of elements of the maze expansion list expanded so far */
+    int expansion_count = 0;
     private final java.util.Random random_generator = new java.util.Random();
     private static final int ALREADY_RIPPED_COSTS = 1;
 
@@ -0,0 +1,156 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * MetricsWriter.java
+ */
+
+package org.thehellnet.tools.freerouting.autoroute;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes the metrics of the batch autorouter and the batch optimizer as lines of a text file,
+ * either as JSON objects, one per line, or as comma separated values with a header line.
+ * Connection and pass records are written into the same file, distinguished by the record field.
+ */
+public class MetricsWriter implements AutorouteMetrics.Listener
+{
+
+    /**
+     * Creates a new MetricsWriter writing to p_writer.
+     * If p_csv, comma separated values are written, else JSON lines.
+     */
+    public MetricsWriter(Writer p_writer, boolean p_csv)
+    {
+        this.writer = p_writer;
+        this.csv = p_csv;
+        if (p_csv)
+        {
+            write_line(CSV_HEADER);
+        }
+    }
+
+    public synchronized void connection_completed(AutorouteMetrics.Connection p_metrics)
+    {
+        if (this.csv)
+        {
+            write_line("connection," + p_metrics.pass_no + "," + p_metrics.net_no + "," + p_metrics.item_id_no + ","
+                    + p_metrics.result + "," + format(p_metrics.milliseconds) + "," + p_metrics.completed_room_count + ","
+                    + p_metrics.expanded_element_count + "," + p_metrics.shove_count + "," + p_metrics.ripped_item_count
+                    + ",,,,,");
+        }
+        else
+        {
+            write_line("{\"record\":\"connection\",\"pass_no\":" + p_metrics.pass_no + ",\"net_no\":" + p_metrics.net_no
+                    + ",\"item_id_no\":" + p_metrics.item_id_no + ",\"result\":\"" + p_metrics.result
+                    + "\",\"milliseconds\":" + format(p_metrics.milliseconds)
+                    + ",\"completed_room_count\":" + p_metrics.completed_room_count
+                    + ",\"expanded_element_count\":" + p_metrics.expanded_element_count
+                    + ",\"shove_count\":" + p_metrics.shove_count + ",\"ripped_item_count\":" + p_metrics.ripped_item_count + "}");
+        }
+    }
+
+    /**
+     * Writes the record of a pass and flushes the file, so that the lines of a pass are written at once.
+     * The item counts are left out in the records of optimize passes, because the optimizer does not count them.
+     */
+    public synchronized void pass_completed(AutorouteMetrics.Pass p_metrics)
+    {
+        String record = p_metrics.type.toString().toLowerCase(Locale.ENGLISH) + "_pass";
+        if (p_metrics.type == AutorouteMetrics.Pass.Type.OPTIMIZE)
+        {
+            if (this.csv)
+            {
+                write_line(record + "," + p_metrics.pass_no + ",,,," + format(p_metrics.milliseconds) + ",,,,,,,,"
+                        + p_metrics.via_count + "," + format(p_metrics.trace_length));
+            }
+            else
+            {
+                write_line("{\"record\":\"" + record + "\",\"pass_no\":" + p_metrics.pass_no
+                        + ",\"milliseconds\":" + format(p_metrics.milliseconds) + ",\"via_count\":" + p_metrics.via_count
+                        + ",\"trace_length\":" + format(p_metrics.trace_length) + "}");
+            }
+        }
+        else if (this.csv)
+        {
+            write_line(record + "," + p_metrics.pass_no + ",,,," + format(p_metrics.milliseconds) + ",,,,"
+                    + p_metrics.ripped_item_count + "," + p_metrics.item_count + "," + p_metrics.routed_count + ","
+                    + p_metrics.not_found_count + "," + p_metrics.via_count + "," + format(p_metrics.trace_length));
+        }
+        else
+        {
+            write_line("{\"record\":\"" + record + "\",\"pass_no\":" + p_metrics.pass_no
+                    + ",\"milliseconds\":" + format(p_metrics.milliseconds) + ",\"item_count\":" + p_metrics.item_count
+                    + ",\"routed_count\":" + p_metrics.routed_count + ",\"ripped_item_count\":" + p_metrics.ripped_item_count
+                    + ",\"not_found_count\":" + p_metrics.not_found_count + ",\"via_count\":" + p_metrics.via_count
+                    + ",\"trace_length\":" + format(p_metrics.trace_length) + "}");
+        }
+        flush();
+    }
+
+    /**
+     * Closes the underlying writer.
+     */
+    public synchronized void close()
+    {
+        try
+        {
+            this.writer.close();
+        }
+        catch (IOException e)
+        {
+            System.out.println("MetricsWriter.close: unable to close the metrics file");
+        }
+    }
+
+    private void write_line(String p_line)
+    {
+        try
+        {
+            this.writer.write(p_line);
+            this.writer.write('\n');
+        }
+        catch (IOException e)
+        {
+            System.out.println("MetricsWriter.write_line: unable to write to the metrics file");
+        }
+    }
+
+    private void flush()
+    {
+        try
+        {
+            this.writer.flush();
+        }
+        catch (IOException e)
+        {
+            System.out.println("MetricsWriter.flush: unable to write to the metrics file");
+        }
+    }
+
+    private static String format(double p_value)
+    {
+        return String.format(Locale.ENGLISH, "%.3f", p_value);
+    }
+
+    private static final String CSV_HEADER = "record,pass_no,net_no,item_id_no,result,milliseconds,completed_room_count,"
+            + "expanded_element_count,shove_count,ripped_item_count,item_count,routed_count,not_found_count,via_count,trace_length";
+
+    private final Writer writer;
+
+    private final boolean csv;
+}
@@ -0,0 +1,309 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * ParallelAutoroutePass.java
+ */
+package org.thehellnet.tools.freerouting.autoroute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.thehellnet.tools.freerouting.planar.IntBox;
+
+import org.thehellnet.tools.freerouting.board.Item;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+
+import org.thehellnet.tools.freerouting.interactive.InteractiveActionThread;
+
+/**
+ * Autoroutes the items of a batch org.thehellnet.tools.freerouting.autoroute pass with several threads.
+ * Items, whose nets lie in disjoint regions of the org.thehellnet.tools.freerouting.board, are routed at the same time,
+ * each thread on its own copy of the org.thehellnet.tools.freerouting.board with its own AutorouteEngine.
+ * The changes found by the threads are transferred to the routing org.thehellnet.tools.freerouting.board in the order of the item list,
+ * so that the result is reproducable for a fixed thread count.
+ * Results, which touch the changes of a previous item of the same wave, are discarded
+ * and the item is routed again in the next wave.
+ */
+class ParallelAutoroutePass
+{
+
+    /**
+     * Creates the org.thehellnet.tools.freerouting.board copies for the threads.
+     * Returns null, if the org.thehellnet.tools.freerouting.board could not be copied.
+     */
+    static ParallelAutoroutePass get_instance(BatchAutorouter p_autorouter, RoutingBoard p_board,
+            InteractiveActionThread p_thread, int p_thread_count)
+    {
+        BoardCopies board_copies = BoardCopies.get_instance(p_board, p_thread_count);
+        if (board_copies == null)
+        {
+            return null;
+        }
+        return new ParallelAutoroutePass(p_autorouter, p_thread, board_copies);
+    }
+
+    private ParallelAutoroutePass(BatchAutorouter p_autorouter, InteractiveActionThread p_thread, BoardCopies p_board_copies)
+    {
+        this.autorouter = p_autorouter;
+        this.thread = p_thread;
+        this.board_copies = p_board_copies;
+    }
+
+    /**
+     * Autoroutes the items in p_item_list.
+     */
+    void autoroute_items(Collection<Item> p_item_list, int p_pass_no, boolean p_with_screen_message)
+    {
+        Map<Integer, IntBox> net_regions = this.board_copies.calculate_net_regions();
+        LinkedList<RouteTask> pending_tasks = new LinkedList<RouteTask>();
+        for (Item curr_item : p_item_list)
+        {
+            pending_tasks.add(new RouteTask(curr_item, net_regions));
+        }
+        int items_to_go_count = pending_tasks.size();
+        ExecutorService executor = Executors.newFixedThreadPool(this.board_copies.count());
+        try
+        {
+            while (!pending_tasks.isEmpty())
+            {
+                if (this.thread.is_stop_requested())
+                {
+                    break;
+                }
+                List<RouteTask> wave = next_wave(pending_tasks);
+
+                // route the items of the wave on the org.thehellnet.tools.freerouting.board copies
+                List<Future<RouteResult>> futures = new ArrayList<Future<RouteResult>>(wave.size());
+                for (int i = 0; i < wave.size(); ++i)
+                {
+                    futures.add(executor.submit(new RouteWorker(wave.get(i), this.board_copies.get(i), p_pass_no)));
+                }
+                List<RouteResult> results = new ArrayList<RouteResult>(wave.size());
+                for (int i = 0; i < futures.size(); ++i)
+                {
+                    RouteResult curr_result;
+                    try
+                    {
+                        curr_result = futures.get(i).get();
+                    } catch (Exception e)
+                    {
+                        // The org.thehellnet.tools.freerouting.board copy may be left in any state, so it is replaced after this wave.
+                        // The item is counted as not found.
+                        this.board_copies.invalidate(i, e);
+                        curr_result = null;
+                    }
+                    results.add(curr_result);
+                }
+
+                // transfer the results to the routing org.thehellnet.tools.freerouting.board in the order of the wave
+                List<BoardCopies.Changes> committed_changes = new LinkedList<BoardCopies.Changes>();
+                List<RouteTask> retry_tasks = new LinkedList<RouteTask>();
+                for (int i = 0; i < wave.size(); ++i)
+                {
+                    RouteResult curr_result = results.get(i);
+                    if (curr_result == null)
+                    {
+                        ++this.not_found_count;
+                        --items_to_go_count;
+                    }
+                    else if (!this.board_copies.commit(curr_result.changes, committed_changes))
+                    {
+                        retry_tasks.add(wave.get(i));
+                    }
+                    else
+                    {
+                        committed_changes.add(curr_result.changes);
+                        // The metrics of results, which are not committed, are dropped, because the items are routed again.
+                        this.autorouter.report_connection_metrics(curr_result.connection_metrics);
+                        this.routed_count += curr_result.routed_count;
+                        this.not_found_count += curr_result.not_found_count;
+                        this.ripped_item_count += curr_result.ripped_item_count;
+                        --items_to_go_count;
+                    }
+                }
+                pending_tasks.addAll(0, retry_tasks);
+                if (!committed_changes.isEmpty())
+                {
+                    this.board_copies.synchronize(committed_changes, executor);
+                    this.thread.hdlg.repaint();
+                }
+                if (!this.board_copies.renew_invalid_copies())
+                {
+                    System.out.println("ParallelAutoroutePass.autoroute_items: unable to renew the org.thehellnet.tools.freerouting.board copies");
+                    break;
+                }
+                if (p_with_screen_message)
+                {
+                    this.thread.hdlg.screen_messages.set_batch_autoroute_info(items_to_go_count, this.routed_count,
+                            this.ripped_item_count, this.not_found_count);
+                }
+            }
+        } finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Removes the next tasks from p_pending_tasks, whose regions do not overlap
+     * with each other and with the regions of the tasks skipped before them.
+     */
+    private List<RouteTask> next_wave(LinkedList<RouteTask> p_pending_tasks)
+    {
+        List<RouteTask> result = new ArrayList<RouteTask>(this.board_copies.count());
+        Collection<IntBox> blocked_regions = new LinkedList<IntBox>();
+        int look_ahead_count = WAVE_LOOK_AHEAD_FACTOR * this.board_copies.count();
+        Iterator<RouteTask> it = p_pending_tasks.iterator();
+        while (it.hasNext() && result.size() < this.board_copies.count() && look_ahead_count > 0)
+        {
+            --look_ahead_count;
+            RouteTask curr_task = it.next();
+            boolean region_free = true;
+            for (IntBox curr_region : blocked_regions)
+            {
+                if (curr_region.intersects(curr_task.region))
+                {
+                    region_free = false;
+                    break;
+                }
+            }
+            if (region_free)
+            {
+                result.add(curr_task);
+                it.remove();
+            }
+            blocked_regions.add(curr_task.region);
+        }
+        return result;
+    }
+
+    private final BatchAutorouter autorouter;
+    private final InteractiveActionThread thread;
+    private final BoardCopies board_copies;
+    /** The number of routed items after autoroute_items */
+    int routed_count = 0;
+    /** The number of ripped items after autoroute_items */
+    int ripped_item_count = 0;
+    /** The number of items, which could not be routed, after autoroute_items */
+    int not_found_count = 0;
+    /** Limits the number of pending items looked at to fill a wave. */
+    private static final int WAVE_LOOK_AHEAD_FACTOR = 8;
+
+    /**
+     * An item to autoroute together with the region of the org.thehellnet.tools.freerouting.board, which will probably be changed by routing it.
+     */
+    private static class RouteTask
+    {
+
+        RouteTask(Item p_item, Map<Integer, IntBox> p_net_regions)
+        {
+            this.item_id_no = p_item.get_id_no();
+            this.net_no_arr = new int[p_item.net_count()];
+            for (int i = 0; i < this.net_no_arr.length; ++i)
+            {
+                this.net_no_arr[i] = p_item.get_net_no(i);
+            }
+            this.region = BoardCopies.get_region(p_item, p_net_regions);
+        }
+        final int item_id_no;
+        final int[] net_no_arr;
+        final IntBox region;
+    }
+
+    /**
+     * The result of routing a RouteTask on a org.thehellnet.tools.freerouting.board copy.
+     */
+    private static class RouteResult
+    {
+
+        RouteResult(BoardCopies.Changes p_changes)
+        {
+            this.changes = p_changes;
+        }
+        final BoardCopies.Changes changes;
+        /** The metrics of the connections routed on the org.thehellnet.tools.freerouting.board copy */
+        final Collection<AutorouteMetrics.Connection> connection_metrics = new LinkedList<AutorouteMetrics.Connection>();
+        int routed_count = 0;
+        int not_found_count = 0;
+        int ripped_item_count = 0;
+    }
+
+    /**
+     * Routes a RouteTask on a org.thehellnet.tools.freerouting.board copy and restores the org.thehellnet.tools.freerouting.board copy afterwards.
+     */
+    private class RouteWorker implements Callable<RouteResult>
+    {
+
+        RouteWorker(RouteTask p_task, RoutingBoard p_board, int p_pass_no)
+        {
+            this.task = p_task;
+            this.board = p_board;
+            this.pass_no = p_pass_no;
+        }
+
+        public RouteResult call()
+        {
+            Item curr_item = this.board.get_item(this.task.item_id_no);
+            if (curr_item == null)
+            {
+                return null;
+            }
+            this.board.generate_snapshot();
+            int routed_count = 0;
+            int not_found_count = 0;
+            int ripped_item_count = 0;
+            Collection<AutorouteMetrics.Connection> connection_metrics = new LinkedList<AutorouteMetrics.Connection>();
+            for (int curr_net_no : this.task.net_no_arr)
+            {
+                if (thread.is_stop_requested())
+                {
+                    break;
+                }
+                this.board.start_marking_changed_area();
+                SortedSet<Item> ripped_item_list = new TreeSet<Item>();
+                if (autorouter.autoroute_item(this.board, curr_item, curr_net_no, ripped_item_list, this.pass_no,
+                        connection_metrics))
+                {
+                    ++routed_count;
+                }
+                else
+                {
+                    ++not_found_count;
+                }
+                ripped_item_count += ripped_item_list.size();
+            }
+            this.board.finish_autoroute();
+            RouteResult result = new RouteResult(board_copies.get_changes(this.board));
+            result.routed_count = routed_count;
+            result.not_found_count = not_found_count;
+            result.ripped_item_count = ripped_item_count;
+            result.connection_metrics.addAll(connection_metrics);
+            return result;
+        }
+        private final RouteTask task;
+        private final RoutingBoard board;
+        private final int pass_no;
+    }
+}
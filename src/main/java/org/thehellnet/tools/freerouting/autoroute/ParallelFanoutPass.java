@@ -0,0 +1,320 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * ParallelFanoutPass.java
+ */
+package org.thehellnet.tools.freerouting.autoroute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.thehellnet.tools.freerouting.datastructures.TimeLimit;
+
+import org.thehellnet.tools.freerouting.planar.IntBox;
+
+import org.thehellnet.tools.freerouting.board.Item;
+import org.thehellnet.tools.freerouting.board.Pin;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+
+import org.thehellnet.tools.freerouting.interactive.InteractiveActionThread;
+
+/**
+ * Fanouts the SMD pins of the components in a batch fanout pass with several threads.
+ * Components, whose pins lie in disjoint regions of the org.thehellnet.tools.freerouting.board, are fanouted at the same time,
+ * each thread on its own copy of the org.thehellnet.tools.freerouting.board with its own AutorouteEngine.
+ * The changes found by the threads are transferred to the routing org.thehellnet.tools.freerouting.board in the order of the components,
+ * so that the result is reproducable for a fixed thread count.
+ * Results, which touch the changes of a previous component of the same wave, are discarded
+ * and the component is fanouted again in the next wave.
+ */
+class ParallelFanoutPass
+{
+
+    /**
+     * Creates the org.thehellnet.tools.freerouting.board copies for the threads.
+     * Returns null, if the org.thehellnet.tools.freerouting.board could not be copied.
+     */
+    static ParallelFanoutPass get_instance(RoutingBoard p_board, InteractiveActionThread p_thread, int p_thread_count)
+    {
+        BoardCopies board_copies = BoardCopies.get_instance(p_board, p_thread_count);
+        if (board_copies == null)
+        {
+            return null;
+        }
+        return new ParallelFanoutPass(p_thread, board_copies);
+    }
+
+    private ParallelFanoutPass(InteractiveActionThread p_thread, BoardCopies p_board_copies)
+    {
+        this.thread = p_thread;
+        this.board_copies = p_board_copies;
+    }
+
+    /**
+     * Fanouts the pins in p_pin_lists, which contains the sorted SMD pins of each component in the order of the components.
+     * Returns the number of new fanouted pins.
+     */
+    int fanout_components(Collection<? extends Collection<Pin>> p_pin_lists, int p_pass_no, int p_ripup_costs)
+    {
+        this.routed_count = 0;
+        this.not_routed_count = 0;
+        this.insert_error_count = 0;
+        LinkedList<FanoutTask> pending_tasks = new LinkedList<FanoutTask>();
+        for (Collection<Pin> curr_pin_list : p_pin_lists)
+        {
+            pending_tasks.add(new FanoutTask(curr_pin_list, this.board_copies.get_region(curr_pin_list)));
+        }
+        int components_to_go = pending_tasks.size();
+        ExecutorService executor = Executors.newFixedThreadPool(this.board_copies.count());
+        try
+        {
+            while (!pending_tasks.isEmpty())
+            {
+                if (this.thread.is_stop_requested())
+                {
+                    break;
+                }
+                this.thread.hdlg.screen_messages.set_batch_fanout_info(p_pass_no + 1, components_to_go);
+                List<FanoutTask> wave = next_wave(pending_tasks);
+
+                // fanout the components of the wave on the org.thehellnet.tools.freerouting.board copies
+                List<Future<FanoutResult>> futures = new ArrayList<Future<FanoutResult>>(wave.size());
+                for (int i = 0; i < wave.size(); ++i)
+                {
+                    futures.add(executor.submit(new FanoutWorker(wave.get(i), this.board_copies.get(i), p_pass_no, p_ripup_costs)));
+                }
+                List<FanoutResult> results = new ArrayList<FanoutResult>(wave.size());
+                for (int i = 0; i < futures.size(); ++i)
+                {
+                    FanoutResult curr_result;
+                    try
+                    {
+                        curr_result = futures.get(i).get();
+                    } catch (Exception e)
+                    {
+                        // The org.thehellnet.tools.freerouting.board copy may be left in any state, so it is replaced after this wave.
+                        this.board_copies.invalidate(i, e);
+                        curr_result = null;
+                    }
+                    results.add(curr_result);
+                }
+
+                // transfer the results to the routing org.thehellnet.tools.freerouting.board in the order of the wave
+                List<BoardCopies.Changes> committed_changes = new LinkedList<BoardCopies.Changes>();
+                List<FanoutTask> retry_tasks = new LinkedList<FanoutTask>();
+                for (int i = 0; i < wave.size(); ++i)
+                {
+                    FanoutResult curr_result = results.get(i);
+                    if (curr_result == null)
+                    {
+                        // the pins of the component are not fanouted
+                        this.not_routed_count += wave.get(i).pin_id_nos.length;
+                        --components_to_go;
+                    }
+                    else if (!this.board_copies.commit(curr_result.changes, committed_changes))
+                    {
+                        retry_tasks.add(wave.get(i));
+                    }
+                    else
+                    {
+                        committed_changes.add(curr_result.changes);
+                        this.routed_count += curr_result.routed_count;
+                        this.not_routed_count += curr_result.not_routed_count;
+                        this.insert_error_count += curr_result.insert_error_count;
+                        --components_to_go;
+                    }
+                }
+                pending_tasks.addAll(0, retry_tasks);
+                if (!committed_changes.isEmpty())
+                {
+                    this.board_copies.synchronize(committed_changes, executor);
+                    this.thread.hdlg.repaint();
+                }
+                if (!this.board_copies.renew_invalid_copies())
+                {
+                    System.out.println("ParallelFanoutPass.fanout_components: unable to renew the org.thehellnet.tools.freerouting.board copies");
+                    break;
+                }
+            }
+        } finally
+        {
+            executor.shutdown();
+        }
+        return this.routed_count;
+    }
+
+    /**
+     * Removes the next tasks from p_pending_tasks, whose regions do not overlap
+     * with each other and with the regions of the tasks skipped before them.
+     */
+    private List<FanoutTask> next_wave(LinkedList<FanoutTask> p_pending_tasks)
+    {
+        List<FanoutTask> result = new ArrayList<FanoutTask>(this.board_copies.count());
+        Collection<IntBox> blocked_regions = new LinkedList<IntBox>();
+        Iterator<FanoutTask> it = p_pending_tasks.iterator();
+        while (it.hasNext() && result.size() < this.board_copies.count())
+        {
+            FanoutTask curr_task = it.next();
+            boolean region_free = true;
+            for (IntBox curr_region : blocked_regions)
+            {
+                if (curr_region.intersects(curr_task.region))
+                {
+                    region_free = false;
+                    break;
+                }
+            }
+            if (region_free)
+            {
+                result.add(curr_task);
+                it.remove();
+            }
+            blocked_regions.add(curr_task.region);
+        }
+        return result;
+    }
+
+    private final InteractiveActionThread thread;
+    private final BoardCopies board_copies;
+    /** The number of fanouted pins after fanout_components */
+    int routed_count = 0;
+    /** The number of pins, which could not be fanouted, after fanout_components */
+    int not_routed_count = 0;
+    /** The number of pins with an insert error after fanout_components */
+    int insert_error_count = 0;
+
+    /**
+     * The SMD pins of a component to fanout together with the region of the org.thehellnet.tools.freerouting.board around them.
+     */
+    private static class FanoutTask
+    {
+
+        FanoutTask(Collection<Pin> p_pins, IntBox p_region)
+        {
+            this.pin_id_nos = new int[p_pins.size()];
+            int i = 0;
+            for (Pin curr_pin : p_pins)
+            {
+                this.pin_id_nos[i] = curr_pin.get_id_no();
+                ++i;
+            }
+            this.region = p_region;
+        }
+        /** The id numbers of the pins in the order of the fanout */
+        final int[] pin_id_nos;
+        final IntBox region;
+    }
+
+    /**
+     * The result of fanouting a FanoutTask on a org.thehellnet.tools.freerouting.board copy.
+     */
+    private static class FanoutResult
+    {
+
+        FanoutResult(BoardCopies.Changes p_changes)
+        {
+            this.changes = p_changes;
+        }
+        final BoardCopies.Changes changes;
+        int routed_count = 0;
+        int not_routed_count = 0;
+        int insert_error_count = 0;
+    }
+
+    /**
+     * Fanouts the pins of a FanoutTask on a org.thehellnet.tools.freerouting.board copy and restores the org.thehellnet.tools.freerouting.board copy afterwards.
+     */
+    private class FanoutWorker implements Callable<FanoutResult>
+    {
+
+        FanoutWorker(FanoutTask p_task, RoutingBoard p_board, int p_pass_no, int p_ripup_costs)
+        {
+            this.task = p_task;
+            this.board = p_board;
+            this.pass_no = p_pass_no;
+            this.ripup_costs = p_ripup_costs;
+        }
+
+        public FanoutResult call()
+        {
+            Set<Integer> id_no_set = new TreeSet<Integer>();
+            for (int curr_id_no : this.task.pin_id_nos)
+            {
+                id_no_set.add(curr_id_no);
+            }
+            Map<Integer, Item> pins = BoardCopies.get_items(this.board, id_no_set);
+            this.board.generate_snapshot();
+            int routed_count = 0;
+            int not_routed_count = 0;
+            int insert_error_count = 0;
+            try
+            {
+                for (int curr_id_no : this.task.pin_id_nos)
+                {
+                    if (thread.is_stop_requested())
+                    {
+                        break;
+                    }
+                    Item curr_pin = pins.get(curr_id_no);
+                    if (!(curr_pin instanceof Pin))
+                    {
+                        continue;
+                    }
+                    double max_milliseconds = 10000 * (this.pass_no + 1);
+                    TimeLimit time_limit = new TimeLimit((int) max_milliseconds);
+                    this.board.start_marking_changed_area();
+                    AutorouteEngine.AutorouteResult curr_result =
+                            this.board.fanout((Pin) curr_pin, thread.hdlg.settings, this.ripup_costs, thread, time_limit);
+                    if (curr_result == AutorouteEngine.AutorouteResult.ROUTED)
+                    {
+                        ++routed_count;
+                    }
+                    else if (curr_result == AutorouteEngine.AutorouteResult.NOT_ROUTED)
+                    {
+                        ++not_routed_count;
+                    }
+                    else if (curr_result == AutorouteEngine.AutorouteResult.INSERT_ERROR)
+                    {
+                        ++insert_error_count;
+                    }
+                }
+            } finally
+            {
+                // An exception leaves the org.thehellnet.tools.freerouting.board copy changed since the snapshot.
+                // The copy is then replaced by fanout_components, but the autoroute database is released here.
+                this.board.finish_autoroute();
+            }
+            FanoutResult result = new FanoutResult(board_copies.get_changes(this.board));
+            result.routed_count = routed_count;
+            result.not_routed_count = not_routed_count;
+            result.insert_error_count = insert_error_count;
+            return result;
+        }
+        private final FanoutTask task;
+        private final RoutingBoard board;
+        private final int pass_no;
+        private final int ripup_costs;
+    }
+}
@@ -0,0 +1,459 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * ParallelOptRoute.java
+ */
+package org.thehellnet.tools.freerouting.autoroute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.thehellnet.tools.freerouting.planar.IntBox;
+
+import org.thehellnet.tools.freerouting.board.Item;
+import org.thehellnet.tools.freerouting.board.RoutingBoard;
+
+import org.thehellnet.tools.freerouting.interactive.InteractiveActionThread;
+import org.thehellnet.tools.freerouting.interactive.RatsNest;
+
+/**
+ * Optimizes the route of a batch optimizer pass with several threads.
+ * Route items, whose nets lie in disjoint regions of the org.thehellnet.tools.freerouting.board, are ripped up and rerouted
+ * at the same time, each on its own copy of the org.thehellnet.tools.freerouting.board. If there are more threads than independent items,
+ * the remaining threads reroute the same items with the other setting of the preferred directions,
+ * and the best candidate of each item is kept.
+ * The candidates are rated like in the sequential optimizer by incomplete count, via count
+ * and weighted trace length. The improving candidates are transferred to the routing org.thehellnet.tools.freerouting.board in the order
+ * of the items, candidates touching the changes of a previous item are retried.
+ * If the transferred candidates together do not improve the route, only the first of them is kept.
+ */
+class ParallelOptRoute
+{
+
+    /**
+     * Creates the org.thehellnet.tools.freerouting.board copies for the threads.
+     * Returns null, if the org.thehellnet.tools.freerouting.board could not be copied.
+     */
+    static ParallelOptRoute get_instance(BatchOptRoute p_optimizer, RoutingBoard p_board,
+            InteractiveActionThread p_thread, int p_thread_count)
+    {
+        BoardCopies board_copies = BoardCopies.get_instance(p_board, p_thread_count);
+        if (board_copies == null)
+        {
+            return null;
+        }
+        return new ParallelOptRoute(p_optimizer, p_board, p_thread, board_copies);
+    }
+
+    private ParallelOptRoute(BatchOptRoute p_optimizer, RoutingBoard p_board,
+            InteractiveActionThread p_thread, BoardCopies p_board_copies)
+    {
+        this.optimizer = p_optimizer;
+        this.routing_board = p_board;
+        this.thread = p_thread;
+        this.board_copies = p_board_copies;
+        this.copy_ratsnests = new RatsNest[p_board_copies.count()];
+        this.outdated_nets = new ArrayList<Set<Integer>>(p_board_copies.count());
+        for (int i = 0; i < p_board_copies.count(); ++i)
+        {
+            this.outdated_nets.add(new TreeSet<Integer>());
+        }
+    }
+
+    /**
+     * Reroutes the items returned by p_optimizer.next_route_item().
+     * Returns true, if the route was improved.
+     */
+    boolean opt_route_items(int p_pass_no, boolean p_with_prefered_directions)
+    {
+        boolean route_improved = false;
+        LinkedList<Item> pending_items = new LinkedList<Item>();
+        boolean all_items_read = false;
+        ExecutorService executor = Executors.newFixedThreadPool(this.board_copies.count());
+        try
+        {
+            for (;;)
+            {
+                if (this.thread.is_stop_requested())
+                {
+                    break;
+                }
+                Iterator<Item> it = pending_items.iterator();
+                while (it.hasNext())
+                {
+                    if (!it.next().is_on_the_board())
+                    {
+                        // removed by a previous improvement
+                        it.remove();
+                    }
+                }
+                while (!all_items_read && pending_items.size() < WAVE_LOOK_AHEAD_FACTOR * this.board_copies.count())
+                {
+                    Item next_item = this.optimizer.next_route_item();
+                    if (next_item == null)
+                    {
+                        all_items_read = true;
+                    }
+                    else
+                    {
+                        pending_items.add(next_item);
+                    }
+                }
+                if (pending_items.isEmpty())
+                {
+                    break;
+                }
+                this.thread.hdlg.screen_messages.set_status_message(this.optimizer.start_message(p_pass_no));
+                List<Item> wave = next_wave(pending_items);
+                if (opt_route_wave(wave, pending_items, p_with_prefered_directions, executor))
+                {
+                    route_improved = true;
+                }
+            }
+        } finally
+        {
+            executor.shutdown();
+        }
+        return route_improved;
+    }
+
+    /**
+     * Removes the next items from p_pending_items, whose regions do not overlap
+     * with each other and with the regions of the items skipped before them.
+     */
+    private List<Item> next_wave(LinkedList<Item> p_pending_items)
+    {
+        Map<Integer, IntBox> net_regions = this.board_copies.calculate_net_regions();
+        List<Item> result = new ArrayList<Item>(this.board_copies.count());
+        Collection<IntBox> blocked_regions = new LinkedList<IntBox>();
+        Iterator<Item> it = p_pending_items.iterator();
+        while (it.hasNext() && result.size() < this.board_copies.count())
+        {
+            Item curr_item = it.next();
+            IntBox curr_item_region = BoardCopies.get_region(curr_item, net_regions);
+            boolean region_free = true;
+            for (IntBox curr_region : blocked_regions)
+            {
+                if (curr_region.intersects(curr_item_region))
+                {
+                    region_free = false;
+                    break;
+                }
+            }
+            if (region_free)
+            {
+                result.add(curr_item);
+                it.remove();
+            }
+            blocked_regions.add(curr_item_region);
+        }
+        return result;
+    }
+
+    /**
+     * Reroutes the items in p_wave on the org.thehellnet.tools.freerouting.board copies and transfers the best improving candidate
+     * of each item to the routing org.thehellnet.tools.freerouting.board. Items, whose candidate conflicts with the candidate of a previous item,
+     * are put back to the front of p_pending_items.
+     * Returns true, if the route was improved.
+     */
+    private boolean opt_route_wave(List<Item> p_wave, LinkedList<Item> p_pending_items,
+            boolean p_with_prefered_directions, ExecutorService p_executor)
+    {
+        RatsNest ratsnest = this.thread.hdlg.get_ratsnest();
+        int incomplete_count_before = ratsnest.incomplete_count();
+        int via_count_before = this.routing_board.get_vias().size();
+
+        // The first candidate of each item uses p_with_prefered_directions, remaining threads try the other setting.
+        List<Future<Candidate>> futures = new ArrayList<Future<Candidate>>(this.board_copies.count());
+        for (int i = 0; i < this.board_copies.count(); ++i)
+        {
+            if (i >= 2 * p_wave.size())
+            {
+                break;
+            }
+            int item_index = i % p_wave.size();
+            boolean with_prefered_directions = (i < p_wave.size()) == p_with_prefered_directions;
+            Item curr_item = p_wave.get(item_index);
+            OptRouteWorker curr_worker = new OptRouteWorker(item_index, curr_item.get_id_no(),
+                    this.optimizer.get_ripup_costs(curr_item), with_prefered_directions, i);
+            futures.add(p_executor.submit(curr_worker));
+        }
+        Candidate[] best_candidates = new Candidate[p_wave.size()];
+        for (Future<Candidate> curr_future : futures)
+        {
+            Candidate curr_candidate;
+            try
+            {
+                curr_candidate = curr_future.get();
+            } catch (Exception e)
+            {
+                curr_candidate = null;
+            }
+            if (curr_candidate == null || this.thread.is_stop_requested())
+            {
+                continue;
+            }
+            if (!this.optimizer.is_improved(incomplete_count_before, via_count_before, curr_candidate.incomplete_count,
+                    curr_candidate.via_count, curr_candidate.trace_length, TRACE_LENGTH_TOLERANCE))
+            {
+                continue;
+            }
+            Candidate prev_best = best_candidates[curr_candidate.item_index];
+            if (prev_best == null || curr_candidate.is_better(prev_best))
+            {
+                best_candidates[curr_candidate.item_index] = curr_candidate;
+            }
+        }
+
+        // transfer the best candidates to the routing org.thehellnet.tools.freerouting.board in the order of the wave
+        this.routing_board.generate_snapshot();
+        List<BoardCopies.Changes> committed_changes = new LinkedList<BoardCopies.Changes>();
+        List<Item> committed_items = new LinkedList<Item>();
+        List<Item> retry_items = new LinkedList<Item>();
+        for (int i = 0; i < best_candidates.length; ++i)
+        {
+            Candidate curr_candidate = best_candidates[i];
+            if (curr_candidate == null)
+            {
+                continue;
+            }
+            if (this.board_copies.commit(curr_candidate.changes, committed_changes))
+            {
+                committed_changes.add(curr_candidate.changes);
+                committed_items.add(p_wave.get(i));
+            }
+            else
+            {
+                retry_items.add(p_wave.get(i));
+            }
+        }
+        Set<Integer> changed_nets = get_net_nos(committed_changes);
+        ratsnest.recalculate(changed_nets, this.routing_board);
+        if (committed_changes.size() > 1 && !is_improved(ratsnest, incomplete_count_before, via_count_before))
+        {
+            // The candidates were rated each on its own org.thehellnet.tools.freerouting.board copy, together they did not improve the route.
+            // Keep only the first candidate and retry the other items.
+            this.routing_board.undo(null);
+            ratsnest.recalculate(changed_nets, this.routing_board);
+            // the undo has used up the snapshot of the wave
+            this.routing_board.generate_snapshot();
+            BoardCopies.Changes first_changes = committed_changes.get(0);
+            committed_changes.clear();
+            if (this.board_copies.commit(first_changes, committed_changes))
+            {
+                committed_changes.add(first_changes);
+                retry_items.addAll(committed_items.subList(1, committed_items.size()));
+            }
+            else
+            {
+                retry_items.addAll(committed_items);
+            }
+            changed_nets = get_net_nos(committed_changes);
+            ratsnest.recalculate(changed_nets, this.routing_board);
+        }
+        p_pending_items.addAll(0, retry_items);
+        if (committed_changes.isEmpty())
+        {
+            this.routing_board.pop_snapshot();
+            return false;
+        }
+        if (!is_improved(ratsnest, incomplete_count_before, via_count_before))
+        {
+            this.routing_board.undo(null);
+            ratsnest.recalculate(changed_nets, this.routing_board);
+            return false;
+        }
+        this.routing_board.pop_snapshot();
+        this.board_copies.synchronize(committed_changes, p_executor);
+        for (Set<Integer> curr_outdated_nets : this.outdated_nets)
+        {
+            curr_outdated_nets.addAll(changed_nets);
+        }
+        int incomplete_count_after = ratsnest.incomplete_count();
+        int via_count_after = this.routing_board.get_vias().size();
+        this.optimizer.update_min_trace_length(incomplete_count_before, via_count_before, incomplete_count_after,
+                via_count_after, BatchOptRoute.calc_weighted_trace_length(this.routing_board));
+        double new_trace_length = this.thread.hdlg.coordinate_transform.board_to_user(this.routing_board.cumulative_trace_length());
+        this.thread.hdlg.screen_messages.set_post_route_info(via_count_after, new_trace_length);
+        this.thread.hdlg.repaint();
+        return true;
+    }
+
+    /**
+     * Returns true, if the route on the routing org.thehellnet.tools.freerouting.board is improved compared to the counts before the wave.
+     */
+    private boolean is_improved(RatsNest p_ratsnest, int p_incomplete_count_before, int p_via_count_before)
+    {
+        return this.optimizer.is_improved(p_incomplete_count_before, p_via_count_before, p_ratsnest.incomplete_count(), this.routing_board.get_vias().size(),
+                BatchOptRoute.calc_weighted_trace_length(this.routing_board), TRACE_LENGTH_TOLERANCE);
+    }
+
+    /**
+     * Returns the numbers of the nets of the items in p_changes.
+     */
+    private static Set<Integer> get_net_nos(Collection<BoardCopies.Changes> p_changes)
+    {
+        Set<Integer> result = new TreeSet<Integer>();
+        for (BoardCopies.Changes curr_changes : p_changes)
+        {
+            curr_changes.add_net_nos(result);
+        }
+        return result;
+    }
+
+    private final BatchOptRoute optimizer;
+    private final RoutingBoard routing_board;
+    private final InteractiveActionThread thread;
+    private final BoardCopies board_copies;
+    /** The ratsnests of the org.thehellnet.tools.freerouting.board copies, created at the first use of a copy. */
+    private final RatsNest[] copy_ratsnests;
+    /** For each org.thehellnet.tools.freerouting.board copy the nets changed by synchronize, which are not yet recalculated in its ratsnest. */
+    private final List<Set<Integer>> outdated_nets;
+    /** Limits the number of pending items looked at to fill a wave. */
+    private static final int WAVE_LOOK_AHEAD_FACTOR = 8;
+    /**
+     * The relative decrease of the weighted trace length, which is regarded as improvement.
+     * The trace lengths of the org.thehellnet.tools.freerouting.board copies are summed up in a different item order than on the routing org.thehellnet.tools.freerouting.board,
+     * so that rounding differences must not count as improvement.
+     */
+    private static final double TRACE_LENGTH_TOLERANCE = 1E-10;
+
+    /**
+     * The result of rerouting an item on a org.thehellnet.tools.freerouting.board copy.
+     */
+    private static class Candidate
+    {
+
+        Candidate(int p_item_index, BoardCopies.Changes p_changes, int p_incomplete_count, int p_via_count, double p_trace_length)
+        {
+            this.item_index = p_item_index;
+            this.changes = p_changes;
+            this.incomplete_count = p_incomplete_count;
+            this.via_count = p_via_count;
+            this.trace_length = p_trace_length;
+        }
+
+        /**
+         * Returns true, if this candidate is better than p_other.
+         */
+        boolean is_better(Candidate p_other)
+        {
+            if (this.incomplete_count != p_other.incomplete_count)
+            {
+                return this.incomplete_count < p_other.incomplete_count;
+            }
+            if (this.via_count != p_other.via_count)
+            {
+                return this.via_count < p_other.via_count;
+            }
+            return this.trace_length < p_other.trace_length;
+        }
+        /** The index of the rerouted item in its wave */
+        final int item_index;
+        final BoardCopies.Changes changes;
+        /** The incomplete count of the org.thehellnet.tools.freerouting.board copy after rerouting */
+        final int incomplete_count;
+        /** The via count of the org.thehellnet.tools.freerouting.board copy after rerouting */
+        final int via_count;
+        /** The weighted trace length of the org.thehellnet.tools.freerouting.board copy after rerouting */
+        final double trace_length;
+    }
+
+    /**
+     * Reroutes an item on a org.thehellnet.tools.freerouting.board copy, rates the result and restores the org.thehellnet.tools.freerouting.board copy afterwards.
+     */
+    private class OptRouteWorker implements Callable<Candidate>
+    {
+
+        OptRouteWorker(int p_item_index, int p_item_id_no, int p_ripup_costs, boolean p_with_prefered_directions, int p_copy_no)
+        {
+            this.item_index = p_item_index;
+            this.item_id_no = p_item_id_no;
+            this.ripup_costs = p_ripup_costs;
+            this.with_prefered_directions = p_with_prefered_directions;
+            this.copy_no = p_copy_no;
+            this.board = board_copies.get(p_copy_no);
+        }
+
+        public Candidate call()
+        {
+            Item curr_item = this.board.get_item(this.item_id_no);
+            if (curr_item == null)
+            {
+                return null;
+            }
+            Set<Item> ripped_connections = BatchOptRoute.get_ripped_connections(curr_item);
+            if (ripped_connections == null)
+            {
+                return null;
+            }
+            RatsNest ratsnest = get_ratsnest();
+            this.board.generate_snapshot();
+            this.board.remove_items(ripped_connections, false);
+            for (int i = 0; i < curr_item.net_count(); ++i)
+            {
+                this.board.combine_traces(curr_item.get_net_no(i));
+            }
+            BatchAutorouter.autoroute_passes_for_optimizing_item(thread, this.board, BatchOptRoute.MAX_AUTOROUTE_PASSES,
+                    this.ripup_costs, this.with_prefered_directions);
+            this.board.finish_autoroute();
+            Set<Integer> changed_nets = this.board.get_changed_nets();
+            ratsnest.recalculate(changed_nets, this.board);
+            int incomplete_count = ratsnest.incomplete_count();
+            int via_count = this.board.get_vias().size();
+            double trace_length = BatchOptRoute.calc_weighted_trace_length(this.board);
+            BoardCopies.Changes changes = board_copies.get_changes(this.board);
+            ratsnest.recalculate(changed_nets, this.board);
+            return new Candidate(this.item_index, changes, incomplete_count, via_count, trace_length);
+        }
+
+        /**
+         * Returns the ratsnest of the org.thehellnet.tools.freerouting.board copy of this worker
+         * after recalculating the nets changed since its last use.
+         */
+        private RatsNest get_ratsnest()
+        {
+            RatsNest result = copy_ratsnests[this.copy_no];
+            Set<Integer> curr_outdated_nets = outdated_nets.get(this.copy_no);
+            if (result == null)
+            {
+                result = new RatsNest(this.board, thread.hdlg.get_locale());
+                copy_ratsnests[this.copy_no] = result;
+            }
+            else
+            {
+                result.recalculate(curr_outdated_nets, this.board);
+            }
+            curr_outdated_nets.clear();
+            return result;
+        }
+        private final int item_index;
+        private final int item_id_no;
+        private final int ripup_costs;
+        private final boolean with_prefered_directions;
+        private final int copy_no;
+        private final RoutingBoard board;
+    }
+}
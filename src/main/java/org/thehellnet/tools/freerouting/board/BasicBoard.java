@@ -384,6 +384,7 @@ public class BasicBoard implements java.io.Serializable
         additional_update_after_change(p_item); // must be called before p_item is deleted.
         search_tree_manager.remove(p_item);
         item_list.delete(p_item);
+        remove_from_item_index(p_item);
 
         // let the observers syncronize the deletion
         communication.observers.notify_deleted(p_item);
@@ -395,20 +396,7 @@ public class BasicBoard implements java.io.Serializable
      */
     public Item get_item(int p_id_no)
     {
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;)
-        {
-            Item curr_item = (Item) item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item.get_id_no() == p_id_no)
-            {
-                return curr_item;
-            }
-        }
-        return null;
+        return get_item_index().get_item(p_id_no);
     }
 
     /**
@@ -435,21 +423,7 @@ public class BasicBoard implements java.io.Serializable
      */
     public Collection<Item> get_connectable_items(int p_net_no)
     {
-        Collection<Item> result = new LinkedList<Item>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;)
-        {
-            Item curr_item = (Item) item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item instanceof Connectable && curr_item.contains_net(p_net_no))
-            {
-                result.add(curr_item);
-            }
-        }
-        return result;
+        return get_item_index().get_connectable_items(p_net_no);
     }
 
     /**
@@ -457,21 +431,7 @@ public class BasicBoard implements java.io.Serializable
      */
     public int connectable_item_count(int p_net_no)
     {
-        int result = 0;
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;)
-        {
-            Item curr_item = (Item) item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item instanceof Connectable && curr_item.contains_net(p_net_no))
-            {
-                ++result;
-            }
-        }
-        return result;
+        return get_item_index().connectable_item_count(p_net_no);
     }
 
     /**
@@ -571,21 +531,7 @@ public class BasicBoard implements java.io.Serializable
      */
     public Collection<ConductionArea> get_conduction_areas()
     {
-        Collection<ConductionArea> result = new LinkedList<ConductionArea>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;)
-        {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item instanceof ConductionArea)
-            {
-                result.add((ConductionArea) curr_item);
-            }
-        }
-        return result;
+        return get_item_index().get_conduction_areas();
     }
 
     /**
@@ -593,21 +539,7 @@ public class BasicBoard implements java.io.Serializable
      */
     public Collection<Pin> get_pins()
     {
-        Collection<Pin> result = new LinkedList<Pin>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;)
-        {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item instanceof Pin)
-            {
-                result.add((Pin) curr_item);
-            }
-        }
-        return result;
+        return get_item_index().get_pins();
     }
 
     /**
@@ -641,21 +573,7 @@ public class BasicBoard implements java.io.Serializable
      */
     public Collection<Via> get_vias()
     {
-        Collection<Via> result = new LinkedList<Via>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;)
-        {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item instanceof Via)
-            {
-                result.add((Via) curr_item);
-            }
-        }
-        return result;
+        return get_item_index().get_vias();
     }
 
     /**
@@ -663,21 +581,7 @@ public class BasicBoard implements java.io.Serializable
      */
     public Collection<Trace> get_traces()
     {
-        Collection<Trace> result = new LinkedList<Trace>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
-        for (;;)
-        {
-            UndoableObjects.Storable curr_item = item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item instanceof Trace)
-            {
-                result.add((Trace) curr_item);
-            }
-        }
-        return result;
+        return get_item_index().get_traces();
     }
 
     /**
@@ -812,35 +716,33 @@ public class BasicBoard implements java.io.Serializable
      */
     public Collection<Collection<Item>> get_connected_sets(int p_net_no)
     {
-        Collection<Collection<Item>> result = new LinkedList<Collection<Item>>();
         if (p_net_no <= 0)
         {
-            return result;
-        }
-        SortedSet<Item> items_to_handle = new TreeSet<Item>();
-        Iterator<UndoableObjects.UndoableObjectNode> it = this.item_list.start_read_object();
-        for (;;)
-        {
-            Item curr_item = (Item) item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            if (curr_item instanceof Connectable && curr_item.contains_net(p_net_no))
-            {
-                items_to_handle.add(curr_item);
-            }
+            return new LinkedList<Collection<Item>>();
         }
-        Iterator<Item> it2 = items_to_handle.iterator();
-        while (it2.hasNext())
+        return get_connectivity_cache().get_connected_sets(p_net_no);
+    }
+
+    /**
+     * Returns true, if all connectable items on the org.thehellnet.tools.freerouting.board containing the net with number p_net_no
+     * are connected via normal contacts.
+     */
+    public boolean is_net_complete(int p_net_no)
+    {
+        if (p_net_no <= 0)
         {
-            Item curr_item = it2.next();
-            Collection<Item> next_connected_set = curr_item.get_connected_set(p_net_no);
-            result.add(next_connected_set);
-            items_to_handle.removeAll(next_connected_set);
-            it2 = items_to_handle.iterator();
+            return false;
         }
-        return result;
+        return get_connectivity_cache().connected_set_count(p_net_no) <= 1;
+    }
+
+    /**
+     * Returns the connected set of p_item in the net with number p_net_no from the connectivity cache,
+     * or null, if p_item is not on this org.thehellnet.tools.freerouting.board.
+     */
+    Set<Item> get_cached_connected_set(Item p_item, int p_net_no)
+    {
+        return get_connectivity_cache().get_connected_set(p_item, p_net_no);
     }
 
     /**
@@ -1053,7 +955,45 @@ public class BasicBoard implements java.io.Serializable
             return;
         }
 
-        // draw all items on the org.thehellnet.tools.freerouting.board
+        IntBox draw_box = get_draw_box(p_graphics, p_graphics_context);
+        if (draw_box == null)
+        {
+            draw_all_items(p_graphics, p_graphics_context);
+            return;
+        }
+
+        // draw only the items overlapping the clip rectangle
+        Collection<Item> draw_items;
+        try
+        {
+            draw_items = get_draw_items(draw_box);
+        }
+        catch (java.util.ConcurrentModificationException e)
+        {
+            // may happen when window are changed interactively while running a logfile
+            return;
+        }
+        for (int curr_priority = Drawable.MIN_DRAW_PRIORITY; curr_priority <= Drawable.MIDDLE_DRAW_PRIORITY; ++curr_priority)
+        {
+            for (Item curr_item : draw_items)
+            {
+                if (curr_item.get_draw_priority() == curr_priority)
+                {
+                    curr_item.draw(p_graphics, p_graphics_context);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws all items of the org.thehellnet.tools.freerouting.board by reading the item list instead of the search tree.
+     * To be used, while another thread changes the org.thehellnet.tools.freerouting.board,
+     * because the search tree may then be read in a half updated state.
+     * Items, whose bounding box is outside the clip rectangle of p_graphics, are skipped.
+     */
+    public void draw_all_items(Graphics p_graphics, GraphicsContext p_graphics_context)
+    {
+        IntBox draw_box = get_draw_box(p_graphics, p_graphics_context);
         for (int curr_priority = Drawable.MIN_DRAW_PRIORITY; curr_priority <= Drawable.MIDDLE_DRAW_PRIORITY; ++curr_priority)
         {
             Iterator<UndoableObjects.UndoableObjectNode> it = item_list.start_read_object();
@@ -1066,7 +1006,8 @@ public class BasicBoard implements java.io.Serializable
                     {
                         break;
                     }
-                    if (curr_item.get_draw_priority() == curr_priority)
+                    if (curr_item.get_draw_priority() == curr_priority
+                            && (draw_box == null || curr_item.bounding_box().intersects(draw_box)))
                     {
                         curr_item.draw(p_graphics, p_graphics_context);
                     }
@@ -1080,6 +1021,47 @@ public class BasicBoard implements java.io.Serializable
         }
     }
 
+    /**
+     * Returns the box of the org.thehellnet.tools.freerouting.board, in which items may be visible inside the clip rectangle of p_graphics,
+     * or null, if p_graphics has no clip rectangle.
+     */
+    private IntBox get_draw_box(Graphics p_graphics, GraphicsContext p_graphics_context)
+    {
+        java.awt.Rectangle clip_rect = p_graphics.getClipBounds();
+        if (clip_rect == null)
+        {
+            return null;
+        }
+        IntBox clip_box = p_graphics_context.coordinate_transform.screen_to_board(clip_rect);
+        int draw_offset = (int) Math.ceil(p_graphics_context.coordinate_transform.screen_to_board(DRAW_MARGIN_PIXELS));
+        return clip_box.offset(draw_offset + this.max_trace_half_width);
+    }
+
+    /**
+     * Returns the items, which may be visible inside p_box, sorted in the order of the item list.
+     * The items are found with the search tree, component outlines, which are not contained in the search tree,
+     * with their bounding box.
+     */
+    private Collection<Item> get_draw_items(IntBox p_box)
+    {
+        SortedSet<Item> result = new TreeSet<Item>();
+        for (SearchTreeObject curr_object : overlapping_objects(p_box, -1))
+        {
+            if (curr_object instanceof Item)
+            {
+                result.add((Item) curr_object);
+            }
+        }
+        for (ComponentOutline curr_outline : get_item_index().get_component_outlines())
+        {
+            if (curr_outline.bounding_box().intersects(p_box))
+            {
+                result.add(curr_outline);
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns the list of items on the org.thehellnet.tools.freerouting.board, whose shape on layer p_layer contains the point at p_location.
      * If p_layer < 0, the layer is ignored.
@@ -1142,6 +1124,16 @@ public class BasicBoard implements java.io.Serializable
         return min_trace_half_width;
     }
 
+    /**
+     * Restores the smallest and biggest half width of all traces on the org.thehellnet.tools.freerouting.board.
+     * Only to be used when reading a board with BinaryBoardFile.
+     */
+    void set_trace_half_width_bounds(int p_min_half_width, int p_max_half_width)
+    {
+        this.min_trace_half_width = p_min_half_width;
+        this.max_trace_half_width = p_max_half_width;
+    }
+
     /**
      * Returns a surrounding box of the geometry of this org.thehellnet.tools.freerouting.board
      */
@@ -1166,7 +1158,7 @@ public class BasicBoard implements java.io.Serializable
     /**
      * Resets the rectangle, where a graphics update is needed.
      */
-    public void reset_graphics_update_box()
+    public synchronized void reset_graphics_update_box()
     {
         update_box = IntBox.EMPTY;
     }
@@ -1174,15 +1166,50 @@ public class BasicBoard implements java.io.Serializable
     /**
      * Gets the rectancle, where a graphics update is needed on the screen.
      */
-    public IntBox get_graphics_update_box()
+    public synchronized IntBox get_graphics_update_box()
     {
         return update_box;
     }
 
+    /**
+     * Returns the rectangle, where a graphics update is needed on the screen, and resets it.
+     * Used by displays, which draw only the changed parts of the org.thehellnet.tools.freerouting.board.
+     */
+    public synchronized IntBox take_graphics_update_box()
+    {
+        IntBox result = update_box;
+        if (result == null)
+        {
+            result = IntBox.EMPTY;
+        }
+        update_box = IntBox.EMPTY;
+        return result;
+    }
+
+    /**
+     * If p_value is true, the bounding boxes of all items inserted into, removed from or changed
+     * in the search trees are joined to the graphics update box.
+     */
+    public void set_item_changes_in_update_box(boolean p_value)
+    {
+        this.item_changes_in_update_box = p_value;
+    }
+
+    /**
+     * Joins p_box to the graphics update box, if item changes are collected there.
+     */
+    void item_changed_in_update_box(IntBox p_box)
+    {
+        if (this.item_changes_in_update_box)
+        {
+            join_graphics_update_box(p_box);
+        }
+    }
+
     /**
      * enlarges the graphics update box, so that it contains p_box
      */
-    public void join_graphics_update_box(IntBox p_box)
+    public synchronized void join_graphics_update_box(IntBox p_box)
     {
         if (update_box == null)
         {
@@ -1271,6 +1298,7 @@ public class BasicBoard implements java.io.Serializable
         }
         p_item.board = this;
         item_list.insert(p_item);
+        insert_into_item_index(p_item);
         search_tree_manager.insert(p_item);
         communication.observers.notify_new(p_item);
         additional_update_after_change(p_item);
@@ -1289,6 +1317,18 @@ public class BasicBoard implements java.io.Serializable
      * Puts the numbers of the changed nets into the set p_changed_nets, if p_changed_nets != null
      */
     public boolean undo(Set<Integer> p_changed_nets)
+    {
+        return undo(p_changed_nets, null, null);
+    }
+
+    /**
+     * Restores the sitiation at the previous snapshot.
+     * Returns false, if no more undo is possible.
+     * Puts the numbers of the changed nets into the set p_changed_nets, if p_changed_nets != null.
+     * Puts the items removed from the org.thehellnet.tools.freerouting.board by the undo into p_cancelled_items,
+     * and the items inserted again into p_restored_items, if they are != null.
+     */
+    public boolean undo(Set<Integer> p_changed_nets, Collection<Item> p_cancelled_items, Collection<Item> p_restored_items)
     {
         this.components.undo(this.communication.observers);
         Collection<UndoableObjects.Storable> cancelled_objects = new LinkedList<UndoableObjects.Storable>();
@@ -1300,9 +1340,14 @@ public class BasicBoard implements java.io.Serializable
         {
             Item curr_item = (Item) it.next();
             search_tree_manager.remove(curr_item);
+            remove_from_item_index(curr_item);
 
             // let the observers syncronize the deletion
             communication.observers.notify_deleted(curr_item);
+            if (p_cancelled_items != null)
+            {
+                p_cancelled_items.add(curr_item);
+            }
             if (p_changed_nets != null)
             {
                 for (int i = 0; i < curr_item.net_count(); ++i)
@@ -1317,9 +1362,14 @@ public class BasicBoard implements java.io.Serializable
             Item curr_item = (Item) it.next();
             curr_item.board = this;
             search_tree_manager.insert(curr_item);
+            insert_into_item_index(curr_item);
             curr_item.clear_autoroute_info();
             // let the observers know the insertion
             communication.observers.notify_new(curr_item);
+            if (p_restored_items != null)
+            {
+                p_restored_items.add(curr_item);
+            }
             if (p_changed_nets != null)
             {
                 for (int i = 0; i < curr_item.net_count(); ++i)
@@ -1331,6 +1381,38 @@ public class BasicBoard implements java.io.Serializable
         return result;
     }
 
+    /**
+     * Returns the numbers of the nets of the items inserted, changed or removed since the last snapshot,
+     * or null, if there is no snapshot.
+     */
+    public Set<Integer> get_changed_nets()
+    {
+        Collection<UndoableObjects.Storable> new_objects = new LinkedList<UndoableObjects.Storable>();
+        Collection<UndoableObjects.Storable> removed_objects = new LinkedList<UndoableObjects.Storable>();
+        if (!item_list.get_changes(new_objects, removed_objects))
+        {
+            return null;
+        }
+        Set<Integer> result = new TreeSet<Integer>();
+        for (UndoableObjects.Storable curr_object : new_objects)
+        {
+            Item curr_item = (Item) curr_object;
+            for (int i = 0; i < curr_item.net_count(); ++i)
+            {
+                result.add(curr_item.get_net_no(i));
+            }
+        }
+        for (UndoableObjects.Storable curr_object : removed_objects)
+        {
+            Item curr_item = (Item) curr_object;
+            for (int i = 0; i < curr_item.net_count(); ++i)
+            {
+                result.add(curr_item.get_net_no(i));
+            }
+        }
+        return result;
+    }
+
     /**
      * Restores the sitiation before the last undo.
      * Returns false, if no more redo is possible.
@@ -1348,6 +1430,7 @@ public class BasicBoard implements java.io.Serializable
         {
             Item curr_item = (Item) it.next();
             search_tree_manager.remove(curr_item);
+            remove_from_item_index(curr_item);
             // let the observers syncronize the deletion
             communication.observers.notify_deleted(curr_item);
             if (p_changed_nets != null)
@@ -1364,6 +1447,7 @@ public class BasicBoard implements java.io.Serializable
             Item curr_item = (Item) it.next();
             curr_item.board = this;
             search_tree_manager.insert(curr_item);
+            insert_into_item_index(curr_item);
             curr_item.clear_autoroute_info();
             // let the observers know the insertion
             communication.observers.notify_new(curr_item);
@@ -1501,6 +1585,68 @@ public class BasicBoard implements java.io.Serializable
         this.test_level = p_value;
     }
 
+    /**
+     * Returns the index of the items on this org.thehellnet.tools.freerouting.board by id number, by net and by type.
+     * The index is created at the first call.
+     */
+    private ItemIndex get_item_index()
+    {
+        if (this.item_index == null)
+        {
+            this.item_index = new ItemIndex(this.item_list);
+        }
+        return this.item_index;
+    }
+
+    /**
+     * Inserts p_item into the item index after it was inserted into the item list.
+     */
+    void insert_into_item_index(Item p_item)
+    {
+        if (this.item_index != null)
+        {
+            this.item_index.insert(p_item);
+        }
+        item_connectivity_changed(p_item);
+    }
+
+    /**
+     * Removes p_item from the item index after it was removed from the item list,
+     * or before its net numbers are changed.
+     */
+    void remove_from_item_index(Item p_item)
+    {
+        if (this.item_index != null)
+        {
+            this.item_index.remove(p_item);
+        }
+        item_connectivity_changed(p_item);
+    }
+
+    /**
+     * Returns the cache of the connected sets of the nets on this org.thehellnet.tools.freerouting.board.
+     * The cache is created at the first call.
+     */
+    private ConnectivityCache get_connectivity_cache()
+    {
+        if (this.connectivity_cache == null)
+        {
+            this.connectivity_cache = new ConnectivityCache(this);
+        }
+        return this.connectivity_cache;
+    }
+
+    /**
+     * Tells the connectivity cache, that p_item was inserted or removed, or that its shape or its nets have changed.
+     */
+    void item_connectivity_changed(Item p_item)
+    {
+        if (this.connectivity_cache != null)
+        {
+            this.connectivity_cache.item_changed(p_item);
+        }
+    }
+
     private void readObject(java.io.ObjectInputStream p_stream)
             throws java.io.IOException, java.lang.ClassNotFoundException
     {
@@ -1512,8 +1658,8 @@ public class BasicBoard implements java.io.Serializable
         {
             Item curr_item = it.next();
             curr_item.board = this;
-            search_tree_manager.insert(curr_item);
         }
+        search_tree_manager.insert_all_board_items();
     }
     /**
      * List of items inserted into this org.thehellnet.tools.freerouting.board
@@ -1554,10 +1700,18 @@ public class BasicBoard implements java.io.Serializable
     transient private TestLevel test_level;
     /** the rectangle, where the graphics may be not uptodate */
     transient private IntBox update_box = IntBox.EMPTY;
+    /** If true, the boxes of changed items are joined to the graphics update box. */
+    transient private boolean item_changes_in_update_box = false;
+    /** Index of the items by net and by type, created at the first use. */
+    transient private ItemIndex item_index = null;
+    /** Cache of the connected sets of the nets, created at the first use. */
+    transient private ConnectivityCache connectivity_cache = null;
     /**
      * the biggest half width of all traces on the org.thehellnet.tools.freerouting.board
      */
     private int max_trace_half_width = 1000;
+    /** The margin in pixels around the clip rectangle, in which items are drawn, for antialiasing and line ends. */
+    private static final double DRAW_MARGIN_PIXELS = 4;
     /**
      * the smallest half width of all traces on the org.thehellnet.tools.freerouting.board
      */
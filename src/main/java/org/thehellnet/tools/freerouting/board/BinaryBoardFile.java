@@ -0,0 +1,1247 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * BinaryBoardFile.java
+ */
+package org.thehellnet.tools.freerouting.board;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.thehellnet.tools.freerouting.datastructures.UndoableObjects;
+
+import org.thehellnet.tools.freerouting.planar.Area;
+import org.thehellnet.tools.freerouting.planar.Circle;
+import org.thehellnet.tools.freerouting.planar.ConvexShape;
+import org.thehellnet.tools.freerouting.planar.FloatPoint;
+import org.thehellnet.tools.freerouting.planar.IntBox;
+import org.thehellnet.tools.freerouting.planar.IntOctagon;
+import org.thehellnet.tools.freerouting.planar.IntPoint;
+import org.thehellnet.tools.freerouting.planar.IntVector;
+import org.thehellnet.tools.freerouting.planar.Line;
+import org.thehellnet.tools.freerouting.planar.Point;
+import org.thehellnet.tools.freerouting.planar.PolygonShape;
+import org.thehellnet.tools.freerouting.planar.Polyline;
+import org.thehellnet.tools.freerouting.planar.PolylineArea;
+import org.thehellnet.tools.freerouting.planar.PolylineShape;
+import org.thehellnet.tools.freerouting.planar.Shape;
+import org.thehellnet.tools.freerouting.planar.Simplex;
+import org.thehellnet.tools.freerouting.planar.Vector;
+
+import org.thehellnet.tools.freerouting.rules.BoardRules;
+import org.thehellnet.tools.freerouting.rules.ClearanceMatrix;
+import org.thehellnet.tools.freerouting.rules.DefaultItemClearanceClasses;
+import org.thehellnet.tools.freerouting.rules.Net;
+import org.thehellnet.tools.freerouting.rules.NetClass;
+import org.thehellnet.tools.freerouting.rules.ViaInfo;
+import org.thehellnet.tools.freerouting.rules.ViaRule;
+
+import org.thehellnet.tools.freerouting.library.BoardLibrary;
+import org.thehellnet.tools.freerouting.library.LogicalPart;
+import org.thehellnet.tools.freerouting.library.LogicalParts;
+import org.thehellnet.tools.freerouting.library.Package;
+import org.thehellnet.tools.freerouting.library.Packages;
+import org.thehellnet.tools.freerouting.library.Padstack;
+import org.thehellnet.tools.freerouting.library.Padstacks;
+
+/**
+ * Versioned binary format of a routing org.thehellnet.tools.freerouting.board replacing the Java serialization of the org.thehellnet.tools.freerouting.board.
+ * Only the primary data is stored: the layer structure, the org.thehellnet.tools.freerouting.rules, the org.thehellnet.tools.freerouting.library, the components
+ * and the items with their geometry as integer coordinates.
+ * Derived data like the search trees, the precalculated item shapes and the autoroute database
+ * is not stored but rebuilt after reading or on demand. The undo history is not stored.
+ */
+public class BinaryBoardFile
+{
+
+    /**
+     * Writes p_board to p_output.
+     * Throws an IOException, if the org.thehellnet.tools.freerouting.board contains data, which cannot be represented in this format,
+     * for example geometry with rational coordinates.
+     */
+    public static void write(BasicBoard p_board, DataOutput p_output) throws IOException
+    {
+        BinaryBoardFile writer = new BinaryBoardFile(p_board, p_output, null);
+        writer.write_board();
+    }
+
+    /**
+     * Reads a org.thehellnet.tools.freerouting.board written with write from p_input.
+     * Throws an IOException, if p_input does not contain a org.thehellnet.tools.freerouting.board of a supported version.
+     */
+    public static RoutingBoard read(DataInput p_input, BoardObservers p_observers, TestLevel p_test_level) throws IOException
+    {
+        BinaryBoardFile reader = new BinaryBoardFile(null, null, p_input);
+        return reader.read_board(p_observers, p_test_level);
+    }
+
+    private BinaryBoardFile(BasicBoard p_board, DataOutput p_output, DataInput p_input)
+    {
+        this.board = p_board;
+        this.out = p_output;
+        this.in = p_input;
+    }
+
+    private void write_board() throws IOException
+    {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        write_layer_structure(board.layer_structure);
+        write_box(board.bounding_box);
+        write_communication(board.communication);
+        write_library(board.library);
+        write_rules(board.rules);
+        write_nets(board.rules);
+        out.writeInt(board.get_min_trace_half_width());
+        out.writeInt(board.get_max_trace_half_width());
+        write_components(board.components);
+        Iterator<UndoableObjects.UndoableObjectNode> it = board.item_list.start_read_object();
+        for (;;)
+        {
+            Item curr_item = (Item) board.item_list.read_object(it);
+            if (curr_item == null)
+            {
+                break;
+            }
+            write_item(curr_item);
+        }
+        out.writeByte(END_OF_ITEMS);
+    }
+
+    private RoutingBoard read_board(BoardObservers p_observers, TestLevel p_test_level) throws IOException
+    {
+        if (in.readInt() != MAGIC)
+        {
+            throw new IOException("BinaryBoardFile.read: no binary board file");
+        }
+        int version = in.readInt();
+        if (version != VERSION)
+        {
+            throw new IOException("BinaryBoardFile.read: unsupported version " + version);
+        }
+        LayerStructure layer_structure = read_layer_structure();
+        IntBox bounding_box = read_box();
+        Communication communication = read_communication(p_observers);
+        BoardLibrary library = read_library(layer_structure);
+        BoardRules rules = read_rules(layer_structure, library.padstacks);
+        RoutingBoard result = new RoutingBoard(bounding_box, layer_structure, new PolylineShape[0],
+                BoardRules.default_clearance_class(), rules, communication, p_test_level);
+        read_nets(rules);
+        int min_trace_half_width = in.readInt();
+        int max_trace_half_width = in.readInt();
+        // The outline is read with the other items.
+        BoardOutline default_outline = result.get_outline();
+        result.search_tree_manager.remove(default_outline);
+        result.item_list.delete(default_outline);
+        result.remove_from_item_index(default_outline);
+        result.library.padstacks = library.padstacks;
+        result.library.packages = library.packages;
+        result.library.logical_parts = library.logical_parts;
+        result.library.set_via_padstacks(library.get_via_padstacks());
+        result.set_trace_half_width_bounds(min_trace_half_width, max_trace_half_width);
+        this.board = result;
+        read_components(result.components);
+
+        // The items are inserted into the search trees all at once after reading.
+        for (;;)
+        {
+            Item curr_item = read_item();
+            if (curr_item == null)
+            {
+                break;
+            }
+            result.item_list.insert(curr_item);
+            result.insert_into_item_index(curr_item);
+        }
+        result.search_tree_manager.insert_all_board_items();
+        for (BoardOutline curr_outline : this.outlines_with_keepout)
+        {
+            curr_outline.generate_keepout_outside(true);
+        }
+        return result;
+    }
+
+    private void write_layer_structure(LayerStructure p_layer_structure) throws IOException
+    {
+        out.writeInt(p_layer_structure.arr.length);
+        for (Layer curr_layer : p_layer_structure.arr)
+        {
+            out.writeUTF(curr_layer.name);
+            out.writeBoolean(curr_layer.is_signal);
+        }
+    }
+
+    private LayerStructure read_layer_structure() throws IOException
+    {
+        Layer[] layer_arr = new Layer[in.readInt()];
+        for (int i = 0; i < layer_arr.length; ++i)
+        {
+            String name = in.readUTF();
+            layer_arr[i] = new Layer(name, in.readBoolean());
+        }
+        return new LayerStructure(layer_arr);
+    }
+
+    private void write_communication(Communication p_communication) throws IOException
+    {
+        out.writeInt(p_communication.unit.ordinal());
+        out.writeInt(p_communication.resolution);
+        Communication.SpecctraParserInfo parser_info = p_communication.specctra_parser_info;
+        out.writeBoolean(parser_info != null);
+        if (parser_info != null)
+        {
+            write_string(parser_info.string_quote);
+            write_string(parser_info.host_cad);
+            write_string(parser_info.host_version);
+            if (parser_info.constants == null)
+            {
+                out.writeInt(-1);
+            }
+            else
+            {
+                out.writeInt(parser_info.constants.size());
+                for (String[] curr_constant : parser_info.constants)
+                {
+                    write_strings(curr_constant);
+                }
+            }
+            out.writeBoolean(parser_info.write_resolution != null);
+            if (parser_info.write_resolution != null)
+            {
+                write_string(parser_info.write_resolution.char_name);
+                out.writeInt(parser_info.write_resolution.positive_int);
+            }
+            out.writeBoolean(parser_info.dsn_file_generated_by_host);
+        }
+        double[] dsn_base = p_communication.coordinate_transform.board_to_dsn(FloatPoint.ZERO);
+        out.writeDouble(p_communication.coordinate_transform.dsn_to_board(1));
+        out.writeDouble(dsn_base[0]);
+        out.writeDouble(dsn_base[1]);
+        out.writeInt(p_communication.id_no_generator.max_generated_no());
+    }
+
+    private Communication read_communication(BoardObservers p_observers) throws IOException
+    {
+        Unit unit = Unit.values()[in.readInt()];
+        int resolution = in.readInt();
+        Communication.SpecctraParserInfo parser_info = null;
+        if (in.readBoolean())
+        {
+            String string_quote = read_string();
+            String host_cad = read_string();
+            String host_version = read_string();
+            Collection<String[]> constants = null;
+            int constant_count = in.readInt();
+            if (constant_count >= 0)
+            {
+                constants = new LinkedList<String[]>();
+                for (int i = 0; i < constant_count; ++i)
+                {
+                    constants.add(read_strings());
+                }
+            }
+            Communication.SpecctraParserInfo.WriteResolution write_resolution = null;
+            if (in.readBoolean())
+            {
+                String char_name = read_string();
+                write_resolution = new Communication.SpecctraParserInfo.WriteResolution(char_name, in.readInt());
+            }
+            boolean generated_by_host = in.readBoolean();
+            parser_info = new Communication.SpecctraParserInfo(string_quote, host_cad, host_version, constants,
+                    write_resolution, generated_by_host);
+        }
+        double scale_factor = in.readDouble();
+        double base_x = in.readDouble();
+        double base_y = in.readDouble();
+        org.thehellnet.tools.freerouting.specctra.CoordinateTransform coordinate_transform =
+                new org.thehellnet.tools.freerouting.specctra.CoordinateTransform(scale_factor, base_x, base_y);
+        // The id number generated next is used by the default outline of the new org.thehellnet.tools.freerouting.board,
+        // which is replaced by the outline read with the other items.
+        ItemIdNoGenerator id_no_generator = new ItemIdNoGenerator(in.readInt() - 1);
+        return new Communication(unit, resolution, parser_info, coordinate_transform, id_no_generator, p_observers);
+    }
+
+    private void write_library(BoardLibrary p_library) throws IOException
+    {
+        Padstacks padstacks = p_library.padstacks;
+        out.writeInt(padstacks.count());
+        for (int i = 1; i <= padstacks.count(); ++i)
+        {
+            Padstack curr_padstack = padstacks.get(i);
+            out.writeUTF(curr_padstack.name);
+            out.writeBoolean(curr_padstack.attach_allowed);
+            out.writeBoolean(curr_padstack.placed_absolute);
+            for (int j = 0; j < curr_padstack.board_layer_count(); ++j)
+            {
+                write_shape(curr_padstack.get_shape(j));
+            }
+        }
+        Padstack[] via_padstacks = p_library.get_via_padstacks();
+        out.writeInt(via_padstacks.length);
+        for (Padstack curr_padstack : via_padstacks)
+        {
+            out.writeInt(curr_padstack.no);
+        }
+        Packages packages = p_library.packages;
+        out.writeInt(packages.count());
+        for (int i = 1; i <= packages.count(); ++i)
+        {
+            Package curr_package = packages.get(i);
+            out.writeUTF(curr_package.name);
+            out.writeBoolean(curr_package.is_front);
+            out.writeInt(curr_package.pin_count());
+            for (int j = 0; j < curr_package.pin_count(); ++j)
+            {
+                Package.Pin curr_pin = curr_package.get_pin(j);
+                out.writeUTF(curr_pin.name);
+                out.writeInt(curr_pin.padstack_no);
+                write_vector(curr_pin.relative_location);
+                out.writeDouble(curr_pin.rotation_in_degree);
+            }
+            if (curr_package.outline == null)
+            {
+                out.writeInt(-1);
+            }
+            else
+            {
+                out.writeInt(curr_package.outline.length);
+                for (Shape curr_shape : curr_package.outline)
+                {
+                    write_shape(curr_shape);
+                }
+            }
+            write_keepouts(curr_package.keepout_arr);
+            write_keepouts(curr_package.via_keepout_arr);
+            write_keepouts(curr_package.place_keepout_arr);
+        }
+        LogicalParts logical_parts = p_library.logical_parts;
+        out.writeInt(logical_parts.count());
+        for (int i = 1; i <= logical_parts.count(); ++i)
+        {
+            LogicalPart curr_part = logical_parts.get(i);
+            out.writeUTF(curr_part.name);
+            out.writeInt(curr_part.pin_count());
+            for (int j = 0; j < curr_part.pin_count(); ++j)
+            {
+                LogicalPart.PartPin curr_pin = curr_part.get_pin(j);
+                out.writeInt(curr_pin.pin_no);
+                write_string(curr_pin.pin_name);
+                write_string(curr_pin.gate_name);
+                out.writeInt(curr_pin.gate_swap_code);
+                write_string(curr_pin.gate_pin_name);
+                out.writeInt(curr_pin.gate_pin_swap_code);
+            }
+        }
+    }
+
+    private BoardLibrary read_library(LayerStructure p_layer_structure) throws IOException
+    {
+        Padstacks padstacks = new Padstacks(p_layer_structure);
+        int padstack_count = in.readInt();
+        for (int i = 0; i < padstack_count; ++i)
+        {
+            String name = in.readUTF();
+            boolean attach_allowed = in.readBoolean();
+            boolean placed_absolute = in.readBoolean();
+            ConvexShape[] shapes = new ConvexShape[p_layer_structure.arr.length];
+            for (int j = 0; j < shapes.length; ++j)
+            {
+                shapes[j] = (ConvexShape) read_shape();
+            }
+            padstacks.add(name, shapes, attach_allowed, placed_absolute);
+        }
+        Padstack[] via_padstacks = new Padstack[in.readInt()];
+        for (int i = 0; i < via_padstacks.length; ++i)
+        {
+            via_padstacks[i] = padstacks.get(in.readInt());
+        }
+        Packages packages = new Packages(padstacks);
+        int package_count = in.readInt();
+        for (int i = 0; i < package_count; ++i)
+        {
+            String name = in.readUTF();
+            boolean is_front = in.readBoolean();
+            Package.Pin[] pin_arr = new Package.Pin[in.readInt()];
+            for (int j = 0; j < pin_arr.length; ++j)
+            {
+                String pin_name = in.readUTF();
+                int padstack_no = in.readInt();
+                Vector relative_location = read_vector();
+                pin_arr[j] = new Package.Pin(pin_name, padstack_no, relative_location, in.readDouble());
+            }
+            Shape[] outline = null;
+            int outline_count = in.readInt();
+            if (outline_count >= 0)
+            {
+                outline = new Shape[outline_count];
+                for (int j = 0; j < outline.length; ++j)
+                {
+                    outline[j] = (Shape) read_shape();
+                }
+            }
+            Package.Keepout[] keepout_arr = read_keepouts();
+            Package.Keepout[] via_keepout_arr = read_keepouts();
+            Package.Keepout[] place_keepout_arr = read_keepouts();
+            packages.add(name, pin_arr, outline, keepout_arr, via_keepout_arr, place_keepout_arr, is_front);
+        }
+        BoardLibrary result = new BoardLibrary(padstacks, packages);
+        result.set_via_padstacks(via_padstacks);
+        int part_count = in.readInt();
+        for (int i = 0; i < part_count; ++i)
+        {
+            String name = in.readUTF();
+            LogicalPart.PartPin[] pin_arr = new LogicalPart.PartPin[in.readInt()];
+            for (int j = 0; j < pin_arr.length; ++j)
+            {
+                int pin_no = in.readInt();
+                String pin_name = read_string();
+                String gate_name = read_string();
+                int gate_swap_code = in.readInt();
+                String gate_pin_name = read_string();
+                int gate_pin_swap_code = in.readInt();
+                pin_arr[j] = new LogicalPart.PartPin(pin_no, pin_name, gate_name, gate_swap_code,
+                        gate_pin_name, gate_pin_swap_code);
+            }
+            result.logical_parts.add(name, pin_arr);
+        }
+        return result;
+    }
+
+    private void write_keepouts(Package.Keepout[] p_keepout_arr) throws IOException
+    {
+        if (p_keepout_arr == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(p_keepout_arr.length);
+        for (Package.Keepout curr_keepout : p_keepout_arr)
+        {
+            write_string(curr_keepout.name);
+            write_shape(curr_keepout.area);
+            out.writeInt(curr_keepout.layer);
+        }
+    }
+
+    private Package.Keepout[] read_keepouts() throws IOException
+    {
+        int keepout_count = in.readInt();
+        if (keepout_count < 0)
+        {
+            return null;
+        }
+        Package.Keepout[] result = new Package.Keepout[keepout_count];
+        for (int i = 0; i < result.length; ++i)
+        {
+            String name = read_string();
+            Area area = read_shape();
+            result[i] = new Package.Keepout(name, area, in.readInt());
+        }
+        return result;
+    }
+
+    private void write_rules(BoardRules p_rules) throws IOException
+    {
+        ClearanceMatrix clearance_matrix = p_rules.clearance_matrix;
+        int class_count = clearance_matrix.get_class_count();
+        int layer_count = clearance_matrix.get_layer_count();
+        out.writeInt(class_count);
+        for (int i = 0; i < class_count; ++i)
+        {
+            out.writeUTF(clearance_matrix.get_name(i));
+        }
+        for (int i = 0; i < class_count; ++i)
+        {
+            for (int j = 0; j < class_count; ++j)
+            {
+                for (int layer = 0; layer < layer_count; ++layer)
+                {
+                    out.writeInt(clearance_matrix.value(i, j, layer));
+                }
+            }
+        }
+
+        out.writeInt(p_rules.via_infos.count());
+        for (int i = 0; i < p_rules.via_infos.count(); ++i)
+        {
+            ViaInfo curr_via_info = p_rules.via_infos.get(i);
+            out.writeUTF(curr_via_info.get_name());
+            out.writeInt(curr_via_info.get_padstack().no);
+            out.writeInt(curr_via_info.get_clearance_class());
+            out.writeBoolean(curr_via_info.attach_smd_allowed());
+        }
+        out.writeInt(p_rules.via_rules.size());
+        for (ViaRule curr_via_rule : p_rules.via_rules)
+        {
+            out.writeUTF(curr_via_rule.name);
+            out.writeInt(curr_via_rule.via_count());
+            for (int i = 0; i < curr_via_rule.via_count(); ++i)
+            {
+                out.writeInt(via_info_index(p_rules, curr_via_rule.get_via(i)));
+            }
+        }
+
+        out.writeInt(p_rules.net_classes.count());
+        for (int i = 0; i < p_rules.net_classes.count(); ++i)
+        {
+            NetClass curr_class = p_rules.net_classes.get(i);
+            out.writeUTF(curr_class.get_name());
+            ViaRule curr_via_rule = curr_class.get_via_rule();
+            if (curr_via_rule == null)
+            {
+                out.writeInt(NO_VIA_RULE);
+            }
+            else if (p_rules.via_rules.contains(curr_via_rule))
+            {
+                out.writeInt(p_rules.via_rules.indexOf(curr_via_rule));
+            }
+            else
+            {
+                out.writeInt(EMPTY_VIA_RULE);
+            }
+            out.writeInt(curr_class.get_trace_clearance_class());
+            out.writeInt(curr_class.layer_count());
+            for (int layer = 0; layer < curr_class.layer_count(); ++layer)
+            {
+                out.writeInt(curr_class.get_trace_half_width(layer));
+                out.writeBoolean(curr_class.is_active_routing_layer(layer));
+            }
+            out.writeBoolean(curr_class.is_shove_fixed());
+            out.writeBoolean(curr_class.get_pull_tight());
+            out.writeBoolean(curr_class.get_ignore_cycles_with_areas());
+            out.writeDouble(curr_class.get_minimum_trace_length());
+            out.writeDouble(curr_class.get_maximum_trace_length());
+            for (DefaultItemClearanceClasses.ItemClass curr_item_class : DefaultItemClearanceClasses.ItemClass.values())
+            {
+                out.writeInt(curr_class.default_item_clearance_classes.get(curr_item_class));
+            }
+        }
+
+        out.writeInt(p_rules.get_trace_angle_restriction().get_no());
+        out.writeBoolean(p_rules.get_ignore_conduction());
+        out.writeDouble(p_rules.get_pin_edge_to_turn_dist());
+        out.writeBoolean(p_rules.get_slow_autoroute_algorithm());
+        out.writeInt(p_rules.get_min_trace_half_width());
+        out.writeInt(p_rules.get_max_trace_half_width());
+    }
+
+    private void write_nets(BoardRules p_rules) throws IOException
+    {
+        out.writeInt(p_rules.nets.max_net_no());
+        for (int i = 1; i <= p_rules.nets.max_net_no(); ++i)
+        {
+            Net curr_net = p_rules.nets.get(i);
+            out.writeUTF(curr_net.name);
+            out.writeInt(curr_net.subnet_number);
+            out.writeBoolean(curr_net.contains_plane());
+            NetClass curr_class = curr_net.get_class();
+            int class_index = -1;
+            for (int j = 0; j < p_rules.net_classes.count(); ++j)
+            {
+                if (p_rules.net_classes.get(j) == curr_class)
+                {
+                    class_index = j;
+                    break;
+                }
+            }
+            out.writeInt(class_index);
+        }
+    }
+
+    private BoardRules read_rules(LayerStructure p_layer_structure, Padstacks p_padstacks) throws IOException
+    {
+        int class_count = in.readInt();
+        int layer_count = p_layer_structure.arr.length;
+        String[] class_names = new String[class_count];
+        for (int i = 0; i < class_count; ++i)
+        {
+            class_names[i] = in.readUTF();
+        }
+        ClearanceMatrix clearance_matrix = new ClearanceMatrix(class_count, p_layer_structure, class_names);
+        for (int i = 0; i < class_count; ++i)
+        {
+            for (int j = 0; j < class_count; ++j)
+            {
+                for (int layer = 0; layer < layer_count; ++layer)
+                {
+                    clearance_matrix.set_value(i, j, layer, in.readInt());
+                }
+            }
+        }
+        BoardRules result = new BoardRules(p_layer_structure, clearance_matrix);
+
+        int via_info_count = in.readInt();
+        for (int i = 0; i < via_info_count; ++i)
+        {
+            String name = in.readUTF();
+            Padstack padstack = p_padstacks.get(in.readInt());
+            int clearance_class = in.readInt();
+            boolean attach_smd_allowed = in.readBoolean();
+            result.via_infos.add(new ViaInfo(name, padstack, clearance_class, attach_smd_allowed, result));
+        }
+        int via_rule_count = in.readInt();
+        for (int i = 0; i < via_rule_count; ++i)
+        {
+            ViaRule curr_via_rule = new ViaRule(in.readUTF());
+            int via_count = in.readInt();
+            for (int j = 0; j < via_count; ++j)
+            {
+                curr_via_rule.append_via(result.via_infos.get(in.readInt()));
+            }
+            result.via_rules.add(curr_via_rule);
+        }
+
+        int net_class_count = in.readInt();
+        for (int i = 0; i < net_class_count; ++i)
+        {
+            String name = in.readUTF();
+            NetClass curr_class;
+            if (i == 0)
+            {
+                curr_class = result.get_default_net_class();
+                curr_class.set_name(name);
+            }
+            else
+            {
+                curr_class = result.get_new_net_class(name);
+            }
+            int via_rule_index = in.readInt();
+            if (via_rule_index == NO_VIA_RULE)
+            {
+                curr_class.set_via_rule(null);
+            }
+            else if (via_rule_index == EMPTY_VIA_RULE)
+            {
+                curr_class.set_via_rule(ViaRule.EMPTY);
+            }
+            else
+            {
+                curr_class.set_via_rule(result.via_rules.get(via_rule_index));
+            }
+            curr_class.set_trace_clearance_class(in.readInt());
+            int class_layer_count = in.readInt();
+            for (int layer = 0; layer < class_layer_count; ++layer)
+            {
+                curr_class.set_trace_half_width(layer, in.readInt());
+                curr_class.set_active_routing_layer(layer, in.readBoolean());
+            }
+            curr_class.set_shove_fixed(in.readBoolean());
+            curr_class.set_pull_tight(in.readBoolean());
+            curr_class.set_ignore_cycles_with_areas(in.readBoolean());
+            curr_class.set_minimum_trace_length(in.readDouble());
+            curr_class.set_maximum_trace_length(in.readDouble());
+            for (DefaultItemClearanceClasses.ItemClass curr_item_class : DefaultItemClearanceClasses.ItemClass.values())
+            {
+                curr_class.default_item_clearance_classes.set(curr_item_class, in.readInt());
+            }
+        }
+
+        result.set_trace_angle_restriction(AngleRestriction.arr[in.readInt()]);
+        result.set_ignore_conduction(in.readBoolean());
+        result.set_pin_edge_to_turn_dist(in.readDouble());
+        result.set_slow_autoroute_algorithm(in.readBoolean());
+        int min_trace_half_width = in.readInt();
+        result.set_trace_half_width_bounds(min_trace_half_width, in.readInt());
+        return result;
+    }
+
+    /**
+     * Reads the nets of p_rules. The nets can only be created after the org.thehellnet.tools.freerouting.board.
+     */
+    private void read_nets(BoardRules p_rules) throws IOException
+    {
+        int net_count = in.readInt();
+        for (int i = 0; i < net_count; ++i)
+        {
+            String name = in.readUTF();
+            int subnet_number = in.readInt();
+            Net curr_net = p_rules.nets.add(name, subnet_number, in.readBoolean());
+            int class_index = in.readInt();
+            if (class_index >= 0)
+            {
+                curr_net.set_class(p_rules.net_classes.get(class_index));
+            }
+        }
+    }
+
+    private static int via_info_index(BoardRules p_rules, ViaInfo p_via_info) throws IOException
+    {
+        for (int i = 0; i < p_rules.via_infos.count(); ++i)
+        {
+            if (p_rules.via_infos.get(i) == p_via_info)
+            {
+                return i;
+            }
+        }
+        throw new IOException("BinaryBoardFile.write: via " + p_via_info.get_name() + " of a via rule not found");
+    }
+
+    private void write_components(Components p_components) throws IOException
+    {
+        out.writeBoolean(p_components.get_flip_style_rotate_first());
+        out.writeInt(p_components.count());
+        for (int i = 1; i <= p_components.count(); ++i)
+        {
+            Component curr_component = p_components.get(i);
+            out.writeUTF(curr_component.name);
+            Point location = curr_component.get_location();
+            out.writeBoolean(location != null);
+            if (location != null)
+            {
+                write_point(location);
+            }
+            out.writeDouble(curr_component.get_rotation_in_degree());
+            out.writeBoolean(curr_component.placed_on_front());
+            write_package_no(curr_component.get_package_front());
+            write_package_no(curr_component.get_package_back());
+            out.writeBoolean(curr_component.position_fixed);
+            LogicalPart logical_part = curr_component.get_logical_part();
+            out.writeInt(logical_part == null ? -1 : logical_part.no);
+        }
+    }
+
+    private void read_components(Components p_components) throws IOException
+    {
+        p_components.set_flip_style_rotate_first(in.readBoolean());
+        int component_count = in.readInt();
+        for (int i = 0; i < component_count; ++i)
+        {
+            String name = in.readUTF();
+            Point location = null;
+            if (in.readBoolean())
+            {
+                location = read_point();
+            }
+            double rotation_in_degree = in.readDouble();
+            boolean on_front = in.readBoolean();
+            Package package_front = read_package();
+            Package package_back = read_package();
+            boolean position_fixed = in.readBoolean();
+            Component curr_component = p_components.add(name, location, rotation_in_degree, on_front,
+                    package_front, package_back, position_fixed);
+            int logical_part_no = in.readInt();
+            if (logical_part_no > 0)
+            {
+                curr_component.set_logical_part(board.library.logical_parts.get(logical_part_no));
+            }
+        }
+    }
+
+    private void write_package_no(Package p_package) throws IOException
+    {
+        out.writeInt(p_package == null ? -1 : p_package.no);
+    }
+
+    private Package read_package() throws IOException
+    {
+        int package_no = in.readInt();
+        if (package_no <= 0)
+        {
+            return null;
+        }
+        return board.library.packages.get(package_no);
+    }
+
+    private void write_item(Item p_item) throws IOException
+    {
+        if (p_item instanceof PolylineTrace)
+        {
+            PolylineTrace curr_trace = (PolylineTrace) p_item;
+            write_item_header(TRACE, p_item);
+            out.writeInt(curr_trace.get_layer());
+            out.writeInt(curr_trace.get_half_width());
+            write_lines(curr_trace.polyline().arr);
+        }
+        else if (p_item instanceof Via)
+        {
+            Via curr_via = (Via) p_item;
+            write_item_header(VIA, p_item);
+            out.writeInt(curr_via.get_padstack().no);
+            write_point(curr_via.get_center());
+            out.writeBoolean(curr_via.attach_allowed);
+        }
+        else if (p_item instanceof Pin)
+        {
+            write_item_header(PIN, p_item);
+            out.writeInt(((Pin) p_item).pin_no);
+        }
+        else if (p_item instanceof ObstacleArea)
+        {
+            ObstacleArea curr_area = (ObstacleArea) p_item;
+            if (p_item instanceof ConductionArea)
+            {
+                write_item_header(CONDUCTION_AREA, p_item);
+                out.writeBoolean(((ConductionArea) p_item).get_is_obstacle());
+            }
+            else if (p_item instanceof ViaObstacleArea)
+            {
+                write_item_header(VIA_OBSTACLE_AREA, p_item);
+            }
+            else if (p_item instanceof ComponentObstacleArea)
+            {
+                write_item_header(COMPONENT_OBSTACLE_AREA, p_item);
+            }
+            else
+            {
+                write_item_header(OBSTACLE_AREA, p_item);
+            }
+            write_shape(curr_area.get_relative_area());
+            out.writeInt(curr_area.get_layer());
+            write_vector(curr_area.get_translation());
+            out.writeDouble(curr_area.get_rotation_in_degree());
+            out.writeBoolean(curr_area.get_side_changed());
+            write_string(curr_area.name);
+        }
+        else if (p_item instanceof ComponentOutline)
+        {
+            ComponentOutline curr_outline = (ComponentOutline) p_item;
+            write_item_header(COMPONENT_OUTLINE, p_item);
+            write_shape(curr_outline.get_relative_area());
+            out.writeBoolean(curr_outline.is_front());
+            write_vector(curr_outline.get_translation());
+            out.writeDouble(curr_outline.get_rotation_in_degree());
+        }
+        else if (p_item instanceof BoardOutline)
+        {
+            BoardOutline curr_outline = (BoardOutline) p_item;
+            write_item_header(BOARD_OUTLINE, p_item);
+            out.writeInt(curr_outline.shape_count());
+            for (int i = 0; i < curr_outline.shape_count(); ++i)
+            {
+                write_shape(curr_outline.get_shape(i));
+            }
+            out.writeBoolean(curr_outline.keepout_outside_outline_generated());
+        }
+        else
+        {
+            throw new IOException("BinaryBoardFile.write: unknown item type " + p_item.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Reads the next item. Returns null at the end of the item list.
+     */
+    private Item read_item() throws IOException
+    {
+        int item_type = in.readByte();
+        if (item_type == END_OF_ITEMS)
+        {
+            return null;
+        }
+        int id_no = in.readInt();
+        int clearance_class = in.readInt();
+        int component_no = in.readInt();
+        FixedState fixed_state = FixedState.values()[in.readByte()];
+        int[] net_no_arr = new int[in.readInt()];
+        for (int i = 0; i < net_no_arr.length; ++i)
+        {
+            net_no_arr[i] = in.readInt();
+        }
+        Item result;
+        switch (item_type)
+        {
+            case TRACE:
+            {
+                int layer = in.readInt();
+                int half_width = in.readInt();
+                Polyline polyline = new Polyline(read_lines());
+                result = new PolylineTrace(polyline, layer, half_width, net_no_arr, clearance_class, id_no,
+                        component_no, fixed_state, board);
+                break;
+            }
+            case VIA:
+            {
+                Padstack padstack = board.library.padstacks.get(in.readInt());
+                Point center = read_point();
+                boolean attach_allowed = in.readBoolean();
+                result = new Via(padstack, center, net_no_arr, clearance_class, id_no, component_no, fixed_state,
+                        attach_allowed, board);
+                break;
+            }
+            case PIN:
+            {
+                result = new Pin(component_no, in.readInt(), net_no_arr, clearance_class, id_no, fixed_state, board);
+                break;
+            }
+            case OBSTACLE_AREA:
+            case VIA_OBSTACLE_AREA:
+            case COMPONENT_OBSTACLE_AREA:
+            case CONDUCTION_AREA:
+            {
+                boolean is_obstacle = item_type == CONDUCTION_AREA && in.readBoolean();
+                Area area = read_shape();
+                int layer = in.readInt();
+                Vector translation = read_vector();
+                double rotation_in_degree = in.readDouble();
+                boolean side_changed = in.readBoolean();
+                String name = read_string();
+                if (item_type == CONDUCTION_AREA)
+                {
+                    result = new ConductionArea(area, layer, translation, rotation_in_degree, side_changed,
+                            net_no_arr, clearance_class, id_no, component_no, name, is_obstacle, fixed_state, board);
+                }
+                else if (item_type == VIA_OBSTACLE_AREA)
+                {
+                    result = new ViaObstacleArea(area, layer, translation, rotation_in_degree, side_changed,
+                            net_no_arr, clearance_class, id_no, component_no, name, fixed_state, board);
+                }
+                else if (item_type == COMPONENT_OBSTACLE_AREA)
+                {
+                    result = new ComponentObstacleArea(area, layer, translation, rotation_in_degree, side_changed,
+                            clearance_class, id_no, component_no, name, fixed_state, board);
+                }
+                else
+                {
+                    result = new ObstacleArea(area, layer, translation, rotation_in_degree, side_changed,
+                            net_no_arr, clearance_class, id_no, component_no, name, fixed_state, board);
+                }
+                break;
+            }
+            case COMPONENT_OUTLINE:
+            {
+                Area area = read_shape();
+                boolean is_front = in.readBoolean();
+                Vector translation = read_vector();
+                double rotation_in_degree = in.readDouble();
+                result = new ComponentOutline(area, is_front, translation, rotation_in_degree, component_no,
+                        fixed_state, board);
+                break;
+            }
+            case BOARD_OUTLINE:
+            {
+                PolylineShape[] shapes = new PolylineShape[in.readInt()];
+                for (int i = 0; i < shapes.length; ++i)
+                {
+                    shapes[i] = (PolylineShape) read_shape();
+                }
+                BoardOutline outline = new BoardOutline(shapes, clearance_class, id_no, board);
+                if (in.readBoolean())
+                {
+                    // The keepout is generated after the outline is inserted into the search trees.
+                    this.outlines_with_keepout.add(outline);
+                }
+                result = outline;
+                break;
+            }
+            default:
+                throw new IOException("BinaryBoardFile.read: unknown item type " + item_type);
+        }
+        return result;
+    }
+
+    private void write_item_header(int p_item_type, Item p_item) throws IOException
+    {
+        out.writeByte(p_item_type);
+        out.writeInt(p_item.get_id_no());
+        out.writeInt(p_item.clearance_class_no());
+        out.writeInt(p_item.get_component_no());
+        out.writeByte(p_item.get_fixed_state().ordinal());
+        out.writeInt(p_item.net_count());
+        for (int i = 0; i < p_item.net_count(); ++i)
+        {
+            out.writeInt(p_item.get_net_no(i));
+        }
+    }
+
+    /**
+     * Writes a shape or an area. p_area may be null.
+     */
+    private void write_shape(Area p_area) throws IOException
+    {
+        if (p_area == null)
+        {
+            out.writeByte(NULL_SHAPE);
+        }
+        else if (p_area instanceof Circle)
+        {
+            Circle curr_circle = (Circle) p_area;
+            out.writeByte(CIRCLE);
+            write_point(curr_circle.center);
+            out.writeInt(curr_circle.radius);
+        }
+        else if (p_area instanceof IntBox)
+        {
+            IntBox curr_box = (IntBox) p_area;
+            out.writeByte(INT_BOX);
+            write_box(curr_box);
+        }
+        else if (p_area instanceof IntOctagon)
+        {
+            IntOctagon curr_oct = (IntOctagon) p_area;
+            out.writeByte(INT_OCTAGON);
+            out.writeInt(curr_oct.lx);
+            out.writeInt(curr_oct.ly);
+            out.writeInt(curr_oct.rx);
+            out.writeInt(curr_oct.uy);
+            out.writeInt(curr_oct.ulx);
+            out.writeInt(curr_oct.lrx);
+            out.writeInt(curr_oct.llx);
+            out.writeInt(curr_oct.urx);
+        }
+        else if (p_area instanceof Simplex)
+        {
+            Simplex curr_simplex = (Simplex) p_area;
+            out.writeByte(SIMPLEX);
+            Line[] line_arr = new Line[curr_simplex.border_line_count()];
+            for (int i = 0; i < line_arr.length; ++i)
+            {
+                line_arr[i] = curr_simplex.border_line(i);
+            }
+            write_lines(line_arr);
+        }
+        else if (p_area instanceof PolygonShape)
+        {
+            PolygonShape curr_polygon = (PolygonShape) p_area;
+            out.writeByte(POLYGON_SHAPE);
+            out.writeInt(curr_polygon.corners.length);
+            for (Point curr_corner : curr_polygon.corners)
+            {
+                write_point(curr_corner);
+            }
+        }
+        else if (p_area instanceof PolylineArea)
+        {
+            PolylineArea curr_area = (PolylineArea) p_area;
+            out.writeByte(POLYLINE_AREA);
+            write_shape(curr_area.get_border());
+            PolylineShape[] holes = curr_area.get_holes();
+            out.writeInt(holes.length);
+            for (PolylineShape curr_hole : holes)
+            {
+                write_shape(curr_hole);
+            }
+        }
+        else
+        {
+            throw new IOException("BinaryBoardFile.write: unknown shape type " + p_area.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Reads a shape or an area written with write_shape.
+     */
+    private Area read_shape() throws IOException
+    {
+        int shape_type = in.readByte();
+        switch (shape_type)
+        {
+            case NULL_SHAPE:
+                return null;
+            case CIRCLE:
+            {
+                IntPoint center = read_point();
+                return new Circle(center, in.readInt());
+            }
+            case INT_BOX:
+                return read_box();
+            case INT_OCTAGON:
+            {
+                int lx = in.readInt();
+                int ly = in.readInt();
+                int rx = in.readInt();
+                int uy = in.readInt();
+                int ulx = in.readInt();
+                int lrx = in.readInt();
+                int llx = in.readInt();
+                int urx = in.readInt();
+                return new IntOctagon(lx, ly, rx, uy, ulx, lrx, llx, urx);
+            }
+            case SIMPLEX:
+                return new Simplex(read_lines());
+            case POLYGON_SHAPE:
+            {
+                Point[] corners = new Point[in.readInt()];
+                for (int i = 0; i < corners.length; ++i)
+                {
+                    corners[i] = read_point();
+                }
+                return new PolygonShape(corners);
+            }
+            case POLYLINE_AREA:
+            {
+                PolylineShape border = (PolylineShape) read_shape();
+                PolylineShape[] holes = new PolylineShape[in.readInt()];
+                for (int i = 0; i < holes.length; ++i)
+                {
+                    holes[i] = (PolylineShape) read_shape();
+                }
+                return new PolylineArea(border, holes);
+            }
+            default:
+                throw new IOException("BinaryBoardFile.read: unknown shape type " + shape_type);
+        }
+    }
+
+    private void write_lines(Line[] p_line_arr) throws IOException
+    {
+        out.writeInt(p_line_arr.length);
+        for (Line curr_line : p_line_arr)
+        {
+            write_point(curr_line.a);
+            write_point(curr_line.b);
+        }
+    }
+
+    private Line[] read_lines() throws IOException
+    {
+        Line[] result = new Line[in.readInt()];
+        for (int i = 0; i < result.length; ++i)
+        {
+            int a_x = in.readInt();
+            int a_y = in.readInt();
+            int b_x = in.readInt();
+            int b_y = in.readInt();
+            result[i] = new Line(a_x, a_y, b_x, b_y);
+        }
+        return result;
+    }
+
+    private void write_box(IntBox p_box) throws IOException
+    {
+        out.writeInt(p_box.ll.x);
+        out.writeInt(p_box.ll.y);
+        out.writeInt(p_box.ur.x);
+        out.writeInt(p_box.ur.y);
+    }
+
+    private IntBox read_box() throws IOException
+    {
+        int ll_x = in.readInt();
+        int ll_y = in.readInt();
+        int ur_x = in.readInt();
+        int ur_y = in.readInt();
+        return new IntBox(ll_x, ll_y, ur_x, ur_y);
+    }
+
+    private void write_point(Point p_point) throws IOException
+    {
+        if (!(p_point instanceof IntPoint))
+        {
+            throw new IOException("BinaryBoardFile.write: point with rational coordinates");
+        }
+        IntPoint curr_point = (IntPoint) p_point;
+        out.writeInt(curr_point.x);
+        out.writeInt(curr_point.y);
+    }
+
+    private IntPoint read_point() throws IOException
+    {
+        int x = in.readInt();
+        return new IntPoint(x, in.readInt());
+    }
+
+    private void write_vector(Vector p_vector) throws IOException
+    {
+        if (!(p_vector instanceof IntVector))
+        {
+            throw new IOException("BinaryBoardFile.write: vector with rational coordinates");
+        }
+        IntVector curr_vector = (IntVector) p_vector;
+        out.writeInt(curr_vector.x);
+        out.writeInt(curr_vector.y);
+    }
+
+    private IntVector read_vector() throws IOException
+    {
+        int x = in.readInt();
+        return new IntVector(x, in.readInt());
+    }
+
+    private void write_string(String p_string) throws IOException
+    {
+        out.writeBoolean(p_string != null);
+        if (p_string != null)
+        {
+            out.writeUTF(p_string);
+        }
+    }
+
+    private String read_string() throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        return in.readUTF();
+    }
+
+    private void write_strings(String[] p_string_arr) throws IOException
+    {
+        if (p_string_arr == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(p_string_arr.length);
+        for (String curr_string : p_string_arr)
+        {
+            write_string(curr_string);
+        }
+    }
+
+    private String[] read_strings() throws IOException
+    {
+        int string_count = in.readInt();
+        if (string_count < 0)
+        {
+            return null;
+        }
+        String[] result = new String[string_count];
+        for (int i = 0; i < result.length; ++i)
+        {
+            result[i] = read_string();
+        }
+        return result;
+    }
+
+    /** The first 4 bytes of a binary org.thehellnet.tools.freerouting.board file ("FRBB"). */
+    private static final int MAGIC = 0x46524242;
+
+    /** The version of the format, to be incremented with each incompatible change. */
+    private static final int VERSION = 1;
+
+    private static final int END_OF_ITEMS = 0;
+    private static final int TRACE = 1;
+    private static final int VIA = 2;
+    private static final int PIN = 3;
+    private static final int OBSTACLE_AREA = 4;
+    private static final int VIA_OBSTACLE_AREA = 5;
+    private static final int COMPONENT_OBSTACLE_AREA = 6;
+    private static final int CONDUCTION_AREA = 7;
+    private static final int COMPONENT_OUTLINE = 8;
+    private static final int BOARD_OUTLINE = 9;
+
+    private static final int NULL_SHAPE = 0;
+    private static final int CIRCLE = 1;
+    private static final int INT_BOX = 2;
+    private static final int INT_OCTAGON = 3;
+    private static final int SIMPLEX = 4;
+    private static final int POLYGON_SHAPE = 5;
+    private static final int POLYLINE_AREA = 6;
+
+    private static final int NO_VIA_RULE = -1;
+    private static final int EMPTY_VIA_RULE = -2;
+
+    /** The org.thehellnet.tools.freerouting.board written or read */
+    private BasicBoard board;
+    private final DataOutput out;
+    private final DataInput in;
+    /** The org.thehellnet.tools.freerouting.board outlines read, whose area outside is keepout. */
+    private final Collection<BoardOutline> outlines_with_keepout = new LinkedList<BoardOutline>();
+}
@@ -267,6 +267,22 @@ public class Component implements UndoableObjects.Storable, ObjectInfoPanel.Prin
         return result;
     } 
     
+    /**
+     * Returns the org.thehellnet.tools.freerouting.library package of this component on the component side.
+     */
+    Package get_package_front()
+    {
+        return lib_package_front;
+    }
+    
+    /**
+     * Returns the org.thehellnet.tools.freerouting.library package of this component on the solder side.
+     */
+    Package get_package_back()
+    {
+        return lib_package_back;
+    }
+    
     /** The name of the component. */
     public final String name;
     
@@ -243,6 +243,26 @@ public class ComponentOutline extends Item implements java.io.Serializable
         precalculated_absolute_area = null;
     }
 
+    Area get_relative_area()
+    {
+        return this.relative_area;
+    }
+
+    Vector get_translation()
+    {
+        return this.translation;
+    }
+
+    double get_rotation_in_degree()
+    {
+        return this.rotation_in_degree;
+    }
+
+    boolean is_front()
+    {
+        return this.is_front;
+    }
+
     public void print_info(ObjectInfoPanel p_window, java.util.Locale p_locale)
     {
     }
@@ -22,7 +22,9 @@
 package org.thehellnet.tools.freerouting.board;
 
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Vector;
 
 import org.thehellnet.tools.freerouting.datastructures.UndoableObjects;
@@ -54,6 +56,10 @@ public class Components implements java.io.Serializable
                 p_package_back, component_arr.size() + 1, p_position_fixed);
         component_arr.add(new_component);
         undo_list.insert(new_component);
+        if (this.name_index != null && !this.name_index.containsKey(new_component.name))
+        {
+            this.name_index.put(new_component.name, new_component.no);
+        }
         return new_component;
     }
     
@@ -75,16 +81,27 @@ public class Components implements java.io.Serializable
      */
     public Component get(String p_name)
     {
-        Iterator<Component> it = component_arr.iterator();
-        while(it.hasNext())
+        if (this.name_index == null)
         {
-            Component curr = it.next();
-            if (curr.name.equals(p_name))
+            // create the index of the component names, the first component with a name is found
+            this.name_index = new HashMap<String, Integer>();
+            Iterator<Component> it = component_arr.iterator();
+            while(it.hasNext())
             {
-                return curr;
+                Component curr = it.next();
+                if (!this.name_index.containsKey(curr.name))
+                {
+                    this.name_index.put(curr.name, curr.no);
+                }
             }
         }
-        return null;
+        Integer component_no = this.name_index.get(p_name);
+        if (component_no == null)
+        {
+            return null;
+        }
+        // The component is taken from component_arr, because it may have been replaced by undo or redo.
+        return component_arr.elementAt(component_no - 1);
     }
     
     /**
@@ -230,6 +247,8 @@ public class Components implements java.io.Serializable
     private final UndoableObjects undo_list = new UndoableObjects();
     
     private Vector<Component> component_arr = new Vector<Component>();
+    /** The numbers of the components by their names for fast lookup, created at the first use. */
+    private transient Map<String, Integer> name_index = null;
     
     /**
      * If true, components on the back side are rotated before mirroring,
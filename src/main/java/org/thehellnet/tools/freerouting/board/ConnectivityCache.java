@@ -0,0 +1,260 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * ConnectivityCache.java
+ */
+
+package org.thehellnet.tools.freerouting.board;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Caches the sets of connectable items of a net, which are connected via normal contacts,
+ * in a union find structure for each net, which was queried once.
+ * Items inserted into the org.thehellnet.tools.freerouting.board are united with their contacts.
+ * The connected set of an item changed or removed from the org.thehellnet.tools.freerouting.board is calculated again
+ * from the normal contacts of its items. Because undo and redo insert and remove items
+ * in the same way, the cache remains valid after them.
+ * The changes are collected and handled at the next query, when the shapes of the changed items are final.
+ */
+class ConnectivityCache
+{
+
+    ConnectivityCache(BasicBoard p_board)
+    {
+        this.board = p_board;
+    }
+
+    /**
+     * Returns the connected set of p_item in the net with number p_net_no,
+     * or null, if p_item is not contained in the cache.
+     */
+    Set<Item> get_connected_set(Item p_item, int p_net_no)
+    {
+        NetConnectivity net_connectivity = get_net_connectivity(p_net_no);
+        Item root = net_connectivity.find(p_item);
+        if (root == null)
+        {
+            return null;
+        }
+        return new TreeSet<Item>(net_connectivity.members.get(root));
+    }
+
+    /**
+     * Returns the connected sets of the items on the org.thehellnet.tools.freerouting.board containing the net with number p_net_no.
+     */
+    Collection<Collection<Item>> get_connected_sets(int p_net_no)
+    {
+        NetConnectivity net_connectivity = get_net_connectivity(p_net_no);
+        // sort the connected sets by their first item to get the order of a search in the item list
+        TreeMap<Item, Collection<Item>> sorted_sets = new TreeMap<Item, Collection<Item>>();
+        for (List<Item> curr_members : net_connectivity.members.values())
+        {
+            TreeSet<Item> curr_set = new TreeSet<Item>(curr_members);
+            sorted_sets.put(curr_set.first(), curr_set);
+        }
+        return new LinkedList<Collection<Item>>(sorted_sets.values());
+    }
+
+    /**
+     * Returns the number of connected sets of the items on the org.thehellnet.tools.freerouting.board containing the net with number p_net_no.
+     */
+    int connected_set_count(int p_net_no)
+    {
+        return get_net_connectivity(p_net_no).members.size();
+    }
+
+    /**
+     * Marks p_item as changed in the cached nets of p_item.
+     * Must be called, when p_item is inserted into or removed from the org.thehellnet.tools.freerouting.board,
+     * or when its shape or its nets change.
+     */
+    void item_changed(Item p_item)
+    {
+        for (int i = 0; i < p_item.net_count(); ++i)
+        {
+            NetConnectivity net_connectivity = this.nets.get(p_item.get_net_no(i));
+            if (net_connectivity != null)
+            {
+                net_connectivity.changed_items.add(p_item);
+            }
+        }
+    }
+
+    /**
+     * Returns the uptodate connectivity of the net with number p_net_no. It is created at the first call.
+     */
+    private NetConnectivity get_net_connectivity(int p_net_no)
+    {
+        NetConnectivity result = this.nets.get(p_net_no);
+        if (result == null)
+        {
+            result = new NetConnectivity(p_net_no);
+            result.insert_items(board.get_connectable_items(p_net_no));
+            this.nets.put(p_net_no, result);
+        }
+        else if (!result.changed_items.isEmpty())
+        {
+            result.update();
+        }
+        return result;
+    }
+
+    private final BasicBoard board;
+
+    /** The connectivity of the nets, which were already queried */
+    private final Map<Integer, NetConnectivity> nets = new TreeMap<Integer, NetConnectivity>();
+
+    /**
+     * Union find structure of the connectable items of a net.
+     */
+    private class NetConnectivity
+    {
+        NetConnectivity(int p_net_no)
+        {
+            this.net_no = p_net_no;
+        }
+
+        /**
+         * Returns the representative item of the connected set of p_item, or null, if p_item is not in this structure.
+         */
+        Item find(Item p_item)
+        {
+            Item curr_parent = this.parent.get(p_item);
+            if (curr_parent == null)
+            {
+                return null;
+            }
+            if (curr_parent == p_item)
+            {
+                return p_item;
+            }
+            Item result = find(curr_parent);
+            if (result != curr_parent)
+            {
+                // path compression
+                this.parent.put(p_item, result);
+            }
+            return result;
+        }
+
+        /**
+         * Joins the connected sets of p_item and p_other_item.
+         */
+        void union(Item p_item, Item p_other_item)
+        {
+            Item root = find(p_item);
+            Item other_root = find(p_other_item);
+            if (root == null || other_root == null || root == other_root)
+            {
+                return;
+            }
+            List<Item> root_members = this.members.get(root);
+            List<Item> other_root_members = this.members.get(other_root);
+            if (root_members.size() < other_root_members.size())
+            {
+                Item tmp_root = root;
+                root = other_root;
+                other_root = tmp_root;
+                List<Item> tmp_members = root_members;
+                root_members = other_root_members;
+                other_root_members = tmp_members;
+            }
+            this.parent.put(other_root, root);
+            root_members.addAll(other_root_members);
+            this.members.remove(other_root);
+        }
+
+        /**
+         * Inserts the items of p_items, which are on the org.thehellnet.tools.freerouting.board, as single sets
+         * and unites them afterwards with their normal contacts in this net.
+         */
+        void insert_items(Collection<Item> p_items)
+        {
+            Collection<Item> inserted_items = new ArrayList<Item>(p_items.size());
+            for (Item curr_item : p_items)
+            {
+                if (curr_item.board != board || !curr_item.is_on_the_board() || !curr_item.contains_net(this.net_no)
+                        || !(curr_item instanceof Connectable) || this.parent.containsKey(curr_item))
+                {
+                    continue;
+                }
+                this.parent.put(curr_item, curr_item);
+                List<Item> curr_members = new ArrayList<Item>(1);
+                curr_members.add(curr_item);
+                this.members.put(curr_item, curr_members);
+                inserted_items.add(curr_item);
+            }
+            for (Item curr_item : inserted_items)
+            {
+                for (Item curr_contact : curr_item.get_normal_contacts())
+                {
+                    if (curr_contact.contains_net(this.net_no))
+                    {
+                        union(curr_item, curr_contact);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Calculates the connected sets containing changed items again.
+         * Changed items not yet in this structure are inserted with their contacts,
+         * while the connected sets of changed items in this structure are split into their items,
+         * which are inserted again, if they are still on the org.thehellnet.tools.freerouting.board.
+         */
+        void update()
+        {
+            Set<Item> items_to_insert = new HashSet<Item>();
+            for (Item curr_item : this.changed_items)
+            {
+                Item curr_root = find(curr_item);
+                if (curr_root == null)
+                {
+                    items_to_insert.add(curr_item);
+                    continue;
+                }
+                List<Item> curr_members = this.members.remove(curr_root);
+                for (Item curr_member : curr_members)
+                {
+                    this.parent.remove(curr_member);
+                }
+                items_to_insert.addAll(curr_members);
+            }
+            this.changed_items.clear();
+            insert_items(items_to_insert);
+        }
+
+        final int net_no;
+
+        /** The parent of each item in the union find tree, the representative item of a set is its own parent */
+        final Map<Item, Item> parent = new HashMap<Item, Item>();
+
+        /** The items of each connected set by its representative item */
+        final Map<Item, List<Item>> members = new HashMap<Item, List<Item>>();
+
+        /** The items inserted, removed or changed since the last update */
+        final Set<Item> changed_items = new HashSet<Item>();
+    }
+}
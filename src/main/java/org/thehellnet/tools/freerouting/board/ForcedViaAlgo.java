@@ -95,6 +95,17 @@ public class ForcedViaAlgo
      */
     public static boolean check(ViaInfo p_via_info, Point p_location, int[] p_net_no_arr, int p_max_recursion_depth,
             int p_max_via_recursion_depth, RoutingBoard p_board)
+    {
+        return check(p_via_info, p_location, p_net_no_arr, p_max_recursion_depth, p_max_via_recursion_depth, null, p_board);
+    }
+    
+    /**
+     * Checks, if a Via is possible with the input parameter after evtl. shoving aside obstacle traces.
+     * If p_from_side_arr != null, the from side calculated for each layer of the via is stored in p_from_side_arr,
+     * which must have the length of the layer count of the org.thehellnet.tools.freerouting.board.
+     */
+    public static boolean check(ViaInfo p_via_info, Point p_location, int[] p_net_no_arr, int p_max_recursion_depth,
+            int p_max_via_recursion_depth, CalcFromSide[] p_from_side_arr, RoutingBoard p_board)
     {
         Vector translate_vector = p_location.difference_by(Point.ZERO);
         int calc_from_side_offset = p_board.get_min_trace_half_width();
@@ -119,6 +130,10 @@ public class ForcedViaAlgo
             }
             CalcFromSide from_side
                     = forced_pad_algo.calc_from_side(tile_shape, p_location, i, calc_from_side_offset,p_via_info.get_clearance_class());
+            if (p_from_side_arr != null)
+            {
+                p_from_side_arr[i] = from_side;
+            }
             if (forced_pad_algo.check_forced_pad(tile_shape, from_side, i, p_net_no_arr, p_via_info.get_clearance_class(),
                     p_via_info.attach_smd_allowed(), null, p_max_recursion_depth, p_max_via_recursion_depth, false, null)
                     == ForcedPadAlgo.CheckDrillResult.NOT_DRILLABLE)
@@ -141,6 +156,21 @@ public class ForcedViaAlgo
     public static boolean insert( ViaInfo p_via_info, Point p_location, int[] p_net_no_arr,
             int p_trace_clearance_class_no, int [] p_trace_pen_halfwidth_arr, int p_max_recursion_depth,
             int p_max_via_recursion_depth, RoutingBoard p_board)
+    {
+        return insert(p_via_info, p_location, p_net_no_arr, p_trace_clearance_class_no, p_trace_pen_halfwidth_arr,
+                p_max_recursion_depth, p_max_via_recursion_depth, null, p_board);
+    }
+    
+    /**
+     * Like insert above, but the from sides of the via layers are taken from p_from_side_arr,
+     * if p_from_side_arr != null. p_from_side_arr is expected to be calculated by check with the same parameters.
+     * Because the from side of a layer is calculated before shoving on this layer,
+     * it is only the same as in check, if the shoving on the previous layers does not move vias,
+     * so p_max_via_recursion_depth must be 0 in this case.
+     */
+    public static boolean insert( ViaInfo p_via_info, Point p_location, int[] p_net_no_arr,
+            int p_trace_clearance_class_no, int [] p_trace_pen_halfwidth_arr, int p_max_recursion_depth,
+            int p_max_via_recursion_depth, CalcFromSide[] p_from_side_arr, RoutingBoard p_board)
     {
         Vector translate_vector = p_location.difference_by(Point.ZERO);
         int calc_from_side_offset = p_board.get_min_trace_half_width();
@@ -181,8 +211,15 @@ public class ForcedViaAlgo
                     start_trace_shape = start_trace_circle.bounding_octagon();
                 }
             }
-            CalcFromSide from_side
-                    = forced_pad_algo.calc_from_side(tile_shape, p_location, i, calc_from_side_offset,p_via_info.get_clearance_class());
+            CalcFromSide from_side;
+            if (p_from_side_arr != null && p_from_side_arr[i] != null)
+            {
+                from_side = p_from_side_arr[i];
+            }
+            else
+            {
+                from_side = forced_pad_algo.calc_from_side(tile_shape, p_location, i, calc_from_side_offset,p_via_info.get_clearance_class());
+            }
             if (!forced_pad_algo.forced_pad(tile_shape, from_side, i, p_net_no_arr, p_via_info.get_clearance_class(),
                     p_via_info.attach_smd_allowed(), null, p_max_recursion_depth, p_max_via_recursion_depth))
             {
@@ -588,6 +588,14 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
         {
             return result;
         }
+        if (p_net_no > 0 && !p_stop_at_plane && this.board != null && this.is_on_the_board())
+        {
+            Set<Item> cached_set = this.board.get_cached_connected_set(this, p_net_no);
+            if (cached_set != null)
+            {
+                return cached_set;
+            }
+        }
         result.add(this);
         get_connected_set_recu(result, p_net_no, p_stop_at_plane);
         return result;
@@ -962,6 +970,7 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
     public void set_fixed_state(FixedState p_fixed_state)
     {
         fixed_state = p_fixed_state;
+        display_changed();
     }
 
     /**
@@ -972,6 +981,7 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
         if (fixed_state != FixedState.SYSTEM_FIXED)
         {
             fixed_state = FixedState.UNFIXED;
+            display_changed();
         }
 
     }
@@ -1034,6 +1044,11 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
         {
             return false;
         }
+        boolean in_item_index = this.board != null && this.is_on_the_board();
+        if (in_item_index)
+        {
+            this.board.remove_from_item_index(this);
+        }
         int[] new_net_no_arr = new int[this.net_no_arr.length - 1];
         for (int i = 0; i < found_index; ++i)
         {
@@ -1044,6 +1059,11 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
             new_net_no_arr[i] = this.net_no_arr[i + 1];
         }
         this.net_no_arr = new_net_no_arr;
+        if (in_item_index)
+        {
+            this.board.insert_into_item_index(this);
+        }
+        display_changed();
         return true;
     }
 
@@ -1114,6 +1134,11 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
             return;
         }
         board.item_list.save_for_undo(this);
+        boolean in_item_index = this.is_on_the_board();
+        if (in_item_index)
+        {
+            board.remove_from_item_index(this);
+        }
         if (p_net_no <= 0)
         {
             net_no_arr = new int[0];
@@ -1130,6 +1155,24 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
             }
             net_no_arr[0] = p_net_no;
         }
+        if (in_item_index)
+        {
+            board.insert_into_item_index(this);
+        }
+        display_changed();
+    }
+
+    /**
+     * Called after a change of this item, which changes its drawing but not its shape,
+     * for example of the fixed state or the net,
+     * so that the displays of the board draw the region of this item again.
+     */
+    private void display_changed()
+    {
+        if (this.board != null && this.is_on_the_board())
+        {
+            this.board.item_changed_in_update_box(this.bounding_box());
+        }
     }
 
     /**
@@ -1200,6 +1243,31 @@ public abstract class Item implements Drawable, SearchTreeObject, ObjectInfoPane
         this.search_trees_info.set_precalculated_tree_shapes(p_shapes, p_tree);
     }
 
+    /**
+     * Allocates the information of this item for the search tree p_tree,
+     * so that p_tree can be built in a thread without changing data shared with the other search trees.
+     */
+    void add_search_tree(ShapeSearchTree p_tree)
+    {
+        if (this.search_trees_info == null)
+        {
+            this.search_trees_info = new ItemSearchTreesInfo();
+        }
+        this.search_trees_info.add_tree(p_tree);
+    }
+
+    /**
+     * Removes the information of this item for the search tree p_tree,
+     * for example if building p_tree has failed.
+     */
+    void remove_search_tree(ShapeSearchTree p_tree)
+    {
+        if (this.search_trees_info != null)
+        {
+            this.search_trees_info.remove_tree(p_tree);
+        }
+    }
+
     /**
      * Sets the searh tree entries of this item to null.
      */
@@ -34,6 +34,14 @@ public class ItemIdNoGenerator implements org.thehellnet.tools.freerouting.datas
     public ItemIdNoGenerator()
     {
     }
+
+    /**
+     * Creates a new ItemIdNoGenerator, which continues after p_last_generated_id_no.
+     */
+    ItemIdNoGenerator(int p_last_generated_id_no)
+    {
+        this.last_generated_id_no = p_last_generated_id_no;
+    }
     
     /**
      * Create a new unique identification number.
@@ -0,0 +1,222 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * ItemIndex.java
+ */
+
+package org.thehellnet.tools.freerouting.board;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.thehellnet.tools.freerouting.datastructures.UndoableObjects;
+
+/**
+ * Index of the items on the org.thehellnet.tools.freerouting.board by id number, by net number and by item type,
+ * so that an item or the items of a net or of a type can be found without reading the whole item list.
+ * The items in the index are sorted in the same order as in the item list of the org.thehellnet.tools.freerouting.board.
+ */
+class ItemIndex
+{
+
+    /**
+     * Creates the index of all items in p_item_list.
+     */
+    ItemIndex(UndoableObjects p_item_list)
+    {
+        Iterator<UndoableObjects.UndoableObjectNode> it = p_item_list.start_read_object();
+        for (;;)
+        {
+            Item curr_item = (Item) p_item_list.read_object(it);
+            if (curr_item == null)
+            {
+                break;
+            }
+            insert(curr_item);
+        }
+    }
+
+    /**
+     * Inserts p_item into the index.
+     */
+    void insert(Item p_item)
+    {
+        id_items.put(p_item.get_id_no(), p_item);
+        if (p_item instanceof Connectable)
+        {
+            for (int i = 0; i < p_item.net_count(); ++i)
+            {
+                Integer curr_net_no = p_item.get_net_no(i);
+                SortedSet<Item> curr_net_items = net_items.get(curr_net_no);
+                if (curr_net_items == null)
+                {
+                    curr_net_items = new TreeSet<Item>();
+                    net_items.put(curr_net_no, curr_net_items);
+                }
+                curr_net_items.add(p_item);
+            }
+        }
+        SortedSet<Item> type_items = get_type_items(p_item);
+        if (type_items != null)
+        {
+            type_items.add(p_item);
+        }
+    }
+
+    /**
+     * Removes p_item from the index.
+     */
+    void remove(Item p_item)
+    {
+        if (id_items.get(p_item.get_id_no()) == p_item)
+        {
+            id_items.remove(p_item.get_id_no());
+        }
+        if (p_item instanceof Connectable)
+        {
+            for (int i = 0; i < p_item.net_count(); ++i)
+            {
+                Integer curr_net_no = p_item.get_net_no(i);
+                SortedSet<Item> curr_net_items = net_items.get(curr_net_no);
+                if (curr_net_items != null)
+                {
+                    curr_net_items.remove(p_item);
+                    if (curr_net_items.isEmpty())
+                    {
+                        net_items.remove(curr_net_no);
+                    }
+                }
+            }
+        }
+        SortedSet<Item> type_items = get_type_items(p_item);
+        if (type_items != null)
+        {
+            type_items.remove(p_item);
+        }
+    }
+
+    /**
+     * Returns the item with id number p_id_no, or null, if no such item is in the index.
+     */
+    Item get_item(int p_id_no)
+    {
+        return id_items.get(p_id_no);
+    }
+
+    /**
+     * Returns all connectable items containing the net with number p_net_no.
+     */
+    Collection<Item> get_connectable_items(int p_net_no)
+    {
+        SortedSet<Item> curr_net_items = net_items.get(p_net_no);
+        if (curr_net_items == null)
+        {
+            return new LinkedList<Item>();
+        }
+        return new LinkedList<Item>(curr_net_items);
+    }
+
+    /**
+     * Returns the count of connectable items containing the net with number p_net_no.
+     */
+    int connectable_item_count(int p_net_no)
+    {
+        SortedSet<Item> curr_net_items = net_items.get(p_net_no);
+        if (curr_net_items == null)
+        {
+            return 0;
+        }
+        return curr_net_items.size();
+    }
+
+    Collection<Pin> get_pins()
+    {
+        return copy(pins);
+    }
+
+    Collection<Via> get_vias()
+    {
+        return copy(vias);
+    }
+
+    Collection<Trace> get_traces()
+    {
+        return copy(traces);
+    }
+
+    Collection<ConductionArea> get_conduction_areas()
+    {
+        return copy(conduction_areas);
+    }
+
+    Collection<ComponentOutline> get_component_outlines()
+    {
+        return copy(component_outlines);
+    }
+
+    /**
+     * Returns the set of the type index containing p_item, or null, if items of this type are not indexed.
+     */
+    private SortedSet<Item> get_type_items(Item p_item)
+    {
+        if (p_item instanceof Pin)
+        {
+            return pins;
+        }
+        if (p_item instanceof Via)
+        {
+            return vias;
+        }
+        if (p_item instanceof Trace)
+        {
+            return traces;
+        }
+        if (p_item instanceof ConductionArea)
+        {
+            return conduction_areas;
+        }
+        if (p_item instanceof ComponentOutline)
+        {
+            return component_outlines;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Item> Collection<T> copy(SortedSet<Item> p_items)
+    {
+        Collection<T> result = new LinkedList<T>();
+        for (Item curr_item : p_items)
+        {
+            result.add((T) curr_item);
+        }
+        return result;
+    }
+
+    /** The items by their id numbers */
+    private final Map<Integer, Item> id_items = new TreeMap<Integer, Item>();
+    /** The connectable items of each net */
+    private final Map<Integer, SortedSet<Item>> net_items = new TreeMap<Integer, SortedSet<Item>>();
+    private final SortedSet<Item> pins = new TreeSet<Item>();
+    private final SortedSet<Item> vias = new TreeSet<Item>();
+    private final SortedSet<Item> traces = new TreeSet<Item>();
+    private final SortedSet<Item> conduction_areas = new TreeSet<Item>();
+    private final SortedSet<Item> component_outlines = new TreeSet<Item>();
+}
@@ -111,6 +111,38 @@ class ItemSearchTreesInfo
         this.tree_list.add(new_tree_info);
     }
     
+    /**
+     * Allocates the information for the tree p_tree, if it does not yet exist.
+     * After that the information of p_tree can be set without changing the list of trees.
+     */
+    public void add_tree(ShapeTree p_tree)
+    {
+        for (SearchTreeInfo curr_tree_info : this.tree_list)
+        {
+            if (curr_tree_info.tree == p_tree)
+            {
+                return;
+            }
+        }
+        this.tree_list.add(new SearchTreeInfo(p_tree));
+    }
+    
+    /**
+     * Removes the information for the tree p_tree, if it exists.
+     */
+    public void remove_tree(ShapeTree p_tree)
+    {
+        java.util.Iterator<SearchTreeInfo> it = this.tree_list.iterator();
+        while (it.hasNext())
+        {
+            if (it.next().tree == p_tree)
+            {
+                it.remove();
+                return;
+            }
+        }
+    }
+    
     /**
      * clears the stored information about the precalculated tree shapes for all search trees.
      */
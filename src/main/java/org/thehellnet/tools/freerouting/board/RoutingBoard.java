@@ -577,12 +577,27 @@ public class RoutingBoard extends BasicBoard implements java.io.Serializable
             int p_trace_clearance_class_no, int[] p_trace_pen_halfwidth_arr,
             int p_max_recursion_depth, int p_max_via_recursion_depth,
             int p_tidy_width, int p_pull_tight_accuracy, int p_pull_tight_time_limit)
+    {
+        return forced_via(p_via_info, p_location, p_net_no_arr, p_trace_clearance_class_no, p_trace_pen_halfwidth_arr,
+                p_max_recursion_depth, p_max_via_recursion_depth, p_tidy_width, p_pull_tight_accuracy,
+                p_pull_tight_time_limit, null);
+    }
+
+    /**
+     * Like forced_via above, but reuses the result p_check_result of a previous call of check_forced_via
+     * with the same parameters, if p_check_result != null. The org.thehellnet.tools.freerouting.board must not be changed since this check,
+     * and p_max_via_recursion_depth must be 0.
+     */
+    public boolean forced_via(ViaInfo p_via_info, Point p_location, int[] p_net_no_arr,
+            int p_trace_clearance_class_no, int[] p_trace_pen_halfwidth_arr,
+            int p_max_recursion_depth, int p_max_via_recursion_depth,
+            int p_tidy_width, int p_pull_tight_accuracy, int p_pull_tight_time_limit, CalcFromSide[] p_check_result)
     {
         clear_shove_failing_obstacle();
         this.start_marking_changed_area();
         boolean result = ForcedViaAlgo.insert(p_via_info, p_location, p_net_no_arr,
                 p_trace_clearance_class_no, p_trace_pen_halfwidth_arr,
-                p_max_recursion_depth, p_max_via_recursion_depth, this);
+                p_max_recursion_depth, p_max_via_recursion_depth, p_check_result, this);
         if (result)
         {
             IntOctagon tidy_clip_shape;
@@ -609,6 +624,25 @@ public class RoutingBoard extends BasicBoard implements java.io.Serializable
         return result;
     }
 
+    /**
+     * Checks, if a via with the input parameters can be inserted at p_location
+     * while shoving aside obstacle traces, without changing the org.thehellnet.tools.freerouting.board.
+     * Returns null, if the via cannot be inserted. Otherwise the from sides calculated for the via layers are returned,
+     * which can be passed to forced_via, so that they are not calculated again.
+     */
+    public CalcFromSide[] check_forced_via(ViaInfo p_via_info, Point p_location, int[] p_net_no_arr,
+            int p_max_recursion_depth, int p_max_via_recursion_depth)
+    {
+        clear_shove_failing_obstacle();
+        CalcFromSide[] result = new CalcFromSide[this.get_layer_count()];
+        if (!ForcedViaAlgo.check(p_via_info, p_location, p_net_no_arr, p_max_recursion_depth,
+                p_max_via_recursion_depth, result, this))
+        {
+            return null;
+        }
+        return result;
+    }
+
     /**
      * Tries to insert a trace line with the input parameters from
      * p_from_corner to p_to_corner while shoving aside obstacle traces
@@ -901,6 +935,35 @@ public class RoutingBoard extends BasicBoard implements java.io.Serializable
         return new_corner;
     }
 
+    /**
+     * Creates a deep copy of this org.thehellnet.tools.freerouting.board by serialization, for example to route on it in a seperate thread.
+     * The copy has its own search trees and its own org.thehellnet.tools.freerouting.autoroute database.
+     * Returns null, if the copy could not be created.
+     */
+    public RoutingBoard deep_copy()
+    {
+        RoutingBoard result;
+        try
+        {
+            java.io.ByteArrayOutputStream byte_stream = new java.io.ByteArrayOutputStream();
+            java.io.ObjectOutputStream object_output = new java.io.ObjectOutputStream(byte_stream);
+            object_output.writeObject(this);
+            object_output.close();
+            java.io.ObjectInputStream object_input =
+                    new java.io.ObjectInputStream(new java.io.ByteArrayInputStream(byte_stream.toByteArray()));
+            result = (RoutingBoard) object_input.readObject();
+            object_input.close();
+        }
+        catch (Exception e)
+        {
+            System.out.println("RoutingBoard.deep_copy: unable to copy the org.thehellnet.tools.freerouting.board");
+            return null;
+        }
+        result.set_test_level(this.get_test_level());
+        result.search_tree_manager.set_clearance_compensation_used(this.search_tree_manager.is_clearance_compensation_used());
+        return result;
+    }
+
     /**
      * Initialises the org.thehellnet.tools.freerouting.autoroute database for routing a connection.
      * If p_retain_autoroute_database, the org.thehellnet.tools.freerouting.autoroute database is retained and maintained after
@@ -21,9 +21,16 @@
 
 package org.thehellnet.tools.freerouting.board;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.thehellnet.tools.freerouting.datastructures.UndoableObjects;
 import org.thehellnet.tools.freerouting.datastructures.ShapeTree;
@@ -58,6 +65,8 @@ public class SearchTreeManager
             curr_tree.insert(p_item);
         }
         p_item.set_on_the_board(true);
+        board.item_changed_in_update_box(p_item.bounding_box());
+        board.item_connectivity_changed(p_item);
     }
     
     /**
@@ -82,6 +91,8 @@ public class SearchTreeManager
         }
         p_item.clear_search_tree_entries();
         p_item.set_on_the_board(false);
+        board.item_changed_in_update_box(p_item.bounding_box());
+        board.item_connectivity_changed(p_item);
     }
     
     /**
@@ -200,6 +211,160 @@ public class SearchTreeManager
             }
         }
         // tree is not yet initialized
+        ShapeSearchTree curr_autoroute_tree = new_autoroute_tree(p_clearance_class_no);
+        this.compensated_search_trees.add(curr_autoroute_tree);
+        curr_autoroute_tree.insert_all(this.board.get_items());
+        return curr_autoroute_tree;
+    }
+    
+    /**
+     * Builds the compensated trees for the trace clearance classes of all net classes, which are not yet initialized,
+     * so that the first autorouted connection of a clearance class does not have to wait for the initialisation of its tree.
+     * If p_thread_count > 1, the trees are built at the same time with up to p_thread_count threads.
+     */
+    public void build_autoroute_trees(int p_thread_count)
+    {
+        Set<Integer> clearance_class_nos = new TreeSet<Integer>();
+        for (int i = 0; i < this.board.rules.net_classes.count(); ++i)
+        {
+            clearance_class_nos.add(this.board.rules.net_classes.get(i).get_trace_clearance_class());
+        }
+        for (ShapeSearchTree curr_tree : compensated_search_trees)
+        {
+            clearance_class_nos.remove(curr_tree.compensated_clearance_class_no);
+        }
+        if (clearance_class_nos.isEmpty())
+        {
+            return;
+        }
+        final Collection<Item> board_items = this.board.get_items();
+        List<ShapeSearchTree> new_trees = new ArrayList<ShapeSearchTree>(clearance_class_nos.size());
+        for (int curr_clearance_class_no : clearance_class_nos)
+        {
+            ShapeSearchTree curr_tree = new_autoroute_tree(curr_clearance_class_no);
+            // Allocate the item information of all new trees before the insertion,
+            // so that the threads inserting into different trees do not change the same lists.
+            for (Item curr_item : board_items)
+            {
+                curr_item.add_search_tree(curr_tree);
+            }
+            new_trees.add(curr_tree);
+        }
+        int thread_count = Math.min(p_thread_count, new_trees.size());
+        if (thread_count <= 1)
+        {
+            for (ShapeSearchTree curr_tree : new_trees)
+            {
+                insert_into_new_tree(curr_tree, board_items);
+            }
+            return;
+        }
+        // The item shapes and the polylines of the traces calculate their corners and bounding shapes lazily
+        // and are shared by all trees. So they are completely calculated here, before the threads use them.
+        for (Item curr_item : board_items)
+        {
+            if (curr_item instanceof PolylineTrace)
+            {
+                Polyline curr_polyline = ((PolylineTrace) curr_item).polyline();
+                curr_polyline.corner_arr();
+                curr_polyline.corner_approx_arr();
+                curr_polyline.bounding_box();
+            }
+        }
+        // The first tree is built in this thread, which calculates the remaining lazy geometry of the item shapes.
+        // If that fails, the other trees are built in this thread, too.
+        if (!insert_into_new_tree(new_trees.get(0), board_items))
+        {
+            for (int i = 1; i < new_trees.size(); ++i)
+            {
+                insert_into_new_tree(new_trees.get(i), board_items);
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(thread_count, new_trees.size() - 1));
+        try
+        {
+            List<Future<?>> futures = new ArrayList<Future<?>>(new_trees.size());
+            for (int i = 1; i < new_trees.size(); ++i)
+            {
+                final ShapeSearchTree curr_tree = new_trees.get(i);
+                futures.add(executor.submit(new Runnable()
+                {
+                    public void run()
+                    {
+                        curr_tree.insert_all(board_items);
+                    }
+                }));
+            }
+            for (int i = 1; i < new_trees.size(); ++i)
+            {
+                Exception curr_exception = null;
+                try
+                {
+                    futures.get(i - 1).get();
+                } catch (Exception e)
+                {
+                    curr_exception = e;
+                }
+                add_new_tree(new_trees.get(i), board_items, curr_exception);
+            }
+        } finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Inserts p_items into the new autoroute tree p_tree and adds p_tree to the compensated search trees.
+     * Returns false, if the insertion failed.
+     */
+    private boolean insert_into_new_tree(ShapeSearchTree p_tree, Collection<Item> p_items)
+    {
+        Exception insert_exception = null;
+        try
+        {
+            p_tree.insert_all(p_items);
+        } catch (RuntimeException e)
+        {
+            insert_exception = e;
+        }
+        return add_new_tree(p_tree, p_items, insert_exception);
+    }
+
+    /**
+     * Adds the new autoroute tree p_tree containing p_items to the compensated search trees,
+     * if p_exception is null. Otherwise p_exception is the failure of the insertion of p_items into p_tree.
+     * Then the information about p_tree is removed from the items,
+     * and p_tree will be initialized again, when it is used.
+     * Returns false, if p_tree was not added.
+     */
+    private boolean add_new_tree(ShapeSearchTree p_tree, Collection<Item> p_items, Exception p_exception)
+    {
+        if (p_exception == null)
+        {
+            this.compensated_search_trees.add(p_tree);
+            return true;
+        }
+        Throwable cause = p_exception;
+        if (cause instanceof java.util.concurrent.ExecutionException && cause.getCause() != null)
+        {
+            cause = cause.getCause();
+        }
+        System.out.println("SearchTreeManager.build_autoroute_trees: unable to build tree for clearance class "
+                + p_tree.compensated_clearance_class_no + ": " + cause);
+        for (Item curr_item : p_items)
+        {
+            curr_item.remove_search_tree(p_tree);
+        }
+        return false;
+    }
+    
+    /**
+     * Creates a new empty tree compensated for the clearance class with number p_clearance_vlass_no,
+     * which fits to the angle restriction of the org.thehellnet.tools.freerouting.board.
+     */
+    private ShapeSearchTree new_autoroute_tree(int p_clearance_class_no)
+    {
         ShapeSearchTree curr_autoroute_tree;
         boolean fast_algorithm = !this.board.rules.get_slow_autoroute_algorithm();
         if (fast_algorithm && this.board.rules.get_trace_angle_restriction() == AngleRestriction.NINETY_DEGREE)
@@ -214,18 +379,19 @@ public class SearchTreeManager
         {
             curr_autoroute_tree = new ShapeSearchTree(FortyfiveDegreeBoundingDirections.INSTANCE, this.board, p_clearance_class_no);
         }
-        this.compensated_search_trees.add(curr_autoroute_tree);
-        Iterator<UndoableObjects.UndoableObjectNode> it = this.board.item_list.start_read_object();
-        for(;;)
+        return curr_autoroute_tree;
+    }
+    
+    /**
+     * Rebuilds the search trees, so that they are balanced again
+     * after many items were inserted one by one, for example when reading a design file.
+     */
+    public void rebuild_trees()
+    {
+        for (ShapeSearchTree curr_tree : compensated_search_trees)
         {
-            Item curr_item = (Item) this.board.item_list.read_object(it);
-            if (curr_item == null)
-            {
-                break;
-            }
-            curr_autoroute_tree.insert(curr_item);
+            curr_tree.rebuild();
         }
-        return curr_autoroute_tree;
     }
     
     /**
@@ -270,13 +436,17 @@ public class SearchTreeManager
         }
     }
     
-    private void insert_all_board_items()
+    /**
+     * Inserts all items of the org.thehellnet.tools.freerouting.board into the search trees by building the trees at once.
+     */
+    void insert_all_board_items()
     {
         if (this.board == null)
         {
             System.out.println("SearchtreeManager.insert_all_board_items: org.thehellnet.tools.freerouting.board is null");
             return;
         }
+        Collection<Item> board_items = new LinkedList<Item>();
         Iterator<UndoableObjects.UndoableObjectNode> it = this.board.item_list.start_read_object();
         for(;;)
         {
@@ -286,8 +456,18 @@ public class SearchTreeManager
                 break;
             }
             curr_item.clear_derived_data();
-            this.insert(curr_item);
+            board_items.add(curr_item);
+        }
+        for (ShapeSearchTree curr_tree : compensated_search_trees)
+        {
+            curr_tree.insert_all(board_items);
+        }
+        for (Item curr_item : board_items)
+        {
+            curr_item.set_on_the_board(true);
         }
+        // The items are not inserted one by one with insert, so the displays are updated once for the whole board.
+        this.board.item_changed_in_update_box(this.board.bounding_box);
     }
     
     //********************************************************************************
@@ -307,6 +487,8 @@ public class SearchTreeManager
         {
             curr_tree.merge_entries_in_front(p_from_trace, p_to_trace, p_joined_polyline, p_from_entry_no, p_to_entry_no);
         }
+        board.item_changed_in_update_box(p_from_trace.bounding_box());
+        board.item_connectivity_changed(p_to_trace);
     }
     
     /**
@@ -320,6 +502,8 @@ public class SearchTreeManager
         {
             curr_tree.merge_entries_at_end(p_from_trace, p_to_trace, p_joined_polyline, p_from_entry_no, p_to_entry_no);
         }
+        board.item_changed_in_update_box(p_from_trace.bounding_box());
+        board.item_connectivity_changed(p_to_trace);
     }
     
     /**
@@ -330,6 +514,9 @@ public class SearchTreeManager
     void change_entries( PolylineTrace p_obj, Polyline p_new_polyline,
             int p_keep_at_start_count, int p_keep_at_end_count)
     {
+        board.item_changed_in_update_box(p_obj.bounding_box());
+        board.item_changed_in_update_box(p_new_polyline.bounding_box().offset(p_obj.get_half_width()));
+        board.item_connectivity_changed(p_obj);
         for (ShapeSearchTree curr_tree : compensated_search_trees)
         {
             curr_tree.change_entries(p_obj, p_new_polyline, p_keep_at_start_count, p_keep_at_end_count);
@@ -348,6 +535,10 @@ public class SearchTreeManager
             
             curr_tree.reuse_entries_after_cutout(p_from_trace, p_start_piece, p_end_piece);
         }
+        board.item_changed_in_update_box(p_from_trace.bounding_box());
+        board.item_connectivity_changed(p_from_trace);
+        board.item_connectivity_changed(p_start_piece);
+        board.item_connectivity_changed(p_end_piece);
     }
     
     private final Collection<ShapeSearchTree> compensated_search_trees;
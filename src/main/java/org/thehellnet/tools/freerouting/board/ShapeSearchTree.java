@@ -494,6 +494,7 @@ public class ShapeSearchTree extends org.thehellnet.tools.freerouting.datastruct
         Iterator<Leaf> it1 = tmp_list.iterator();
         // sort the found items by its clearances tp p_cl_type on layer p_layer
         Set<EntrySortedByClearance> sorted_items = new TreeSet<EntrySortedByClearance>();
+        int entry_count = 0;
 
         while (it1.hasNext())
         {
@@ -517,7 +518,7 @@ public class ShapeSearchTree extends org.thehellnet.tools.freerouting.datastruct
                 int curr_clearance =
                         cl_matrix.value(p_cl_type, curr_item.clearance_class_no(), p_layer);
                 EntrySortedByClearance sorted_ob =
-                        new EntrySortedByClearance(curr_leaf, curr_clearance);
+                        new EntrySortedByClearance(curr_leaf, curr_clearance, ++entry_count);
                 sorted_items.add(sorted_ob);
             }
         }
@@ -1167,9 +1168,6 @@ public class ShapeSearchTree extends org.thehellnet.tools.freerouting.datastruct
      */
     public final int compensated_clearance_class_no;
     protected final BasicBoard board;
-    /** used in objects of class EntrySortedByClearance */
-    static private int last_generated_id_no = 0;
-
     /**
      * created for sorting Items according to their clearance
      * to p_cl_type on layer p_layer
@@ -1177,20 +1175,15 @@ public class ShapeSearchTree extends org.thehellnet.tools.freerouting.datastruct
     static private class EntrySortedByClearance implements Comparable<EntrySortedByClearance>
     {
 
-        EntrySortedByClearance(Leaf p_leaf, int p_clearance)
+        /**
+         * p_entry_id_no sorts entries with the same clearance. It is counted for each search,
+         * so that searches on different boards in several threads do not share a counter.
+         */
+        EntrySortedByClearance(Leaf p_leaf, int p_clearance, int p_entry_id_no)
         {
             leaf = p_leaf;
             clearance = p_clearance;
-            if (last_generated_id_no >= Integer.MAX_VALUE)
-            {
-                last_generated_id_no = 0;
-            }
-            else
-            {
-                ++last_generated_id_no;
-            }
-            entry_id_no = last_generated_id_no;
-
+            entry_id_no = p_entry_id_no;
         }
 
         public int compareTo(EntrySortedByClearance p_other)
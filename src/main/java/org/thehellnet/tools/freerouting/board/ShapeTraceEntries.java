@@ -303,12 +303,14 @@ public class ShapeTraceEntries
                 p_trace.net_no_arr, p_trace.clearance_class_no(), 0, 0, FixedState.UNFIXED, board);
         start_piece.board = board;
         board.item_list.insert(start_piece);
+        board.insert_into_item_index(start_piece);
         start_piece.set_on_the_board(true);
         
         PolylineTrace end_piece = new PolylineTrace(p_end_piece, p_trace.get_layer(), p_trace.get_half_width(),
                 p_trace.net_no_arr, p_trace.clearance_class_no(), 0, 0, FixedState.UNFIXED, board);
         end_piece.board = board;
         board.item_list.insert(end_piece);
+        board.insert_into_item_index(end_piece);
         end_piece.set_on_the_board(true);
         
         board.search_tree_manager.reuse_entries_after_cutout(p_trace, start_piece, end_piece);
@@ -35,6 +35,25 @@ public class BigIntAux
     }
 
 
+    /**
+     * Returns true, if the absolute value of the product of p_1 and p_2 is smaller than 2 ** p_bit_count.
+     * Used to check cheaply, if a calculation can be done exactly with long arithmetic
+     * before falling back to BigInteger.
+     */
+    public static final boolean product_fits(long p_1, long p_2, int p_bit_count)
+    {
+        return bit_length(p_1) + bit_length(p_2) <= p_bit_count;
+    }
+
+    /**
+     * Returns the number of bits of the absolute value of p_value.
+     * Returns 64 for Long.MIN_VALUE.
+     */
+    private static int bit_length(long p_value)
+    {
+        return 64 - Long.numberOfLeadingZeros(Math.abs(p_value));
+    }
+
     /**
      * auxiliary function to implement addition and translation in the
      * classes RationalVector and RationalPoint
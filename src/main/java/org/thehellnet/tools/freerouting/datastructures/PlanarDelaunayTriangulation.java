@@ -60,7 +60,8 @@ public class PlanarDelaunayTriangulation
         
         // create a random permutation of the corners.
         // use a fixed seed to get reproducable result
-        random_generator.setSeed(seed);
+        // and a generator of its own, because triangulations may be created in parallel threads
+        java.util.Random random_generator = new java.util.Random(seed);
         Collections.shuffle(corner_list, random_generator);
         
         // create a big triangle contaning all corners in the list to start with.
@@ -334,11 +335,10 @@ public class PlanarDelaunayTriangulation
     private int last_edge_id_no = 0;
     
     /**
-     * Randum generatur to shuffle the input corners.
+     * Seed of the randum generatur to shuffle the input corners.
      * A fixed seed is used to make the results reproduceble.
      */
-    static private int seed = 99;
-    static private java.util.Random random_generator = new java.util.Random(seed);
+    static private final int seed = 99;
     
     /**
      * Interface with funktionality required for objects to be used
@@ -20,6 +20,11 @@
 
 package org.thehellnet.tools.freerouting.datastructures;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import org.thehellnet.tools.freerouting.planar.FloatPoint;
 import org.thehellnet.tools.freerouting.planar.ShapeBoundingDirections;
 import org.thehellnet.tools.freerouting.planar.RegularTileShape;
 import org.thehellnet.tools.freerouting.planar.Shape;
@@ -66,6 +71,131 @@ public abstract class ShapeTree
      * Insert a shape - creates a new node with a bounding shape
      */
     protected Leaf insert(ShapeTree.Storable p_object, int p_index)
+    {
+        Leaf new_leaf = new_leaf(p_object, p_index);
+        if (new_leaf != null)
+        {
+            this.insert(new_leaf);
+        }
+        return new_leaf;
+    }
+    
+    /**
+     * Inserts all shapes of the objects in p_objects into the tree.
+     * Instead of inserting the shapes one by one, the whole tree is built again from
+     * the new and the already stored shapes. Use this function for inserting many objects at once,
+     * for example when a org.thehellnet.tools.freerouting.board is loaded.
+     */
+    public void insert_all(Collection<? extends ShapeTree.Storable> p_objects)
+    {
+        Leaf [] old_leaf_arr = this.to_array();
+        Leaf [] leaf_arr = new Leaf[old_leaf_arr.length + p_objects.size()];
+        System.arraycopy(old_leaf_arr, 0, leaf_arr, 0, old_leaf_arr.length);
+        int leaf_count = old_leaf_arr.length;
+        for (ShapeTree.Storable curr_object : p_objects)
+        {
+            int shape_count = curr_object.tree_shape_count(this);
+            if (shape_count <= 0)
+            {
+                continue;
+            }
+            Leaf [] curr_leaf_arr = new Leaf [shape_count];
+            for (int i = 0; i < shape_count; ++i)
+            {
+                Leaf curr_leaf = new_leaf(curr_object, i);
+                curr_leaf_arr[i] = curr_leaf;
+                if (curr_leaf != null)
+                {
+                    if (leaf_count == leaf_arr.length)
+                    {
+                        leaf_arr = Arrays.copyOf(leaf_arr, 2 * leaf_arr.length);
+                    }
+                    leaf_arr[leaf_count] = curr_leaf;
+                    ++leaf_count;
+                }
+            }
+            curr_object.set_search_tree_entries(curr_leaf_arr, this);
+        }
+        build(leaf_arr, leaf_count);
+    }
+    
+    /**
+     * Rebuilds the tree from its leafs, so that it gets balanced again.
+     * The leafs and with them the tree entries of the stored objects remain valid.
+     */
+    public void rebuild()
+    {
+        Leaf [] leaf_arr = this.to_array();
+        build(leaf_arr, leaf_arr.length);
+    }
+    
+    /**
+     * Builds the tree from the first p_leaf_count leafs in p_leaf_arr.
+     * The leafs are sorted recursively by the centre of their bounding shapes and divided into two halfs
+     * along the coordinate with the bigger extent, so that the resulting tree is balanced
+     * and neighbouring shapes are stored in the same subtrees.
+     */
+    private void build(Leaf [] p_leaf_arr, int p_leaf_count)
+    {
+        this.leaf_count = p_leaf_count;
+        if (p_leaf_count == 0)
+        {
+            this.root = null;
+            return;
+        }
+        BuildEntry [] entry_arr = new BuildEntry[p_leaf_count];
+        for (int i = 0; i < p_leaf_count; ++i)
+        {
+            entry_arr[i] = new BuildEntry(p_leaf_arr[i]);
+        }
+        this.root = build_subtree(entry_arr, 0, p_leaf_count);
+        this.root.parent = null;
+    }
+    
+    /**
+     * Builds the subtree containing the entries from p_from to p_to (exclusive) of p_entry_arr.
+     */
+    private TreeNode build_subtree(BuildEntry [] p_entry_arr, int p_from, int p_to)
+    {
+        if (p_to - p_from == 1)
+        {
+            return p_entry_arr[p_from].leaf;
+        }
+        double min_x = Double.MAX_VALUE;
+        double max_x = -Double.MAX_VALUE;
+        double min_y = Double.MAX_VALUE;
+        double max_y = -Double.MAX_VALUE;
+        for (int i = p_from; i < p_to; ++i)
+        {
+            BuildEntry curr_entry = p_entry_arr[i];
+            min_x = Math.min(min_x, curr_entry.x);
+            max_x = Math.max(max_x, curr_entry.x);
+            min_y = Math.min(min_y, curr_entry.y);
+            max_y = Math.max(max_y, curr_entry.y);
+        }
+        if (max_x - min_x >= max_y - min_y)
+        {
+            Arrays.sort(p_entry_arr, p_from, p_to, BuildEntry.X_COMPARATOR);
+        }
+        else
+        {
+            Arrays.sort(p_entry_arr, p_from, p_to, BuildEntry.Y_COMPARATOR);
+        }
+        int middle = (p_from + p_to) >>> 1;
+        TreeNode first_child = build_subtree(p_entry_arr, p_from, middle);
+        TreeNode second_child = build_subtree(p_entry_arr, middle, p_to);
+        InnerNode new_node = new InnerNode(first_child.bounding_shape.union(second_child.bounding_shape), null);
+        new_node.first_child = first_child;
+        new_node.second_child = second_child;
+        first_child.parent = new_node;
+        second_child.parent = new_node;
+        return new_node;
+    }
+    
+    /**
+     * Creates a new leaf for the shape with index p_index of p_object without inserting it into the tree.
+     */
+    private Leaf new_leaf(ShapeTree.Storable p_object, int p_index)
     {
         Shape object_shape = p_object.get_tree_shape(this, p_index);
         if (object_shape == null)
@@ -80,9 +210,7 @@ public abstract class ShapeTree
             return null;
         }
         // Construct a new KdLeaf and set it up
-        Leaf new_leaf = new Leaf(p_object, p_index, null, bounding_shape) ;
-        this.insert(new_leaf);
-        return new_leaf;
+        return new Leaf(p_object, p_index, null, bounding_shape) ;
     }
     
     
@@ -230,6 +358,40 @@ public abstract class ShapeTree
         public final int shape_index_in_object;
     }
     
+    /**
+     * A leaf together with the centre of its bounding shape used for building the tree.
+     */
+    private static class BuildEntry
+    {
+        BuildEntry(Leaf p_leaf)
+        {
+            leaf = p_leaf;
+            FloatPoint centre = p_leaf.bounding_shape.centre_of_gravity();
+            x = centre.x;
+            y = centre.y;
+        }
+        
+        final Leaf leaf;
+        final double x;
+        final double y;
+        
+        static final Comparator<BuildEntry> X_COMPARATOR = new Comparator<BuildEntry>()
+        {
+            public int compare(BuildEntry p_1, BuildEntry p_2)
+            {
+                return Double.compare(p_1.x, p_2.x);
+            }
+        };
+        
+        static final Comparator<BuildEntry> Y_COMPARATOR = new Comparator<BuildEntry>()
+        {
+            public int compare(BuildEntry p_1, BuildEntry p_2)
+            {
+                return Double.compare(p_1.y, p_2.y);
+            }
+        };
+    }
+    
     //////////////////////////////////////////////////////////
     /** Common functionality of inner nodes and leaf nodes. */
     protected static class TreeNode
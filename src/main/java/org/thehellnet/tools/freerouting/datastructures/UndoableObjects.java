@@ -20,8 +20,11 @@
 package org.thehellnet.tools.freerouting.datastructures;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.Vector;
@@ -29,6 +32,9 @@ import java.util.Vector;
 /**
  * Database of objects, for which Undo and Redo operations are made possible.
  * The algorithm works only for objects containing no references.
+ * Unchanged objects are shared by all undo levels, only an object changed after a snapshot is copied once.
+ * The nodes changed on each undo level are recorded, so that undo, redo and popping a snapshot
+ * take time proportional to the number of changed objects instead of the number of all objects.
  *
  * @author  Alfons Wirtz
  */
@@ -41,6 +47,8 @@ public class UndoableObjects implements java.io.Serializable
         stack_level = 0;
         objects = new ConcurrentSkipListMap<Storable, UndoableObjectNode>();
         deleted_objects_stack = new Vector<Collection<UndoableObjectNode>>();
+        changed_nodes_stack = new Vector<Set<UndoableObjectNode>>();
+        redo_nodes = new HashSet<UndoableObjectNode>();
     }
 
     /**
@@ -80,6 +88,7 @@ public class UndoableObjects implements java.io.Serializable
         disable_redo();
         UndoableObjectNode curr_undoable_object = new UndoableObjectNode(p_object, stack_level);
         objects.put(p_object, curr_undoable_object);
+        record_node(curr_undoable_object);
     }
 
     /**
@@ -137,6 +146,11 @@ public class UndoableObjects implements java.io.Serializable
         disable_redo();
         Collection<UndoableObjectNode> curr_deleted_objects_list = new LinkedList<UndoableObjectNode>();
         deleted_objects_stack.add(curr_deleted_objects_list);
+        Vector<Set<UndoableObjectNode>> curr_changed_nodes_stack = get_changed_nodes_stack();
+        if (curr_changed_nodes_stack.size() <= stack_level)
+        {
+            curr_changed_nodes_stack.add(new HashSet<UndoableObjectNode>());
+        }
         ++stack_level;
     }
 
@@ -152,10 +166,8 @@ public class UndoableObjects implements java.io.Serializable
         {
             return false; // no more undo possible
         }
-        Iterator<UndoableObjectNode> it = objects.values().iterator();
-        while (it.hasNext())
+        for (UndoableObjectNode curr_node : changed_nodes(stack_level, stack_level, false))
         {
-            UndoableObjectNode curr_node = it.next();
             if (curr_node.level == stack_level)
             {
                 if (curr_node.undo_object != null)
@@ -163,6 +175,7 @@ public class UndoableObjects implements java.io.Serializable
                     // replace the current object by  its previous state.
                     curr_node.undo_object.redo_object = curr_node;
                     objects.put(curr_node.object, curr_node.undo_object);
+                    record_node(curr_node.undo_object);
                     if (p_restored_objects != null)
                     {
                         p_restored_objects.add(curr_node.undo_object.object);
@@ -181,6 +194,7 @@ public class UndoableObjects implements java.io.Serializable
         {
             UndoableObjectNode curr_deleted_node = it2.next();
             this.objects.put(curr_deleted_node.object, curr_deleted_node);
+            record_node(curr_deleted_node);
             if (p_restored_objects != null)
             {
                 p_restored_objects.add(curr_deleted_node.object);
@@ -204,15 +218,14 @@ public class UndoableObjects implements java.io.Serializable
             return false; // alredy at the top level
         }
         ++this.stack_level;
-        Iterator<UndoableObjectNode> it = objects.values().iterator();
-        while (it.hasNext())
+        for (UndoableObjectNode curr_node : changed_nodes(this.stack_level, this.stack_level, true))
         {
-            UndoableObjectNode curr_node = it.next();
             if (curr_node.redo_object != null && curr_node.redo_object.level == this.stack_level)
             {
                 // Object was created on a lower level and changed on the currenzt level,
                 // replace the lower level object by the object on the current layer.
                 objects.put(curr_node.object, curr_node.redo_object);
+                record_node(curr_node.redo_object);
                 if (p_cancelled_objects != null)
                 {
                     p_cancelled_objects.add(curr_node.object);
@@ -256,6 +269,36 @@ public class UndoableObjects implements java.io.Serializable
         return true;
     }
 
+    /**
+     * Puts the objects inserted or changed since the last snapshot into p_new_objects
+     * and the objects deleted or changed since the last snapshot in their state at the snapshot
+     * into p_removed_objects, so that the changes can be evaluated without undoing them.
+     * Returns false, if there is no snapshot.
+     */
+    public boolean get_changes(Collection<UndoableObjects.Storable> p_new_objects, Collection<UndoableObjects.Storable> p_removed_objects)
+    {
+        if (stack_level == 0)
+        {
+            return false;
+        }
+        for (UndoableObjectNode curr_node : changed_nodes(stack_level, stack_level, false))
+        {
+            if (curr_node.level == stack_level)
+            {
+                p_new_objects.add(curr_node.object);
+                if (curr_node.undo_object != null)
+                {
+                    p_removed_objects.add(curr_node.undo_object.object);
+                }
+            }
+        }
+        for (UndoableObjectNode curr_deleted_node : deleted_objects_stack.elementAt(stack_level - 1))
+        {
+            p_removed_objects.add(curr_deleted_node.object);
+        }
+        return true;
+    }
+
     /**
      *  Removes the top snapshot from the undo stack, so that its situation cannot be
      *  restored any more.
@@ -268,10 +311,9 @@ public class UndoableObjects implements java.io.Serializable
         {
             return false;
         }
-        Iterator<UndoableObjectNode> it = objects.values().iterator();
-        while (it.hasNext())
+        Vector<Set<UndoableObjectNode>> curr_changed_nodes_stack = get_changed_nodes_stack();
+        for (UndoableObjectNode curr_node : changed_nodes(stack_level, curr_changed_nodes_stack.size(), true))
         {
-            UndoableObjectNode curr_node = it.next();
             if (curr_node.level == stack_level - 1)
             {
                 if (curr_node.redo_object != null && curr_node.redo_object.level == stack_level)
@@ -286,7 +328,22 @@ public class UndoableObjects implements java.io.Serializable
             }
             else if (curr_node.level >= stack_level)
             {
+                UndoableObjectNode undo_node = curr_node.undo_object;
+                if (curr_node.level == stack_level && undo_node != null && undo_node.level == stack_level - 1)
+                {
+                    // The previous state of the object was created on the level, into which the top level is joined.
+                    // It cannot be restored any more, the undo of the joined level must restore the state before.
+                    curr_node.undo_object = undo_node.undo_object;
+                    if (curr_node.undo_object != null)
+                    {
+                        curr_node.undo_object.redo_object = curr_node;
+                    }
+                }
                 --curr_node.level;
+                if (curr_node.level == stack_level - 1 && curr_node.level > 0)
+                {
+                    curr_changed_nodes_stack.elementAt(curr_node.level - 1).add(curr_node);
+                }
             }
 
         }
@@ -309,6 +366,8 @@ public class UndoableObjects implements java.io.Serializable
             }
         }
         deleted_objects_stack.remove(deleted_objects_stack_size - 1);
+        // the changed nodes of the higher levels move down together with their level
+        curr_changed_nodes_stack.remove(stack_level - 1);
         --stack_level;
         return true;
     }
@@ -335,6 +394,7 @@ public class UndoableObjects implements java.io.Serializable
             old_node.redo_object = curr_node;
             curr_node.undo_object = old_node;
             curr_node.level = this.stack_level;
+            record_node(curr_node);
             return;
         }
     }
@@ -354,20 +414,114 @@ public class UndoableObjects implements java.io.Serializable
         {
             deleted_objects_stack.remove(i);
         }
-        Iterator<UndoableObjectNode> it = objects.values().iterator();
+        // remove the objects inserted or changed on the undone levels
+        Vector<Set<UndoableObjectNode>> curr_changed_nodes_stack = get_changed_nodes_stack();
+        for (int i = curr_changed_nodes_stack.size() - 1; i >= this.stack_level; --i)
+        {
+            for (UndoableObjectNode curr_node : curr_changed_nodes_stack.elementAt(i))
+            {
+                if (curr_node.level > this.stack_level)
+                {
+                    objects.remove(curr_node.object, curr_node);
+                }
+            }
+            curr_changed_nodes_stack.remove(i);
+        }
+        // The redo objects of the nodes in the map belong to the undone levels.
+        // Nodes restored by undo may have a lower level than the stack, their redo objects must be removed too.
+        for (UndoableObjectNode curr_node : redo_nodes)
+        {
+            if (objects.get(curr_node.object) == curr_node)
+            {
+                curr_node.redo_object = null;
+            }
+        }
+        redo_nodes.clear();
+    }
+
+    /**
+     * Returns the nodes in the map, which were inserted or changed on the undo levels from p_from_level
+     * to p_to_level, sorted in the order of the map. If p_with_redo_nodes, the nodes in the map
+     * with a redo object are added.
+     */
+    private Collection<UndoableObjectNode> changed_nodes(int p_from_level, int p_to_level, boolean p_with_redo_nodes)
+    {
+        TreeMap<Storable, UndoableObjectNode> result = new TreeMap<Storable, UndoableObjectNode>();
+        Vector<Set<UndoableObjectNode>> curr_changed_nodes_stack = get_changed_nodes_stack();
+        for (int i = p_from_level; i <= p_to_level; ++i)
+        {
+            add_nodes_in_map(curr_changed_nodes_stack.elementAt(i - 1), result);
+        }
+        if (p_with_redo_nodes)
+        {
+            add_nodes_in_map(redo_nodes, result);
+        }
+        return result.values();
+    }
+
+    /**
+     * Adds the nodes of p_nodes, which are contained in the map, to p_result
+     * and removes the other nodes from p_nodes.
+     */
+    private void add_nodes_in_map(Set<UndoableObjectNode> p_nodes, TreeMap<Storable, UndoableObjectNode> p_result)
+    {
+        Iterator<UndoableObjectNode> it = p_nodes.iterator();
         while (it.hasNext())
         {
             UndoableObjectNode curr_node = it.next();
-            if (curr_node.level > this.stack_level)
+            if (objects.get(curr_node.object) == curr_node)
+            {
+                p_result.put(curr_node.object, curr_node);
+            }
+            else
             {
                 it.remove();
             }
-            else if (curr_node.level == this.stack_level)
+        }
+    }
+
+    /**
+     * Records p_node, which was put into the map or got a new level, in the changed nodes of its level.
+     */
+    private void record_node(UndoableObjectNode p_node)
+    {
+        Vector<Set<UndoableObjectNode>> curr_changed_nodes_stack = get_changed_nodes_stack();
+        if (p_node.level > 0)
+        {
+            // An undo object may have a level above the stack after popping snapshots.
+            while (curr_changed_nodes_stack.size() < p_node.level)
             {
-                curr_node.redo_object = null;
+                curr_changed_nodes_stack.add(new HashSet<UndoableObjectNode>());
             }
+            curr_changed_nodes_stack.elementAt(p_node.level - 1).add(p_node);
+        }
+        if (p_node.redo_object != null)
+        {
+            redo_nodes.add(p_node);
         }
     }
+
+    /**
+     * Returns the changed nodes on each undo level.
+     * After deserialization they are collected once from the map.
+     */
+    private Vector<Set<UndoableObjectNode>> get_changed_nodes_stack()
+    {
+        if (changed_nodes_stack == null)
+        {
+            changed_nodes_stack = new Vector<Set<UndoableObjectNode>>();
+            for (int i = 0; i < deleted_objects_stack.size(); ++i)
+            {
+                changed_nodes_stack.add(new HashSet<UndoableObjectNode>());
+            }
+            redo_nodes = new HashSet<UndoableObjectNode>();
+            for (UndoableObjectNode curr_node : objects.values())
+            {
+                record_node(curr_node);
+            }
+        }
+        return changed_nodes_stack;
+    }
     /** The entries of this map are of type UnduableObject, the keys of type UndoableObjects.Storable. */
     private ConcurrentMap<Storable, UndoableObjectNode> objects;
     /**
@@ -380,6 +534,13 @@ public class UndoableObjects implements java.io.Serializable
      */
     private Vector<Collection<UndoableObjectNode>> deleted_objects_stack;
     private boolean redo_possible = false;
+    /**
+     * The nodes in the map, which were inserted or changed on each undo level.
+     * May contain nodes, which are no longer in the map or have another level.
+     */
+    private transient Vector<Set<UndoableObjectNode>> changed_nodes_stack;
+    /** Contains the nodes in the map with a redo object. */
+    private transient Set<UndoableObjectNode> redo_nodes;
 
     /**
      * Conditiom for an Object to be stored in an UndoableObjects database.
@@ -43,6 +43,8 @@ import org.thehellnet.tools.freerouting.board.Item;
 import org.thehellnet.tools.freerouting.board.PolylineTrace;
 import org.thehellnet.tools.freerouting.board.FixedState;
 import org.thehellnet.tools.freerouting.board.ItemSelectionFilter;
+import org.thehellnet.tools.freerouting.board.BinaryBoardFile;
+import org.thehellnet.tools.freerouting.board.BoardObserverAdaptor;
 
 import org.thehellnet.tools.freerouting.boardgraphics.GraphicsContext;
 import org.thehellnet.tools.freerouting.board.CoordinateTransform;
@@ -74,6 +76,29 @@ public class BoardHandling
         this.resources = java.util.ResourceBundle.getBundle("interactive/BoardHandling", p_locale);
     }
 
+    /**
+     * Creates a new BoardHandling without a graphical user interface,
+     * for example to run the batch autorouter on a server.
+     * No graphics context is created for the org.thehellnet.tools.freerouting.board and all screen messages are ignored.
+     */
+    public BoardHandling(java.util.Locale p_locale)
+    {
+        this.locale = p_locale;
+        this.panel = null;
+        this.screen_messages = new ScreenMessages(p_locale);
+        this.logfile = new Logfile();
+        this.set_interactive_state(SelectMenuState.get_instance(this, logfile));
+        this.resources = java.util.ResourceBundle.getBundle("interactive/BoardHandling", p_locale);
+    }
+
+    /**
+     * Returns true, if this org.thehellnet.tools.freerouting.board handling has no graphical user interface.
+     */
+    public boolean is_headless()
+    {
+        return this.panel == null;
+    }
+
     /**
      * Sets the org.thehellnet.tools.freerouting.board to read only for example when running a seperate action thread
      * to avoid unsynchronized change of the org.thehellnet.tools.freerouting.board.
@@ -347,6 +372,11 @@ public class BoardHandling
         screen_messages.set_layer(curr_layer.name);
         settings.layer = p_layer_no;
 
+        if (this.is_headless())
+        {
+            return;
+        }
+
         // Change the selected layer in the select parameter window.
         int signal_layer_no = board.layer_structure.get_signal_layer_no(curr_layer);
         if (!this.board_is_read_only)
@@ -615,6 +645,11 @@ public class BoardHandling
         this.coordinate_transform = new CoordinateTransform(1, p_board_communication.unit, unit_factor, p_board_communication.unit);
         this.settings = new Settings(this.board, this.logfile);
 
+        if (this.is_headless())
+        {
+            return;
+        }
+
         // create a graphics context for the org.thehellnet.tools.freerouting.board
         Dimension panel_size = panel.getPreferredSize();
         graphics_context = new GraphicsContext(p_bounding_box, panel_size, p_layer_structure, this.locale);
@@ -659,6 +694,10 @@ public class BoardHandling
      */
     public void repaint()
     {
+        if (this.is_headless())
+        {
+            return;
+        }
         if (this.paint_immediately)
         {
             final Rectangle MAX_RECTAMGLE = new Rectangle(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
@@ -675,6 +714,10 @@ public class BoardHandling
      */
     public void repaint(Rectangle p_rect)
     {
+        if (this.is_headless())
+        {
+            return;
+        }
         if (this.paint_immediately)
         {
             panel.paintImmediately(p_rect);
@@ -721,7 +764,8 @@ public class BoardHandling
         {
             return;
         }
-        board.draw(p_graphics, graphics_context);
+        boolean board_changing = interactive_action_thread != null && interactive_action_thread.isAlive();
+        board_renderer.draw(p_graphics, board, graphics_context, board_changing);
 
         if (ratsnest != null)
         {
@@ -1047,7 +1091,15 @@ public class BoardHandling
     {
         try
         {
-            board = (RoutingBoard) p_design.readObject();
+            try
+            {
+                board = (RoutingBoard) p_design.readObject();
+            }
+            catch (java.io.OptionalDataException e)
+            {
+                // The org.thehellnet.tools.freerouting.board is stored in binary format and not as serialized object.
+                board = BinaryBoardFile.read(p_design, new BoardObserverAdaptor(), p_test_level);
+            }
             settings = (Settings) p_design.readObject();
             settings.set_logfile(this.logfile);
             coordinate_transform = (CoordinateTransform) p_design.readObject();
@@ -1092,7 +1144,7 @@ public class BoardHandling
         {
             this.board.reduce_nets_of_route_items();
             this.set_layer(0);
-            for (int i = 0; i < board.get_layer_count(); ++i)
+            for (int i = 0; i < board.get_layer_count() && graphics_context != null; ++i)
             {
                 if (!settings.autoroute_settings.get_layer_active(i))
                 {
@@ -1157,7 +1209,7 @@ public class BoardHandling
         boolean result = true;
         try
         {
-            p_object_stream.writeObject(board);
+            BinaryBoardFile.write(board, p_object_stream);
             p_object_stream.writeObject(settings);
             p_object_stream.writeObject(coordinate_transform);
             p_object_stream.writeObject(graphics_context);
@@ -1734,7 +1786,7 @@ public class BoardHandling
         if (p_state != null && p_state != interactive_state)
         {
             this.interactive_state = p_state;
-            if (!this.board_is_read_only)
+            if (!(this.board_is_read_only || this.is_headless()))
             {
                 p_state.set_toolbar();
                 this.panel.board_frame.set_context_sensitive_help(this.panel, p_state.get_help_id());
@@ -1796,6 +1848,8 @@ public class BoardHandling
     private ClearanceViolations clearance_violations = null;
     /** The org.thehellnet.tools.freerouting.board database used in this org.thehellnet.tools.freerouting.interactive handling. */
     private RoutingBoard board = null;
+    /** Draws the org.thehellnet.tools.freerouting.board items from cached tiles of the panel. */
+    private final BoardRenderer board_renderer = new BoardRenderer();
     /** The graphical panel used for displaying the org.thehellnet.tools.freerouting.board. */
     private final org.thehellnet.tools.freerouting.gui.BoardPanel panel;
     /**
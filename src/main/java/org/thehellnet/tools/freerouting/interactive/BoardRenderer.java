@@ -0,0 +1,239 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * BoardRenderer.java
+ */
+
+package org.thehellnet.tools.freerouting.interactive;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.thehellnet.tools.freerouting.planar.IntBox;
+
+import org.thehellnet.tools.freerouting.board.BasicBoard;
+import org.thehellnet.tools.freerouting.boardgraphics.CoordinateTransform;
+import org.thehellnet.tools.freerouting.boardgraphics.GraphicsContext;
+
+/**
+ * Draws the items of the org.thehellnet.tools.freerouting.board on the screen from rasterized tiles of the org.thehellnet.tools.freerouting.board panel.
+ * A tile is drawn only once with the items in its region and reused in later paints, until
+ * the graphics update box of the org.thehellnet.tools.freerouting.board intersects the tile, or the zoom, the layer visibility
+ * or the colors of the graphics context change.
+ */
+class BoardRenderer
+{
+
+    /**
+     * Draws the items of p_board inside the clip rectangle of p_graphics.
+     * If p_board_changing, another thread changes p_board at the same time.
+     * Then the items overlapping the clip rectangle are read from the item list of p_board without using its search tree,
+     * and no tiles are cached, because they may contain a half changed org.thehellnet.tools.freerouting.board.
+     */
+    void draw(Graphics p_graphics, BasicBoard p_board, GraphicsContext p_graphics_context, boolean p_board_changing)
+    {
+        if (p_board_changing)
+        {
+            // The tiles are drawn again after the change is finished.
+            this.board = null;
+            this.tiles.clear();
+            p_board.draw_all_items(p_graphics, p_graphics_context);
+            return;
+        }
+        Rectangle clip_rect = p_graphics.getClipBounds();
+        if (clip_rect == null || clip_rect.isEmpty())
+        {
+            p_board.draw(p_graphics, p_graphics_context);
+            return;
+        }
+        if (p_board != this.board)
+        {
+            this.board = p_board;
+            p_board.set_item_changes_in_update_box(true);
+            p_board.take_graphics_update_box();
+            this.tiles.clear();
+        }
+        List<Object> new_display_state = get_display_state(p_graphics_context);
+        if (!new_display_state.equals(this.display_state))
+        {
+            this.display_state = new_display_state;
+            p_board.take_graphics_update_box();
+            this.tiles.clear();
+        }
+        else
+        {
+            IntBox update_box = p_board.take_graphics_update_box();
+            if (!update_box.is_empty())
+            {
+                IntBox offset_box = update_box.offset(p_board.get_max_trace_half_width());
+                Rectangle update_rect = p_graphics_context.coordinate_transform.board_to_screen(offset_box);
+                update_rect.grow(UPDATE_MARGIN_PIXELS, UPDATE_MARGIN_PIXELS);
+                invalidate(update_rect);
+            }
+        }
+
+        int first_column = Math.floorDiv(clip_rect.x, TILE_SIZE);
+        int last_column = Math.floorDiv(clip_rect.x + clip_rect.width - 1, TILE_SIZE);
+        int first_row = Math.floorDiv(clip_rect.y, TILE_SIZE);
+        int last_row = Math.floorDiv(clip_rect.y + clip_rect.height - 1, TILE_SIZE);
+        for (int row = first_row; row <= last_row; ++row)
+        {
+            for (int column = first_column; column <= last_column; ++column)
+            {
+                Long curr_key = tile_key(column, row);
+                BufferedImage curr_tile = this.tiles.get(curr_key);
+                if (curr_tile == null)
+                {
+                    curr_tile = draw_tile(column, row, p_board, p_graphics_context);
+                    this.tiles.put(curr_key, curr_tile);
+                }
+                p_graphics.drawImage(curr_tile, column * TILE_SIZE, row * TILE_SIZE, null);
+            }
+        }
+    }
+
+    /**
+     * Removes the cached tiles intersecting p_rect.
+     */
+    private void invalidate(Rectangle p_rect)
+    {
+        int first_column = Math.floorDiv(p_rect.x, TILE_SIZE);
+        int last_column = Math.floorDiv(p_rect.x + p_rect.width, TILE_SIZE);
+        int first_row = Math.floorDiv(p_rect.y, TILE_SIZE);
+        int last_row = Math.floorDiv(p_rect.y + p_rect.height, TILE_SIZE);
+        if ((long) (last_column - first_column + 1) * (last_row - first_row + 1) > this.tiles.size())
+        {
+            Iterator<Long> it = this.tiles.keySet().iterator();
+            while (it.hasNext())
+            {
+                long curr_key = it.next();
+                int column = (int) (curr_key >> 32);
+                int row = (int) curr_key;
+                if (column >= first_column && column <= last_column && row >= first_row && row <= last_row)
+                {
+                    it.remove();
+                }
+            }
+            return;
+        }
+        for (int row = first_row; row <= last_row; ++row)
+        {
+            for (int column = first_column; column <= last_column; ++column)
+            {
+                this.tiles.remove(tile_key(column, row));
+            }
+        }
+    }
+
+    /**
+     * Draws the items of p_board in the tile with the input column and row into a new image.
+     */
+    private static BufferedImage draw_tile(int p_column, int p_row, BasicBoard p_board, GraphicsContext p_graphics_context)
+    {
+        BufferedImage result = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D tile_graphics = result.createGraphics();
+        tile_graphics.setColor(p_graphics_context.get_background_color());
+        tile_graphics.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+        tile_graphics.translate(-p_column * TILE_SIZE, -p_row * TILE_SIZE);
+        tile_graphics.setClip(p_column * TILE_SIZE, p_row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+        p_board.draw(tile_graphics, p_graphics_context);
+        tile_graphics.dispose();
+        return result;
+    }
+
+    private static Long tile_key(int p_column, int p_row)
+    {
+        return ((long) p_column << 32) | (p_row & 0xffffffffL);
+    }
+
+    /**
+     * Returns the values of p_graphics_context, which influence the drawing of the org.thehellnet.tools.freerouting.board items.
+     * The cached tiles are valid only as long as these values do not change.
+     */
+    private static List<Object> get_display_state(GraphicsContext p_graphics_context)
+    {
+        List<Object> result = new ArrayList<Object>();
+        CoordinateTransform coordinate_transform = p_graphics_context.coordinate_transform;
+        result.add(coordinate_transform);
+        result.add(coordinate_transform.get_rotation());
+        result.add(coordinate_transform.is_mirror_left_right());
+        result.add(coordinate_transform.is_mirror_top_bottom());
+        for (int i = 0; i < p_graphics_context.layer_count(); ++i)
+        {
+            result.add(p_graphics_context.get_layer_visibility(i));
+        }
+        result.add(p_graphics_context.get_background_color());
+        result.add(p_graphics_context.get_outline_color());
+        result.add(p_graphics_context.get_component_color(true));
+        result.add(p_graphics_context.get_component_color(false));
+        result.add(p_graphics_context.get_length_matching_area_color());
+        add_colors(p_graphics_context.get_trace_colors(false), result);
+        add_colors(p_graphics_context.get_trace_colors(true), result);
+        add_colors(p_graphics_context.get_via_colors(false), result);
+        add_colors(p_graphics_context.get_via_colors(true), result);
+        add_colors(p_graphics_context.get_pin_colors(), result);
+        add_colors(p_graphics_context.get_conduction_colors(), result);
+        add_colors(p_graphics_context.get_obstacle_colors(), result);
+        add_colors(p_graphics_context.get_via_obstacle_colors(), result);
+        add_colors(p_graphics_context.get_place_obstacle_colors(), result);
+        result.add(p_graphics_context.get_trace_color_intensity());
+        result.add(p_graphics_context.get_via_color_intensity());
+        result.add(p_graphics_context.get_pin_color_intensity());
+        result.add(p_graphics_context.get_conduction_color_intensity());
+        result.add(p_graphics_context.get_obstacle_color_intensity());
+        result.add(p_graphics_context.get_via_obstacle_color_intensity());
+        result.add(p_graphics_context.get_place_obstacle_color_intensity());
+        result.add(p_graphics_context.get_component_outline_color_intensity());
+        result.add(p_graphics_context.get_length_matching_area_color_intensity());
+        return result;
+    }
+
+    private static void add_colors(Color[] p_colors, List<Object> p_list)
+    {
+        p_list.addAll(Arrays.asList(p_colors));
+    }
+
+    /** The width and height of a tile in pixels */
+    private static final int TILE_SIZE = 256;
+
+    /** The maximal number of cached tiles, the least recently used tiles are removed first. */
+    private static final int MAX_TILE_COUNT = 128;
+
+    /** The margin in pixels around the changed region, for line ends and antialiasing. */
+    private static final int UPDATE_MARGIN_PIXELS = 4;
+
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(2 * MAX_TILE_COUNT, 0.75f, true)
+    {
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> p_eldest)
+        {
+            return size() > MAX_TILE_COUNT;
+        }
+    };
+
+    /** The org.thehellnet.tools.freerouting.board of the cached tiles */
+    private BasicBoard board = null;
+
+    /** The values of the graphics context, with which the cached tiles were drawn */
+    private List<Object> display_state = null;
+}
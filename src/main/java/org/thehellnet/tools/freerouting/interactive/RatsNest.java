@@ -79,6 +79,7 @@ public class RatsNest
         {
             net_incompletes[i] = new NetIncompletes(i + 1, net_item_lists.get(i), p_board, p_locale);
             is_filtered[i] = false;
+            this.incomplete_count += net_incompletes[i].count();
         }
     }
     
@@ -90,7 +91,19 @@ public class RatsNest
         if (p_net_no >= 1 && p_net_no <= net_incompletes.length)
         {
             Collection<Item> item_list = p_board.get_connectable_items(p_net_no);
-            net_incompletes[p_net_no - 1] = new NetIncompletes(p_net_no, item_list, p_board, locale);
+            set_net_incompletes(p_net_no, new NetIncompletes(p_net_no, item_list, p_board, locale));
+        }
+    }
+    
+    /**
+     * Recalculates the incomplete connections for the nets in p_net_nos.
+     * Used to keep the ratsnest up to date after changes of the org.thehellnet.tools.freerouting.board, which affected only a few nets.
+     */
+    public void recalculate(Collection<Integer> p_net_nos, BasicBoard p_board)
+    {
+        for (Integer curr_net_no : p_net_nos)
+        {
+            recalculate(curr_net_no, p_board);
         }
     }
     
@@ -103,18 +116,23 @@ public class RatsNest
         {
             // copy p_item_list, because it will be changed inside the constructor of NetIncompletes
             Collection<Item> item_list = new LinkedList<Item>(p_item_list);
-            net_incompletes[p_net_no - 1] = new NetIncompletes(p_net_no, item_list, p_board, locale);
+            set_net_incompletes(p_net_no, new NetIncompletes(p_net_no, item_list, p_board, locale));
         }
     }
     
+    /**
+     * Replaces the incompletes of the net with number p_net_no and updates the total incomplete count.
+     */
+    private void set_net_incompletes(int p_net_no, NetIncompletes p_net_incompletes)
+    {
+        int index = p_net_no - 1;
+        this.incomplete_count += p_net_incompletes.count() - net_incompletes[index].count();
+        net_incompletes[index] = p_net_incompletes;
+    }
+    
     public int incomplete_count()
     {
-        int result = 0;
-        for (int i = 0; i < net_incompletes.length; ++i)
-        {
-            result +=  net_incompletes[i].count();
-        }
-        return result;
+        return this.incomplete_count;
     }
     
     public int incomplete_count(int p_net_no)
@@ -235,6 +253,8 @@ public class RatsNest
         
     }
     private final NetIncompletes [] net_incompletes;
+    /** The sum of the incomplete counts of all nets */
+    private int incomplete_count = 0;
     private final boolean[] is_filtered;
     public boolean hidden = false;
     private final java.util.Locale locale;
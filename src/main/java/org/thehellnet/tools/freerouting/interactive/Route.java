@@ -41,6 +41,7 @@ import org.thehellnet.tools.freerouting.rules.Net;
 
 import org.thehellnet.tools.freerouting.board.AngleRestriction;
 import org.thehellnet.tools.freerouting.board.Trace;
+import org.thehellnet.tools.freerouting.board.CalcFromSide;
 import org.thehellnet.tools.freerouting.board.ConductionArea;
 import org.thehellnet.tools.freerouting.board.DrillItem;
 import org.thehellnet.tools.freerouting.board.Item;
@@ -277,6 +278,8 @@ public class Route
             }
         }
         boolean result = true;
+        // no check before inserting in stitch mode like for the trace segments
+        boolean with_via_check = !is_stitch_mode && this.board.get_test_level() == TestLevel.RELEASE_VERSION;
         int min_layer = Math.min(this.layer, p_to_layer);
         int max_layer = Math.max(this.layer, p_to_layer);
         boolean via_found = false;
@@ -288,11 +291,25 @@ public class Route
             {
                 continue;
             }
+            CalcFromSide[] check_result = null;
+            if (with_via_check)
+            {
+                check_result = board.check_forced_via(curr_via_info, this.prev_corner, this.net_no_arr,
+                        max_shove_trace_recursion_depth, 0);
+                if (check_result == null)
+                {
+                    // the via is not possible, so that inserting and undoing it is not necessary
+                    set_shove_failing_obstacle(board.get_shove_failing_obstacle());
+                    result = false;
+                    continue;
+                }
+            }
             // make the current situation restorable by undo
             board.generate_snapshot();
+            // the from sides of the check are reused in the insertion
             result = board.forced_via(curr_via_info, this.prev_corner, this.net_no_arr, clearance_class,
                     pen_half_width_arr, max_shove_trace_recursion_depth,
-                    0, this.trace_tidy_width, this.pull_tight_accuracy, pull_tight_time_limit);
+                    0, this.trace_tidy_width, this.pull_tight_accuracy, pull_tight_time_limit, check_result);
             if (result)
             {
                 via_found = true;
@@ -48,6 +48,26 @@ public class ScreenMessages
         this.number_format.setMaximumFractionDigits(4);
     }
     
+    /**
+     * Creates a new instance of ScreenMessageFields without any text fields,
+     * used when the org.thehellnet.tools.freerouting.board is handled without a graphical user interface.
+     * All messages are ignored.
+     */
+    public ScreenMessages(java.util.Locale p_locale)
+    {
+        resources = java.util.ResourceBundle.getBundle("interactive/ScreenMessages", p_locale);
+        locale = p_locale;
+        active_layer_string = resources.getString("current_layer") + " ";
+        target_layer_string = resources.getString("target_layer") + " ";
+        status_field = null;
+        add_field = null;
+        layer_field = null;
+        mouse_position = null;
+        
+        this.number_format =  java.text.NumberFormat.getInstance(p_locale);
+        this.number_format.setMaximumFractionDigits(4);
+    }
+    
     /**
      * Sets the message in the status field.
      */
@@ -55,7 +75,7 @@ public class ScreenMessages
     {
         if (!this.write_protected)
         {
-            status_field.setText(p_message);
+            set_text(status_field, p_message);
         }
     }
     
@@ -66,7 +86,7 @@ public class ScreenMessages
     {
         if (!this.write_protected)
         {
-            layer_field.setText(active_layer_string + p_layer_name);
+            set_text(layer_field, active_layer_string + p_layer_name);
         }
     }
     
@@ -75,8 +95,8 @@ public class ScreenMessages
         Integer found = p_found;
         Integer failed = p_not_found;
         Integer items_to_go = p_items_to_go;
-        add_field.setText(resources.getString("to_route") + " " + items_to_go.toString());
-        layer_field.setText(resources.getString("found") + " " + found.toString() + ", "
+        set_text(add_field, resources.getString("to_route") + " " + items_to_go.toString());
+        set_text(layer_field, resources.getString("found") + " " + found.toString() + ", "
                 + resources.getString("failed") + " " + failed.toString());
     }
 
@@ -86,9 +106,9 @@ public class ScreenMessages
         Integer routed = p_routed;
         Integer items_to_go = p_items_to_go;
         Integer failed = p_failed;
-        add_field.setText( resources.getString("to_route") + " " + items_to_go.toString() + ", "
+        set_text(add_field, resources.getString("to_route") + " " + items_to_go.toString() + ", "
                 + resources.getString("routed") + " " + routed.toString() + ", ");
-        layer_field.setText(resources.getString("ripped") + " " + ripped.toString() + ", "
+        set_text(layer_field, resources.getString("ripped") + " " + ripped.toString() + ", "
                 + resources.getString("failed") + " " + failed.toString());
     }
     
@@ -96,16 +116,16 @@ public class ScreenMessages
     {
         Integer components_to_go = p_components_to_go;
         Integer pass_no = new  Integer(p_pass_no);
-        add_field.setText(resources.getString("fanout_pass") + " " +  pass_no.toString() + ": ");
-        layer_field.setText(resources.getString("still") + " " 
+        set_text(add_field, resources.getString("fanout_pass") + " " +  pass_no.toString() + ": ");
+        set_text(layer_field, resources.getString("still") + " " 
                 + components_to_go.toString() + " " + resources.getString("components"));
     }
     
     public void set_post_route_info( int p_via_count, double p_trace_length)
     {
         Integer via_count = p_via_count;
-        add_field.setText(resources.getString("via_count") + " " + via_count.toString());
-        layer_field.setText(resources.getString("trace_length") + " " + this.number_format.format(p_trace_length));
+        set_text(add_field, resources.getString("via_count") + " " + via_count.toString());
+        set_text(layer_field, resources.getString("trace_length") + " " + this.number_format.format(p_trace_length));
     }
     
     /**
@@ -116,7 +136,7 @@ public class ScreenMessages
     {
         if (!(p_layer_name.equals(prev_target_layer_name) || this.write_protected))
         {
-            add_field.setText(target_layer_string +  p_layer_name);
+            set_text(add_field, target_layer_string +  p_layer_name);
             prev_target_layer_name = p_layer_name;
         }
     }
@@ -138,7 +158,7 @@ public class ScreenMessages
     {
         if (!this.write_protected)
         {
-            add_field.setText(empty_string);
+            set_text(add_field, empty_string);
             prev_target_layer_name = empty_string;
         }
     }
@@ -150,9 +170,9 @@ public class ScreenMessages
     {
         if (!this.write_protected)
         {
-            status_field.setText(empty_string);
+            set_text(status_field, empty_string);
             clear_add_field();
-            layer_field.setText(empty_string);
+            set_text(layer_field, empty_string);
         }
     }
     
@@ -164,6 +184,17 @@ public class ScreenMessages
         write_protected = p_value;
     }
     
+    /**
+     * Sets p_text into p_field, if p_field exists.
+     */
+    private static void set_text(JLabel p_field, String p_text)
+    {
+        if (p_field != null)
+        {
+            p_field.setText(p_text);
+        }
+    }
+    
     private final java.util.ResourceBundle resources;
     private final java.util.Locale locale;
     private final String active_layer_string;
@@ -20,6 +20,8 @@
 
 package org.thehellnet.tools.freerouting.library;
 
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.Vector;
 
 /**
@@ -35,6 +37,10 @@ public class LogicalParts implements java.io.Serializable
         java.util.Arrays.sort(p_part_pin_arr);
         LogicalPart new_part = new LogicalPart(p_name, part_arr.size() + 1, p_part_pin_arr);
         part_arr.add(new_part);
+        if (this.name_index != null && !this.name_index.containsKey(new_part.name))
+        {
+            this.name_index.put(new_part.name, new_part);
+        }
         return new_part;
     }
     
@@ -43,14 +49,19 @@ public class LogicalParts implements java.io.Serializable
      */
     public LogicalPart get(String p_name)
     {
-        for (LogicalPart curr_part : this.part_arr)
+        if (this.name_index == null)
         {
-            if (curr_part != null && curr_part.name.compareToIgnoreCase(p_name) == 0)
+            // create the index of the part names, the first part with a name is found
+            this.name_index = new TreeMap<String, LogicalPart>(String.CASE_INSENSITIVE_ORDER);
+            for (LogicalPart curr_part : this.part_arr)
             {
-                return curr_part;
+                if (curr_part != null && !this.name_index.containsKey(curr_part.name))
+                {
+                    this.name_index.put(curr_part.name, curr_part);
+                }
             }
         }
-        return null;
+        return this.name_index.get(p_name);
     }
     
     /**
@@ -76,4 +87,6 @@ public class LogicalParts implements java.io.Serializable
     
     /** The array of logical parts */
     private Vector<LogicalPart> part_arr = new Vector<LogicalPart>();
+    /** The parts sorted by their names for fast lookup, created at the first use. */
+    private transient Map<String, LogicalPart> name_index = null;
 }
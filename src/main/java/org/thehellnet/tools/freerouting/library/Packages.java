@@ -20,7 +20,11 @@
 
 package org.thehellnet.tools.freerouting.library;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.Vector;
 
 import org.thehellnet.tools.freerouting.planar.Shape;
@@ -48,19 +52,21 @@ public class Packages implements java.io.Serializable
      */
     public Package get(String p_name, boolean p_is_front)
     {
-        Iterator<Package> it = package_arr.iterator();
+        Collection<Package> package_list = get_name_index().get(p_name);
+        if (package_list == null)
+        {
+            return null;
+        }
+        Iterator<Package> it = package_list.iterator();
         Package other_side_package = null;
         while(it.hasNext())
         {
             Package curr_package = it.next();
-            if (curr_package != null && curr_package.name.compareToIgnoreCase(p_name) == 0)
+            if (curr_package.is_front == p_is_front)
             {
-                if (curr_package.is_front == p_is_front)
-                {
-                    return curr_package;
-                }
-                other_side_package = curr_package;
+                return curr_package;
             }
+            other_side_package = curr_package;
         }
         return other_side_package;
     }
@@ -97,6 +103,10 @@ public class Packages implements java.io.Serializable
         Package new_package = new Package(p_name, package_arr.size() + 1, p_pin_arr, p_outline,
                 p_keepout_arr, p_via_keepout_arr, p_place_keepout_arr, p_is_front, this);
         package_arr.add(new_package);
+        if (this.name_index != null)
+        {
+            add_to_name_index(new_package);
+        }
         return new_package;
     }
     
@@ -112,8 +122,41 @@ public class Packages implements java.io.Serializable
                 new Package.Keepout [0], true);
     }
     
+    /**
+     * Returns the map from the package names to the packages with this name in the order of their numbers.
+     * The names are compared ignoring case. The map is created at the first call.
+     */
+    private Map<String, Collection<Package>> get_name_index()
+    {
+        if (this.name_index == null)
+        {
+            this.name_index = new TreeMap<String, Collection<Package>>(String.CASE_INSENSITIVE_ORDER);
+            for (Package curr_package : package_arr)
+            {
+                if (curr_package != null)
+                {
+                    add_to_name_index(curr_package);
+                }
+            }
+        }
+        return this.name_index;
+    }
+
+    private void add_to_name_index(Package p_package)
+    {
+        Collection<Package> package_list = this.name_index.get(p_package.name);
+        if (package_list == null)
+        {
+            package_list = new LinkedList<Package>();
+            this.name_index.put(p_package.name, package_list);
+        }
+        package_list.add(p_package);
+    }
+    
     /** The array of packages in this object */
     private Vector<Package> package_arr = new Vector<Package>();
+    /** The packages sorted by their names for fast lookup, created at the first use. */
+    private transient Map<String, Collection<Package>> name_index = null;
     
     final Padstacks padstack_list;
 }
@@ -21,6 +21,8 @@
 package org.thehellnet.tools.freerouting.library;
 
 import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.Vector;
 
 import org.thehellnet.tools.freerouting.planar.ConvexShape;
@@ -45,16 +47,21 @@ public class Padstacks implements java.io.Serializable
      */
     public Padstack get(String p_name)
     {
-        Iterator<Padstack> it = padstack_arr.iterator();
-        while(it.hasNext())
+        if (this.name_index == null)
         {
-            Padstack curr_padstack = it.next();
-            if (curr_padstack != null && curr_padstack.name.compareToIgnoreCase(p_name) == 0)
+            // create the index of the padstack names, the first padstack with a name is found
+            this.name_index = new TreeMap<String, Padstack>(String.CASE_INSENSITIVE_ORDER);
+            Iterator<Padstack> it = padstack_arr.iterator();
+            while(it.hasNext())
             {
-                return curr_padstack;
+                Padstack curr_padstack = it.next();
+                if (curr_padstack != null && !this.name_index.containsKey(curr_padstack.name))
+                {
+                    this.name_index.put(curr_padstack.name, curr_padstack);
+                }
             }
         }
-        return null;
+        return this.name_index.get(p_name);
     }
     
     /**
@@ -95,6 +102,10 @@ public class Padstacks implements java.io.Serializable
         Padstack new_padstack =
                 new Padstack(p_name, padstack_arr.size() + 1, p_shapes, p_drill_allowed, p_placed_absolute, this);
         padstack_arr.add(new_padstack);
+        if (this.name_index != null && !this.name_index.containsKey(new_padstack.name))
+        {
+            this.name_index.put(new_padstack.name, new_padstack);
+        }
         return new_padstack;
     }
     
@@ -128,6 +139,8 @@ public class Padstacks implements java.io.Serializable
     
     /** The array of Padstacks in this object */
     private Vector<Padstack> padstack_arr;
+    /** The padstacks sorted by their names for fast lookup, created at the first use. */
+    private transient Map<String, Padstack> name_index = null;
     
     /** The layer structure of each padstack. */
     public final org.thehellnet.tools.freerouting.board.LayerStructure board_layer_structure;
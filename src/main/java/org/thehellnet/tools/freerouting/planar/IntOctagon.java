@@ -610,9 +610,65 @@ public class IntOctagon extends RegularTileShape implements java.io.Serializable
     
     public boolean intersects(Shape p_other)
     {
+        if (p_other instanceof IntOctagon)
+        {
+            // avoid the double dispatch in the frequent case of 2 octagons
+            return intersects((IntOctagon) p_other);
+        }
         return p_other.intersects(this);
     }
     
+    /**
+     * Returns true, if p_point is not contained in the inside or the edge of this octagon.
+     * Integer points are tested directly without calculating the border lines.
+     */
+    public boolean is_outside(Point p_point)
+    {
+        if (!(p_point instanceof IntPoint))
+        {
+            return super.is_outside(p_point);
+        }
+        IntPoint curr_point = (IntPoint) p_point;
+        return is_outside(curr_point.x, curr_point.y);
+    }
+    
+    /**
+     * Returns true, if the point (p_x, p_y) is not contained in the inside or the edge of this octagon.
+     */
+    private boolean is_outside(int p_x, int p_y)
+    {
+        int tmp_1 = p_x - p_y;
+        int tmp_2 = p_x + p_y;
+        return lx > p_x | ly > p_y | rx < p_x | uy < p_y
+                | ulx > tmp_1 | lrx < tmp_1 | llx > tmp_2 | urx < tmp_2;
+    }
+    
+    /**
+     * Returns true, if p_other is contained in this octagon.
+     * If p_other is an octagon, its corners are tested without allocating points or border lines.
+     * An empty octagon is contained in every shape.
+     */
+    public boolean contains(TileShape p_other)
+    {
+        if (!(p_other instanceof IntOctagon))
+        {
+            return super.contains(p_other);
+        }
+        IntOctagon other = (IntOctagon) p_other;
+        if (other.is_empty())
+        {
+            return true;
+        }
+        for (int i = 0; i < 8; ++i)
+        {
+            if (is_outside(other.corner_x(i), other.corner_y(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     /**
      * Returns true, if p_point is contained in this octagon.
      * Because of the parameter type FloatPoint, the function may not
@@ -752,101 +808,14 @@ public class IntOctagon extends RegularTileShape implements java.io.Serializable
     
     /**
      * checks, if two normalized Octagons intersect.
+     * The 4 pairs of parallel border lines are compared without branching.
      */
     public boolean intersects(IntOctagon p_other)
     {
-        int is_lx;
-        int is_rx;
-        if (p_other.lx > this.lx)
-        {
-            is_lx = p_other.lx;
-        }
-        else
-        {
-            is_lx =  this.lx;
-        }
-        if (p_other.rx < this.rx)
-        {
-            is_rx = p_other.rx;
-        }
-        else
-        {
-            is_rx =  this.rx;
-        }
-        if (is_lx > is_rx)
-        {
-            return false;
-        }
-        
-        int is_ly;
-        int is_uy;
-        if (p_other.ly > this.ly)
-        {
-            is_ly = p_other.ly;
-        }
-        else
-        {
-            is_ly =  this.ly;
-        }
-        if (p_other.uy < this.uy)
-        {
-            is_uy = p_other.uy;
-        }
-        else
-        {
-            is_uy =  this.uy;
-        }
-        if (is_ly > is_uy)
-        {
-            return false;
-        }
-        
-        int is_llx;
-        int is_urx;
-        if (p_other.llx > this.llx)
-        {
-            is_llx = p_other.llx;
-        }
-        else
-        {
-            is_llx =  this.llx;
-        }
-        if (p_other.urx < this.urx)
-        {
-            is_urx = p_other.urx;
-        }
-        else
-        {
-            is_urx =  this.urx;
-        }
-        if (is_llx > is_urx)
-        {
-            return false;
-        }
-        
-        int is_ulx;
-        int is_lrx;
-        if (p_other.ulx > this.ulx)
-        {
-            is_ulx = p_other.ulx;
-        }
-        else
-        {
-            is_ulx =  this.ulx;
-        }
-        if (p_other.lrx < this.lrx)
-        {
-            is_lrx = p_other.lrx;
-        }
-        else
-        {
-            is_lrx =  this.lrx;
-        }
-        if (is_ulx > is_lrx)
-        {
-            return false;
-        }
-        return true;
+        return Math.max(this.lx, p_other.lx) <= Math.min(this.rx, p_other.rx)
+                & Math.max(this.ly, p_other.ly) <= Math.min(this.uy, p_other.uy)
+                & Math.max(this.llx, p_other.llx) <= Math.min(this.urx, p_other.urx)
+                & Math.max(this.ulx, p_other.ulx) <= Math.min(this.lrx, p_other.lrx);
     }
     
     /**
@@ -854,98 +823,10 @@ public class IntOctagon extends RegularTileShape implements java.io.Serializable
      */
     public boolean overlaps(IntOctagon p_other)
     {
-        int is_lx;
-        int is_rx;
-        if (p_other.lx > this.lx)
-        {
-            is_lx = p_other.lx;
-        }
-        else
-        {
-            is_lx =  this.lx;
-        }
-        if (p_other.rx < this.rx)
-        {
-            is_rx = p_other.rx;
-        }
-        else
-        {
-            is_rx =  this.rx;
-        }
-        if (is_lx >= is_rx)
-        {
-            return false;
-        }
-        
-        int is_ly;
-        int is_uy;
-        if (p_other.ly > this.ly)
-        {
-            is_ly = p_other.ly;
-        }
-        else
-        {
-            is_ly =  this.ly;
-        }
-        if (p_other.uy < this.uy)
-        {
-            is_uy = p_other.uy;
-        }
-        else
-        {
-            is_uy =  this.uy;
-        }
-        if (is_ly >= is_uy)
-        {
-            return false;
-        }
-        
-        int is_llx;
-        int is_urx;
-        if (p_other.llx > this.llx)
-        {
-            is_llx = p_other.llx;
-        }
-        else
-        {
-            is_llx =  this.llx;
-        }
-        if (p_other.urx < this.urx)
-        {
-            is_urx = p_other.urx;
-        }
-        else
-        {
-            is_urx =  this.urx;
-        }
-        if (is_llx >= is_urx)
-        {
-            return false;
-        }
-        
-        int is_ulx;
-        int is_lrx;
-        if (p_other.ulx > this.ulx)
-        {
-            is_ulx = p_other.ulx;
-        }
-        else
-        {
-            is_ulx =  this.ulx;
-        }
-        if (p_other.lrx < this.lrx)
-        {
-            is_lrx = p_other.lrx;
-        }
-        else
-        {
-            is_lrx =  this.lrx;
-        }
-        if (is_ulx >= is_lrx)
-        {
-            return false;
-        }
-        return true;
+        return Math.max(this.lx, p_other.lx) < Math.min(this.rx, p_other.rx)
+                & Math.max(this.ly, p_other.ly) < Math.min(this.uy, p_other.uy)
+                & Math.max(this.llx, p_other.llx) < Math.min(this.urx, p_other.urx)
+                & Math.max(this.ulx, p_other.ulx) < Math.min(this.lrx, p_other.lrx);
     }
     
     public boolean intersects(Simplex p_other)
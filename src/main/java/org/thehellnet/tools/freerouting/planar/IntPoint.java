@@ -22,6 +22,8 @@ package org.thehellnet.tools.freerouting.planar;
 
 import java.math.BigInteger;
 
+import org.thehellnet.tools.freerouting.datastructures.BigIntAux;
+
 /**
  * Implementation of the abstract class Point
  * as a tuple of integers.
@@ -164,12 +166,30 @@ public class IntPoint extends Point implements java.io.Serializable
         // consisting of IntPoints.
         // The general implementation is still missing.
         IntVector v = (IntVector)p_line.b.difference_by(p_line.a);
-        BigInteger vxvx = BigInteger.valueOf((long)v.x * v.x);
-        BigInteger vyvy = BigInteger.valueOf((long)v.y * v.y);
-        BigInteger vxvy = BigInteger.valueOf((long) v.x * v.y);
+        long long_vxvx = (long)v.x * v.x;
+        long long_vyvy = (long)v.y * v.y;
+        long long_vxvy = (long) v.x * v.y;
+        long long_det = ((IntPoint)p_line.a).determinant((IntPoint)p_line.b);
+        long long_denominator = long_vxvx + long_vyvy;
+        if (long_denominator != 0
+                && BigIntAux.product_fits(Math.max(long_vxvx, long_vyvy), Math.max(Math.abs(x), Math.abs(y)), 60)
+                && BigIntAux.product_fits(long_det, Math.max(Math.abs(v.x), Math.abs(v.y)), 60))
+        {
+            // The projection can be calculated exactly with long arithmetic.
+            long long_proj_x = long_vxvx * x + long_vxvy * y + long_det * v.y;
+            long long_proj_y = long_vxvy * x + long_vyvy * y - long_det * v.x;
+            if (long_proj_x % long_denominator == 0 && long_proj_y % long_denominator == 0)
+            {
+                return new IntPoint((int) (long_proj_x / long_denominator), (int) (long_proj_y / long_denominator));
+            }
+            return new RationalPoint(BigInteger.valueOf(long_proj_x), BigInteger.valueOf(long_proj_y),
+                    BigInteger.valueOf(long_denominator));
+        }
+        BigInteger vxvx = BigInteger.valueOf(long_vxvx);
+        BigInteger vyvy = BigInteger.valueOf(long_vyvy);
+        BigInteger vxvy = BigInteger.valueOf(long_vxvy);
         BigInteger denominator = vxvx.add(vyvy);
-        BigInteger det =
-                BigInteger.valueOf(((IntPoint)p_line.a).determinant((IntPoint)p_line.b));
+        BigInteger det = BigInteger.valueOf(long_det);
         BigInteger point_x = BigInteger.valueOf(x);
         BigInteger point_y = BigInteger.valueOf(y);
         
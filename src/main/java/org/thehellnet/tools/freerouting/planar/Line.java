@@ -18,6 +18,7 @@ package org.thehellnet.tools.freerouting.planar;
 
 import java.math.BigInteger;
 
+import org.thehellnet.tools.freerouting.datastructures.BigIntAux;
 import org.thehellnet.tools.freerouting.datastructures.Signum;
 
 /**
@@ -362,11 +363,40 @@ public class Line implements Comparable<Line>, java.io.Serializable
             }
         }
         
-        BigInteger det_1 =
-                BigInteger.valueOf(((IntPoint)a).determinant((IntPoint)b));
-        BigInteger det_2 =
-                BigInteger.valueOf(((IntPoint)p_other.a).determinant((IntPoint)p_other.b));
-        BigInteger det =  BigInteger.valueOf(delta_2.determinant(delta_1));
+        long long_det_1 = ((IntPoint)a).determinant((IntPoint)b);
+        long long_det_2 = ((IntPoint)p_other.a).determinant((IntPoint)p_other.b);
+        long long_det = delta_2.determinant(delta_1);
+        int max_delta_1 = Math.max(Math.abs(delta_1.x), Math.abs(delta_1.y));
+        int max_delta_2 = Math.max(Math.abs(delta_2.x), Math.abs(delta_2.y));
+        if (long_det != 0 && BigIntAux.product_fits(long_det_1, max_delta_2, 62)
+                && BigIntAux.product_fits(long_det_2, max_delta_1, 62))
+        {
+            // The coordinates of the intersection can be calculated exactly with long arithmetic.
+            long long_is_x = long_det_1 * delta_2.x - long_det_2 * delta_1.x;
+            long long_is_y = long_det_1 * delta_2.y - long_det_2 * delta_1.y;
+            if (long_det < 0)
+            {
+                long_det = -long_det;
+                long_is_x = -long_is_x;
+                long_is_y = -long_is_y;
+            }
+            if (long_is_x % long_det == 0 && long_is_y % long_det == 0)
+            {
+                long_is_x /= long_det;
+                long_is_y /= long_det;
+                if (Math.abs(long_is_x) <= Limits.CRIT_INT && Math.abs(long_is_y) <= Limits.CRIT_INT)
+                {
+                    return new IntPoint((int) long_is_x, (int) long_is_y);
+                }
+                long_det = 1;
+            }
+            return new RationalPoint(BigInteger.valueOf(long_is_x), BigInteger.valueOf(long_is_y),
+                    BigInteger.valueOf(long_det));
+        }
+        
+        BigInteger det_1 = BigInteger.valueOf(long_det_1);
+        BigInteger det_2 = BigInteger.valueOf(long_det_2);
+        BigInteger det =  BigInteger.valueOf(long_det);
         BigInteger tmp_1 = det_1.multiply(BigInteger.valueOf(delta_2.x));
         BigInteger tmp_2 = det_2.multiply(BigInteger.valueOf(delta_1.x));
         BigInteger is_x = tmp_1.subtract(tmp_2);
@@ -576,8 +576,9 @@ public class PolygonShape extends PolylineShape
             // not yet precalculated
         {
             // use a fixed seed to get reproducable result
-            random_generator.setSeed(seed);
-            Collection<PolygonShape> convex_pieces = split_to_convex_recu();
+            // and a generator of its own, because shapes may be split in parallel threads
+            java.util.Random random_generator = new java.util.Random(seed);
+            Collection<PolygonShape> convex_pieces = split_to_convex_recu(random_generator);
             if(convex_pieces == null)
             {
                 // split failed, maybe the polygon has selfontersections
@@ -597,11 +598,12 @@ public class PolygonShape extends PolylineShape
     /**
      * Crivate recursive part of split_to_convex.
      * Returns a collection of polygon shape pieces.
+     * p_random_generator is used to choose the start corner.
      */
-    private Collection<PolygonShape> split_to_convex_recu()
+    private Collection<PolygonShape> split_to_convex_recu(java.util.Random p_random_generator)
     {
         // start with a hashed corner and search the first concave corner
-        int start_corner_no =  random_generator.nextInt(corners.length);
+        int start_corner_no =  p_random_generator.nextInt(corners.length);
         Point curr_corner = corners[start_corner_no];
         Point prev_corner;
         if (start_corner_no != 0)
@@ -673,10 +675,10 @@ public class PolygonShape extends PolylineShape
             corner_ind = (corner_ind + 1) % corners.length;
         }
         PolygonShape last_piece = new PolygonShape(last_arr);
-        Collection<PolygonShape> c1 = first_piece.split_to_convex_recu();
+        Collection<PolygonShape> c1 = first_piece.split_to_convex_recu(p_random_generator);
         if (c1 == null)
             return null;
-        Collection<PolygonShape> c2 = last_piece.split_to_convex_recu();
+        Collection<PolygonShape> c2 = last_piece.split_to_convex_recu(p_random_generator);
         if (c2 == null)
             return null;
         result.addAll(c1);
@@ -693,8 +695,7 @@ public class PolygonShape extends PolylineShape
     transient private IntBox precalculated_bounding_box = null;
     transient private IntOctagon precalculated_bounding_octagon = null;
     transient private TileShape[] precalculated_convex_pieces = null;
-    static private int seed = 99;
-    static private java.util.Random random_generator = new java.util.Random(seed);
+    static private final int seed = 99;
     
     private class DivisionPoint
     {
@@ -228,7 +228,7 @@ public class Polyline implements java.io.Serializable
         {
             if (precalculated_corners[i] == null)
             {
-                precalculated_corners[i] = arr[i].intersection(arr[i + 1]);
+                precalculated_corners[i] = calculate_corner(i);
             }
         }
         return precalculated_corners;
@@ -334,11 +334,59 @@ public class Polyline implements java.io.Serializable
         if (precalculated_corners [no] == null)
             // corner is not yet calculated
         {
-            precalculated_corners[no] = arr[no].intersection(arr[no + 1]);
+            precalculated_corners[no] = calculate_corner(no);
         }
         return precalculated_corners [no];
     }
     
+    /**
+     * Calculates the intersection of the p_no-th with the (p_no + 1)-th line.
+     * If the intersection is an end point of one of the two lines, this point is returned
+     * instead of a new allocated point, so that corners and lines share their points.
+     */
+    private Point calculate_corner(int p_no)
+    {
+        Line curr_line = arr[p_no];
+        Line next_line = arr[p_no + 1];
+        if (!curr_line.is_parallel(next_line))
+        {
+            if (is_on_line(curr_line.b, next_line))
+            {
+                return curr_line.b;
+            }
+            if (is_on_line(curr_line.a, next_line))
+            {
+                return curr_line.a;
+            }
+            if (is_on_line(next_line.a, curr_line))
+            {
+                return next_line.a;
+            }
+            if (is_on_line(next_line.b, curr_line))
+            {
+                return next_line.b;
+            }
+        }
+        return curr_line.intersection(next_line);
+    }
+    
+    /**
+     * Checks, if p_point is an IntPoint on p_line, which is defined by IntPoints.
+     */
+    private static boolean is_on_line(Point p_point, Line p_line)
+    {
+        if (!(p_point instanceof IntPoint && p_line.a instanceof IntPoint && p_line.b instanceof IntPoint))
+        {
+            return false;
+        }
+        IntPoint point = (IntPoint) p_point;
+        IntPoint line_a = (IntPoint) p_line.a;
+        IntPoint line_b = (IntPoint) p_line.b;
+        long determinant = (long) (line_b.x - line_a.x) * (point.y - line_a.y)
+                - (long) (line_b.y - line_a.y) * (point.x - line_a.x);
+        return determinant == 0;
+    }
+    
     /**
      * return the polyline with the reversed order of lines
      */
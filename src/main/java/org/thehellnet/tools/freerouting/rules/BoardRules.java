@@ -82,6 +82,16 @@ public class BoardRules implements java.io.Serializable
         return max_trace_half_width;
     }
     
+    /**
+     * Restores the smallest and biggest of all default trace half widths.
+     * Only to be used when reading a board with board.BinaryBoardFile.
+     */
+    public void set_trace_half_width_bounds(int p_min_half_width, int p_max_half_width)
+    {
+        this.min_trace_half_width = p_min_half_width;
+        this.max_trace_half_width = p_max_half_width;
+    }
+    
     /**
      *  Changes the default trace halfwidth used for routing on the input layer.
      */
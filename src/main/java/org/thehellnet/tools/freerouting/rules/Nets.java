@@ -21,6 +21,8 @@ package org.thehellnet.tools.freerouting.rules;
 
 import java.util.Vector;
 import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Describes the electrical Nets on a org.thehellnet.tools.freerouting.board.
@@ -47,14 +49,16 @@ public class Nets implements java.io.Serializable
     /** Returns the net with the input name and subnet_number , or null, if no such net exists. */
     public Net get(String p_name, int p_subnet_number)
     {
-        for (Net curr_net : net_arr)
+        Collection<Net> net_list = get_name_index().get(p_name);
+        if (net_list == null)
         {
-            if (curr_net != null && curr_net.name.compareToIgnoreCase(p_name) == 0)
+            return null;
+        }
+        for (Net curr_net : net_list)
+        {
+            if (curr_net.subnet_number == p_subnet_number)
             {
-                if (curr_net.subnet_number == p_subnet_number)
-                {
-                    return curr_net;
-                }
+                return curr_net;
             }
         }
         return null;
@@ -66,12 +70,10 @@ public class Nets implements java.io.Serializable
     public Collection<Net> get(String p_name)
     {
         Collection<Net> result = new java.util.LinkedList<Net>();
-        for (Net curr_net : net_arr)
+        Collection<Net> net_list = get_name_index().get(p_name);
+        if (net_list != null)
         {
-            if (curr_net != null && curr_net.name.compareToIgnoreCase(p_name) == 0)
-            {
-                result.add(curr_net);
-            }
+            result.addAll(net_list);
         }
         return result;
     }
@@ -117,9 +119,44 @@ public class Nets implements java.io.Serializable
         }
         Net new_net = new Net(p_name, p_subnet_number, new_net_no, this, p_contains_plane);
         net_arr.add(new_net);
+        if (this.name_index != null)
+        {
+            add_to_name_index(new_net);
+        }
         return new_net;
     }
 
+    /**
+     * Returns the map from the net names to the subnets with this name in the order of their net numbers.
+     * The names are compared ignoring case. The map is created at the first call.
+     */
+    private Map<String, Collection<Net>> get_name_index()
+    {
+        if (this.name_index == null)
+        {
+            this.name_index = new TreeMap<String, Collection<Net>>(String.CASE_INSENSITIVE_ORDER);
+            for (Net curr_net : net_arr)
+            {
+                if (curr_net != null)
+                {
+                    add_to_name_index(curr_net);
+                }
+            }
+        }
+        return this.name_index;
+    }
+
+    private void add_to_name_index(Net p_net)
+    {
+        Collection<Net> net_list = this.name_index.get(p_net.name);
+        if (net_list == null)
+        {
+            net_list = new java.util.LinkedList<Net>();
+            this.name_index.put(p_net.name, net_list);
+        }
+        net_list.add(p_net);
+    }
+
     /**
      * Returns false, if p_net_no belongs to a net internally used
      * for special purposes.
@@ -155,5 +192,7 @@ public class Nets implements java.io.Serializable
     public static final int hidden_net_no = 10000001;
     /** The list of electrical nets on the org.thehellnet.tools.freerouting.board */
     private Vector<Net> net_arr;
+    /** The nets sorted by their names for fast lookup, created at the first use. */
+    private transient Map<String, Collection<Net>> name_index = null;
     private org.thehellnet.tools.freerouting.board.BasicBoard board;
 }
@@ -0,0 +1,754 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * ByteBufferScanner.java
+ */
+
+package org.thehellnet.tools.freerouting.specctra;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanner for Specctra files, which reads the bytes of the file from a byte buffer directly
+ * instead of copying them through a Reader into a character buffer.
+ * The whole file is read into a heap buffer at once. It is not memory mapped, because a mapped file stays locked
+ * on some operating systems until the buffer is garbage collected.
+ * The tokens are recognized with the state tables generated by JFlex for the SpecctraFileScanner,
+ * so that both scanners return the same tokens. Keywords are returned without creating a string
+ * for the token text, and numbers are converted directly from the bytes of the file.
+ */
+class ByteBufferScanner implements Scanner
+{
+
+    /**
+     * Returns a scanner for reading p_input_stream.
+     * The input is read into a byte buffer, if p_input_stream is a file and the file encoding of the system is UTF-8
+     * or a single byte encoding, else the generated SpecctraFileScanner is used.
+     */
+    static Scanner get_instance(InputStream p_input_stream)
+    {
+        Charset charset = Charset.defaultCharset();
+        boolean is_utf8 = charset.equals(StandardCharsets.UTF_8);
+        if (keyword_actions_ok && p_input_stream instanceof FileInputStream && (is_utf8 || is_single_byte(charset)))
+        {
+            FileChannel channel = ((FileInputStream) p_input_stream).getChannel();
+            long position = -1;
+            try
+            {
+                position = channel.position();
+                long size = channel.size() - position;
+                if (size <= Integer.MAX_VALUE)
+                {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+                    {
+                    }
+                    buffer.flip();
+                    return new ByteBufferScanner(buffer, charset);
+                }
+            }
+            catch (IOException e)
+            {
+                // The file cannot be read at once, read it from the start position with the generated scanner.
+                try
+                {
+                    if (position >= 0)
+                    {
+                        channel.position(position);
+                    }
+                }
+                catch (IOException e2)
+                {
+                    System.out.println("ByteBufferScanner.get_instance: unable to reset the file position");
+                }
+            }
+        }
+        return new SpecctraFileScanner(p_input_stream);
+    }
+
+    /**
+     * Creates a new scanner for the bytes of p_buffer from its position to its limit.
+     * p_charset must be UTF-8 or a single byte encoding.
+     */
+    ByteBufferScanner(ByteBuffer p_buffer, Charset p_charset)
+    {
+        this.buffer = p_buffer;
+        this.charset = p_charset;
+        this.is_utf8 = p_charset.equals(StandardCharsets.UTF_8);
+        this.byte_chars = this.is_utf8 ? null : new String(ALL_BYTES, p_charset).toCharArray();
+        this.curr_pos = p_buffer.position();
+        this.end_pos = p_buffer.limit();
+    }
+
+    /**
+     * Creates a scanner for the bytes of p_scanner from p_start_pos to p_end_pos starting in the lexical state p_state.
+     * The new scanner can be used in another thread than p_scanner.
+     */
+    private ByteBufferScanner(ByteBufferScanner p_scanner, int p_start_pos, int p_end_pos, int p_state)
+    {
+        this.buffer = p_scanner.buffer.duplicate();
+        this.charset = p_scanner.charset;
+        this.is_utf8 = p_scanner.is_utf8;
+        this.byte_chars = p_scanner.byte_chars;
+        this.curr_pos = p_start_pos;
+        this.end_pos = p_end_pos;
+        this.lexical_state = p_state;
+    }
+
+    /**
+     * Returns a new scanner, which reads the bytes of this scanner from p_start_pos to p_end_pos
+     * starting in the lexical state p_state.
+     */
+    ByteBufferScanner get_sub_scanner(int p_start_pos, int p_end_pos, int p_state)
+    {
+        return new ByteBufferScanner(this, p_start_pos, p_end_pos, p_state);
+    }
+
+    /**
+     * Returns the position in the input after the last scanned token.
+     */
+    int get_position()
+    {
+        return this.curr_pos;
+    }
+
+    /**
+     * Returns the position of the end of the input of this scanner.
+     */
+    int get_end_position()
+    {
+        return this.end_pos;
+    }
+
+    int get_lexical_state()
+    {
+        return this.lexical_state;
+    }
+
+    /**
+     * Continues scanning at p_position in the lexical state p_state.
+     */
+    void reset(int p_position, int p_state)
+    {
+        this.curr_pos = p_position;
+        this.lexical_state = p_state;
+    }
+
+    /**
+     * Returns true, if p_charset encodes each character in one byte.
+     */
+    private static boolean is_single_byte(Charset p_charset)
+    {
+        return p_charset.canEncode() && p_charset.newEncoder().maxBytesPerChar() == 1
+                && p_charset.newDecoder().maxCharsPerByte() == 1 && new String(ALL_BYTES, p_charset).length() == 256;
+    }
+
+    public void yybegin(int p_new_state)
+    {
+        this.lexical_state = p_new_state;
+    }
+
+    public Object next_token() throws IOException
+    {
+        final char[] cmap = SpecctraFileScanner.ZZ_CMAP;
+        final int[] trans = SpecctraFileScanner.ZZ_TRANS;
+        final int[] row_map = SpecctraFileScanner.ZZ_ROWMAP;
+        final int[] attributes = SpecctraFileScanner.ZZ_ATTRIBUTE;
+        for (;;)
+        {
+            this.token_start = this.curr_pos;
+            int marked_pos = this.curr_pos;
+            int pos = this.curr_pos;
+            int dfa_state = this.lexical_state;
+            int action_state = -1;
+            boolean at_eof = false;
+            for (;;)
+            {
+                if (pos >= this.end_pos)
+                {
+                    at_eof = true;
+                    break;
+                }
+                int curr_char = buffer.get(pos) & 0xff;
+                if (!this.is_utf8)
+                {
+                    curr_char = this.byte_chars[curr_char];
+                    ++pos;
+                }
+                else if (curr_char < 0x80)
+                {
+                    ++pos;
+                }
+                else
+                {
+                    curr_char = decode_utf8(pos);
+                    pos += this.decoded_byte_count;
+                }
+                int next_state = trans[row_map[dfa_state] + cmap[curr_char]];
+                if (next_state == -1)
+                {
+                    break;
+                }
+                dfa_state = next_state;
+                int curr_attributes = attributes[dfa_state];
+                if ((curr_attributes & 1) == 1)
+                {
+                    action_state = dfa_state;
+                    marked_pos = pos;
+                    if ((curr_attributes & 8) == 8)
+                    {
+                        break;
+                    }
+                }
+            }
+            this.curr_pos = marked_pos;
+            if (action_state < 0)
+            {
+                if (at_eof && pos == this.token_start)
+                {
+                    return null;
+                }
+                throw new Error("Error: could not match input");
+            }
+            int action = SpecctraFileScanner.ZZ_ACTION[action_state];
+            Keyword curr_keyword = keyword_actions[action];
+            if (curr_keyword != null)
+            {
+                int new_state = keyword_action_states[action];
+                if (new_state >= 0)
+                {
+                    this.lexical_state = new_state;
+                }
+                return curr_keyword;
+            }
+            switch (action)
+            {
+                case 1:
+                    this.lexical_state = SpecctraFileScanner.YYINITIAL;
+                    return token_text();
+                case 2:
+                    throw new Error("Illegal character <" + token_text() + ">");
+                case 3:
+                    // ignore white space
+                    break;
+                case 4:
+                    return token_text();
+                case 5:
+                    return parse_integer();
+                case 6:
+                    this.string.setLength(0);
+                    this.lexical_state = SpecctraFileScanner.STRING1;
+                    break;
+                case 7:
+                    this.string.setLength(0);
+                    this.lexical_state = SpecctraFileScanner.STRING2;
+                    break;
+                case 10:
+                    this.string.append(token_text());
+                    break;
+                case 11:
+                    this.lexical_state = SpecctraFileScanner.YYINITIAL;
+                    return this.string.toString();
+                case 12:
+                    this.string.append('\\');
+                    break;
+                case 15:
+                    return parse_double();
+                default:
+                    throw new Error("Error: unknown scanner action " + action);
+            }
+        }
+    }
+
+    /**
+     * Decodes the UTF-8 sequence starting with the non ASCII byte at p_pos like an InputStreamReader.
+     * Returns the decoded character and stores the number of bytes used in decoded_byte_count.
+     * Characters outside the basic multilingual plane are returned as their high surrogate,
+     * because the scanner does not accept them anyway.
+     */
+    private int decode_utf8(int p_pos)
+    {
+        int first_byte = buffer.get(p_pos) & 0xff;
+        int byte_count;
+        int result;
+        if (first_byte >= 0xc2 && first_byte < 0xe0)
+        {
+            byte_count = 2;
+            result = first_byte & 0x1f;
+        }
+        else if (first_byte >= 0xe0 && first_byte < 0xf0)
+        {
+            byte_count = 3;
+            result = first_byte & 0x0f;
+        }
+        else if (first_byte >= 0xf0 && first_byte < 0xf5)
+        {
+            byte_count = 4;
+            result = first_byte & 0x07;
+        }
+        else
+        {
+            this.decoded_byte_count = 1;
+            return REPLACEMENT_CHAR;
+        }
+        if (p_pos + byte_count > this.end_pos)
+        {
+            this.decoded_byte_count = 1;
+            return REPLACEMENT_CHAR;
+        }
+        for (int i = 1; i < byte_count; ++i)
+        {
+            int curr_byte = buffer.get(p_pos + i) & 0xff;
+            if ((curr_byte & 0xc0) != 0x80)
+            {
+                this.decoded_byte_count = 1;
+                return REPLACEMENT_CHAR;
+            }
+            result = (result << 6) | (curr_byte & 0x3f);
+        }
+        this.decoded_byte_count = byte_count;
+        if (byte_count == 4)
+        {
+            if (result < 0x10000 || result > Character.MAX_CODE_POINT)
+            {
+                this.decoded_byte_count = 1;
+                return REPLACEMENT_CHAR;
+            }
+            return Character.highSurrogate(result);
+        }
+        if (byte_count == 3 && (result < 0x800 || Character.isSurrogate((char) result)))
+        {
+            this.decoded_byte_count = 1;
+            return REPLACEMENT_CHAR;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the text of the current token.
+     */
+    private String token_text()
+    {
+        int length = this.curr_pos - this.token_start;
+        if (this.text_bytes.length < length)
+        {
+            this.text_bytes = new byte[Math.max(length, 2 * this.text_bytes.length)];
+        }
+        for (int i = 0; i < length; ++i)
+        {
+            this.text_bytes[i] = buffer.get(this.token_start + i);
+        }
+        return new String(this.text_bytes, 0, length, this.charset);
+    }
+
+    /**
+     * Converts the current token to an Integer without creating a string from its text.
+     * Falls back to Integer.valueOf for token texts, which are not a plain decimal number.
+     */
+    private Object parse_integer()
+    {
+        int pos = this.token_start;
+        boolean is_negative = false;
+        if (pos < this.curr_pos && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+        {
+            is_negative = buffer.get(pos) == '-';
+            ++pos;
+        }
+        if (pos >= this.curr_pos || this.curr_pos - pos > MAX_LONG_DIGITS)
+        {
+            return Integer.valueOf(token_text());
+        }
+        long value = 0;
+        while (pos < this.curr_pos)
+        {
+            int digit = buffer.get(pos) - '0';
+            if (digit < 0 || digit > 9)
+            {
+                return Integer.valueOf(token_text());
+            }
+            value = 10 * value + digit;
+            ++pos;
+        }
+        if (is_negative)
+        {
+            value = -value;
+        }
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+        {
+            return Integer.valueOf(token_text());
+        }
+        return Integer.valueOf((int) value);
+    }
+
+    /**
+     * Converts the current token to a Double without creating a string from its text.
+     * The result is exact, if the mantissa has at most 15 digits and the decimal exponent is small,
+     * because then mantissa and power of ten are both representable as double and only the final
+     * multiplication or division is rounded. Other numbers are converted with Double.valueOf.
+     */
+    private Object parse_double()
+    {
+        int pos = this.token_start;
+        boolean is_negative = false;
+        if (pos < this.curr_pos && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+        {
+            is_negative = buffer.get(pos) == '-';
+            ++pos;
+        }
+        long mantissa = 0;
+        int digit_count = 0;
+        int decimal_exponent = 0;
+        boolean point_found = false;
+        boolean digit_found = false;
+        while (pos < this.curr_pos)
+        {
+            byte curr_byte = buffer.get(pos);
+            if (curr_byte >= '0' && curr_byte <= '9')
+            {
+                digit_found = true;
+                if (mantissa != 0 || curr_byte != '0')
+                {
+                    if (digit_count >= MAX_EXACT_DIGITS)
+                    {
+                        return Double.valueOf(token_text());
+                    }
+                    mantissa = 10 * mantissa + (curr_byte - '0');
+                    ++digit_count;
+                }
+                if (point_found)
+                {
+                    --decimal_exponent;
+                }
+            }
+            else if (curr_byte == '.' && !point_found)
+            {
+                point_found = true;
+            }
+            else
+            {
+                break;
+            }
+            ++pos;
+        }
+        if (pos < this.curr_pos && (buffer.get(pos) == 'e' || buffer.get(pos) == 'E') && digit_found)
+        {
+            ++pos;
+            boolean exponent_is_negative = false;
+            if (pos < this.curr_pos && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+            {
+                exponent_is_negative = buffer.get(pos) == '-';
+                ++pos;
+            }
+            int exponent = 0;
+            int exponent_digit_count = 0;
+            while (pos < this.curr_pos && buffer.get(pos) >= '0' && buffer.get(pos) <= '9')
+            {
+                if (exponent_digit_count >= 4)
+                {
+                    return Double.valueOf(token_text());
+                }
+                exponent = 10 * exponent + (buffer.get(pos) - '0');
+                ++exponent_digit_count;
+                ++pos;
+            }
+            if (exponent_digit_count == 0)
+            {
+                return Double.valueOf(token_text());
+            }
+            decimal_exponent += exponent_is_negative ? -exponent : exponent;
+        }
+        if (!digit_found || pos < this.curr_pos)
+        {
+            return Double.valueOf(token_text());
+        }
+        double value = mantissa;
+        if (mantissa != 0)
+        {
+            if (decimal_exponent < -MAX_EXACT_POWER || decimal_exponent > MAX_EXACT_POWER)
+            {
+                return Double.valueOf(token_text());
+            }
+            if (decimal_exponent < 0)
+            {
+                value /= POWERS_OF_TEN[-decimal_exponent];
+            }
+            else
+            {
+                value *= POWERS_OF_TEN[decimal_exponent];
+            }
+        }
+        return Double.valueOf(is_negative ? -value : value);
+    }
+
+    /**
+     * Checks, that the keyword actions set in this class fit to the actions of the generated SpecctraFileScanner.
+     * The action numbers change, when the scanner is generated again from its specification.
+     * Then the table in this class has to be updated, and the generated scanner is used until then.
+     */
+    private static boolean check_keyword_actions()
+    {
+        int generated_action_count = 0;
+        for (int curr_action : SpecctraFileScanner.ZZ_ACTION)
+        {
+            generated_action_count = Math.max(generated_action_count, curr_action + 1);
+        }
+        boolean result = generated_action_count == ACTION_COUNT;
+        for (int i = 0; result && i < ACTION_COUNT; ++i)
+        {
+            Keyword curr_keyword = keyword_actions[i];
+            if (curr_keyword == null || curr_keyword == Keyword.OPEN_BRACKET || curr_keyword == Keyword.CLOSED_BRACKET)
+            {
+                continue;
+            }
+            // Both scanners must return the same tokens for the keyword inside a scope.
+            String curr_text = "(" + curr_keyword.get_name() + " x)";
+            result = scan_all(new ByteBufferScanner(ByteBuffer.wrap(curr_text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8))
+                    .equals(scan_all(new SpecctraFileScanner(new java.io.StringReader(curr_text))));
+        }
+        if (!result)
+        {
+            System.out.println("ByteBufferScanner: the keyword actions do not fit to the generated scanner");
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tokens of p_scanner until the end of its input.
+     * Keywords are represented by their name and other tokens by their text.
+     */
+    private static java.util.List<String> scan_all(Scanner p_scanner)
+    {
+        java.util.List<String> result = new java.util.ArrayList<String>();
+        try
+        {
+            for (;;)
+            {
+                Object curr_token = p_scanner.next_token();
+                if (curr_token == null)
+                {
+                    break;
+                }
+                if (curr_token instanceof Keyword)
+                {
+                    result.add("keyword " + ((Keyword) curr_token).get_name());
+                }
+                else
+                {
+                    result.add(curr_token.getClass().getSimpleName() + " " + curr_token);
+                }
+            }
+        }
+        catch (Throwable e)
+        {
+            result.add("error");
+        }
+        return result;
+    }
+
+    private static void set_keyword_action(int p_action, Keyword p_keyword)
+    {
+        set_keyword_action(p_action, p_keyword, -1);
+    }
+
+    private static void set_keyword_action(int p_action, Keyword p_keyword, int p_new_state)
+    {
+        keyword_actions[p_action] = p_keyword;
+        keyword_action_states[p_action] = p_new_state;
+    }
+
+    private static final int REPLACEMENT_CHAR = 0xfffd;
+
+    /** Decimal numbers with at most this count of digits fit into a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /** Integers with at most this count of decimal digits are exactly representable as double. */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /** The largest power of ten, which is exactly representable as double. */
+    private static final int MAX_EXACT_POWER = 22;
+
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_POWER + 1];
+
+    /** The 256 byte values for decoding them with a single byte encoding */
+    private static final byte[] ALL_BYTES = new byte[256];
+
+    /** The action numbers of the generated scanner are below this value. */
+    private static final int ACTION_COUNT = 121;
+
+    /**
+     * The keyword returned by each action of the generated scanner, or null,
+     * if the action does not return a keyword.
+     */
+    private static final Keyword[] keyword_actions = new Keyword[ACTION_COUNT];
+
+    /** The lexical state started by each keyword action, or -1, if the state is not changed. */
+    private static final int[] keyword_action_states = new int[ACTION_COUNT];
+
+    static
+    {
+        double curr_power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; ++i)
+        {
+            POWERS_OF_TEN[i] = curr_power;
+            curr_power *= 10;
+        }
+        for (int i = 0; i < ALL_BYTES.length; ++i)
+        {
+            ALL_BYTES[i] = (byte) i;
+        }
+        set_keyword_action(8, Keyword.OPEN_BRACKET);
+        set_keyword_action(9, Keyword.CLOSED_BRACKET);
+        set_keyword_action(13, Keyword.OPEN_BRACKET, SpecctraFileScanner.YYINITIAL);
+        set_keyword_action(14, Keyword.CLOSED_BRACKET, SpecctraFileScanner.YYINITIAL);
+        set_keyword_action(16, Keyword.ON);
+        set_keyword_action(17, Keyword.OFF);
+        set_keyword_action(18, Keyword.VIA, SpecctraFileScanner.NAME);
+        set_keyword_action(19, Keyword.NET, SpecctraFileScanner.NAME);
+        set_keyword_action(20, Keyword.PCB_SCOPE);
+        set_keyword_action(21, Keyword.PIN);
+        set_keyword_action(22, Keyword.FIX);
+        set_keyword_action(23, Keyword.PCB_SCOPE, SpecctraFileScanner.YYINITIAL);
+        set_keyword_action(24, Keyword.BACK);
+        set_keyword_action(25, Keyword.SIDE);
+        set_keyword_action(26, Keyword.TYPE);
+        set_keyword_action(27, Keyword.COMPONENT_SCOPE, SpecctraFileScanner.NAME);
+        set_keyword_action(28, Keyword.CIRCLE, SpecctraFileScanner.LAYER_NAME);
+        set_keyword_action(29, Keyword.VIAS);
+        set_keyword_action(30, Keyword.NONE);
+        set_keyword_action(31, Keyword.POLYGON_PATH, SpecctraFileScanner.LAYER_NAME);
+        set_keyword_action(32, Keyword.POLYGON, SpecctraFileScanner.LAYER_NAME);
+        set_keyword_action(33, Keyword.PINS);
+        set_keyword_action(34, Keyword.RECTANGLE, SpecctraFileScanner.LAYER_NAME);
+        set_keyword_action(35, Keyword.RULE);
+        set_keyword_action(36, Keyword.WIRE, SpecctraFileScanner.NAME);
+        set_keyword_action(37, Keyword.SPARE);
+        set_keyword_action(38, Keyword.SHAPE);
+        set_keyword_action(39, Keyword.ORDER);
+        set_keyword_action(40, Keyword.LAYER, SpecctraFileScanner.NAME);
+        set_keyword_action(41, Keyword.CLEARANCE);
+        set_keyword_action(42, Keyword.CLASS, SpecctraFileScanner.NAME);
+        set_keyword_action(43, Keyword.IMAGE, SpecctraFileScanner.NAME);
+        set_keyword_action(44, Keyword.POWER);
+        set_keyword_action(45, Keyword.PLACE, SpecctraFileScanner.NAME);
+        set_keyword_action(46, Keyword.PLANE_SCOPE, SpecctraFileScanner.NAME);
+        set_keyword_action(47, Keyword.RULES);
+        set_keyword_action(48, Keyword.FRONT);
+        set_keyword_action(49, Keyword.WIDTH);
+        set_keyword_action(50, Keyword.ATTACH);
+        set_keyword_action(51, Keyword.ACTIVE);
+        set_keyword_action(52, Keyword.SIGNAL);
+        set_keyword_action(53, Keyword.LENGTH);
+        set_keyword_action(54, Keyword.NORMAL);
+        set_keyword_action(55, Keyword.PARSER_SCOPE);
+        set_keyword_action(56, Keyword.ROUTES);
+        set_keyword_action(57, Keyword.ROTATE);
+        set_keyword_action(58, Keyword.FANOUT);
+        set_keyword_action(59, Keyword.FROMTO);
+        set_keyword_action(60, Keyword.WINDOW);
+        set_keyword_action(61, Keyword.WIRING_SCOPE);
+        set_keyword_action(62, Keyword.SIGNAL, SpecctraFileScanner.YYINITIAL);
+        set_keyword_action(63, Keyword.SESSION);
+        set_keyword_action(64, Keyword.OUTLINE);
+        set_keyword_action(65, Keyword.LIBRARY_SCOPE);
+        set_keyword_action(66, Keyword.USE_VIA, SpecctraFileScanner.NAME);
+        set_keyword_action(67, Keyword.USE_NET, SpecctraFileScanner.NAME);
+        set_keyword_action(68, Keyword.CONTROL);
+        set_keyword_action(69, Keyword.CLASSES);
+        set_keyword_action(70, Keyword.CIRCUIT);
+        set_keyword_action(71, Keyword.NETWORK_SCOPE);
+        set_keyword_action(72, Keyword.KEEPOUT, SpecctraFileScanner.NAME);
+        set_keyword_action(73, Keyword.ABSOLUTE);
+        set_keyword_action(74, Keyword.BOUNDARY);
+        set_keyword_action(75, Keyword.CONSTANT);
+        set_keyword_action(76, Keyword.VERTICAL);
+        set_keyword_action(77, Keyword.VIA_RULE);
+        set_keyword_action(78, Keyword.PADSTACK, SpecctraFileScanner.NAME);
+        set_keyword_action(79, Keyword.POSITION);
+        set_keyword_action(80, Keyword.HOST_CAD, SpecctraFileScanner.NAME);
+        set_keyword_action(81, Keyword.AUTOROUTE);
+        set_keyword_action(82, Keyword.STRUCTURE_SCOPE);
+        set_keyword_action(83, Keyword.LOCK_TYPE);
+        set_keyword_action(84, Keyword.USE_LAYER, SpecctraFileScanner.NAME);
+        set_keyword_action(85, Keyword.VIA_COSTS);
+        set_keyword_action(86, Keyword.POSTROUTE);
+        set_keyword_action(87, Keyword.PLACEMENT_SCOPE);
+        set_keyword_action(88, Keyword.SNAP_ANGLE);
+        set_keyword_action(89, Keyword.LAYER_RULE, SpecctraFileScanner.NAME);
+        set_keyword_action(90, Keyword.VIA_AT_SMD);
+        set_keyword_action(91, Keyword.PULL_TIGHT);
+        set_keyword_action(92, Keyword.RESOLUTION_SCOPE);
+        set_keyword_action(93, Keyword.FLIP_STYLE);
+        set_keyword_action(94, Keyword.HORIZONTAL);
+        set_keyword_action(95, Keyword.SHOVE_FIXED);
+        set_keyword_action(96, Keyword.CLASS_CLASS);
+        set_keyword_action(97, Keyword.VIA_KEEPOUT, SpecctraFileScanner.NAME);
+        set_keyword_action(98, Keyword.NETWORK_OUT);
+        set_keyword_action(99, Keyword.STRING_QUOTE, SpecctraFileScanner.IGNORE_QUOTE);
+        set_keyword_action(100, Keyword.LOGICAL_PART, SpecctraFileScanner.NAME);
+        set_keyword_action(101, Keyword.PART_LIBRARY_SCOPE);
+        set_keyword_action(102, Keyword.ROTATE_FIRST);
+        set_keyword_action(103, Keyword.HOST_VERSION, SpecctraFileScanner.NAME);
+        set_keyword_action(104, Keyword.KEEPOUT);
+        set_keyword_action(105, Keyword.START_PASS_NO);
+        set_keyword_action(106, Keyword.NINETY_DEGREE);
+        set_keyword_action(107, Keyword.POLYLINE_PATH, SpecctraFileScanner.LAYER_NAME);
+        set_keyword_action(108, Keyword.PLACE_CONTROL);
+        set_keyword_action(109, Keyword.PLACE_KEEPOUT, SpecctraFileScanner.NAME);
+        set_keyword_action(110, Keyword.CLEARANCE_CLASS, SpecctraFileScanner.NAME);
+        set_keyword_action(111, Keyword.PLANE_VIA_COSTS);
+        set_keyword_action(112, Keyword.FORTYFIVE_DEGREE);
+        set_keyword_action(113, Keyword.WRITE_RESOLUTION);
+        set_keyword_action(114, Keyword.START_RIPUP_COSTS);
+        set_keyword_action(115, Keyword.AUTOROUTE_SETTINGS);
+        set_keyword_action(116, Keyword.PREFERRED_DIRECTION);
+        set_keyword_action(117, Keyword.LOGICAL_PART_MAPPING, SpecctraFileScanner.NAME);
+        set_keyword_action(118, Keyword.GENERATED_BY_FREEROUTE);
+        set_keyword_action(119, Keyword.PREFERRED_DIRECTION_TRACE_COSTS);
+        set_keyword_action(120, Keyword.AGAINST_PREFERRED_DIRECTION_TRACE_COSTS);
+    }
+
+    /** False, if the keyword actions of this class do not fit to the generated scanner. */
+    private static final boolean keyword_actions_ok = check_keyword_actions();
+
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private final boolean is_utf8;
+
+    /** The character of each byte value, if the encoding is not UTF-8 */
+    private final char[] byte_chars;
+    private final int end_pos;
+
+    /** The position in the buffer after the last scanned token */
+    private int curr_pos;
+
+    /** The position in the buffer of the first byte of the current token */
+    private int token_start;
+
+    /** The byte count of the last character decoded by decode_utf8 */
+    private int decoded_byte_count;
+
+    private int lexical_state = SpecctraFileScanner.YYINITIAL;
+
+    /** Collects the text of quoted strings */
+    private final StringBuilder string = new StringBuilder();
+
+    private byte[] text_bytes = new byte[256];
+}
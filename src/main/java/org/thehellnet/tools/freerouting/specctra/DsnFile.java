@@ -47,7 +47,7 @@ public class DsnFile
     public static ReadResult read(java.io.InputStream p_input_stream, org.thehellnet.tools.freerouting.interactive.BoardHandling p_board_handling,
                                   org.thehellnet.tools.freerouting.board.BoardObservers p_observers, org.thehellnet.tools.freerouting.datastructures.IdNoGenerator p_item_id_no_generator, TestLevel p_test_level)
     {
-        Scanner scanner = new SpecctraFileScanner(p_input_stream);
+        Scanner scanner = ByteBufferScanner.get_instance(p_input_stream);
         Object curr_token = null;
         for (int i = 0; i < 3; ++i)
         {
@@ -84,6 +84,8 @@ public class DsnFile
         if (read_ok)
         {
             result = ReadResult.OK;
+            // the items were inserted one by one while reading
+            p_board_handling.get_routing_board().search_tree_manager.rebuild_trees();
             if (read_scope_par.autoroute_settings == null)
             {
                 // look for power planes with incorrect layer type and adjust org.thehellnet.tools.freerouting.autoroute parameters
@@ -25,6 +25,7 @@ import org.thehellnet.tools.freerouting.planar.Vector;
 import org.thehellnet.tools.freerouting.planar.PolygonShape;
 import org.thehellnet.tools.freerouting.planar.Simplex;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -49,54 +50,23 @@ public class Library extends ScopeKeyword
         org.thehellnet.tools.freerouting.board.RoutingBoard board = p_par.board_handling.get_routing_board();
         board.library.padstacks = new org.thehellnet.tools.freerouting.library.Padstacks(p_par.board_handling.get_routing_board().layer_structure);
         Collection<Package> package_list = new LinkedList<Package>();
-        Object next_token = null;
-        for (;;)
+        SubScopes sub_scopes = SubScopes.get_instance(p_par.scanner);
+        if (sub_scopes != null && !read_parallel(sub_scopes, p_par))
         {
-            Object prev_token = next_token;
-            try
-            {
-                next_token = p_par.scanner.next_token();
-            }
-            catch (java.io.IOException e)
-            {
-                System.out.println("Library.read_scope: IO error scanning file");
-                System.out.println(e);
-                return false;
-            }
-            if (next_token == null)
+            // Read the scope sequentially to get the same result and error messages as without sub scopes.
+            sub_scopes.restore();
+            sub_scopes = null;
+        }
+        if (sub_scopes != null)
+        {
+            if (!insert_sub_scopes(sub_scopes, p_par, package_list))
             {
-                System.out.println("Library.read_scope: unexpected end of file");
                 return false;
             }
-            if (next_token == CLOSED_BRACKET)
-            {
-                // end of scope
-                break;
-            }
-            if (prev_token == OPEN_BRACKET)
-            {
-                if (next_token == Keyword.PADSTACK)
-                {
-                    if (!read_padstack_scope(p_par.scanner, p_par.layer_structure,
-                            p_par.coordinate_transform, board.library.padstacks))
-                    {
-                        return false;
-                    }
-                }
-                else if (next_token == Keyword.IMAGE)
-                {
-                    Package curr_package = Package.read_scope(p_par.scanner, p_par.layer_structure);
-                    if (curr_package == null)
-                    {
-                        return false;
-                    }
-                    package_list.add(curr_package);
-                }
-                else
-                {
-                    skip_scope(p_par.scanner);
-                }
-            }
+        }
+        else if (!read_sub_scopes(p_par, package_list))
+        {
+            return false;
         }
         
         // Set the via padstacks.
@@ -203,6 +173,108 @@ public class Library extends ScopeKeyword
         return true;
     }
     
+    /**
+     * Reads the padstacks and images of the org.thehellnet.tools.freerouting.library scope one after the other from the scanner of p_par.
+     */
+    private static boolean read_sub_scopes(ReadScopeParameter p_par, Collection<Package> p_package_list)
+    {
+        Object next_token = null;
+        for (;;)
+        {
+            Object prev_token = next_token;
+            try
+            {
+                next_token = p_par.scanner.next_token();
+            }
+            catch (java.io.IOException e)
+            {
+                System.out.println("Library.read_scope: IO error scanning file");
+                System.out.println(e);
+                return false;
+            }
+            if (next_token == null)
+            {
+                System.out.println("Library.read_scope: unexpected end of file");
+                return false;
+            }
+            if (next_token == CLOSED_BRACKET)
+            {
+                // end of scope
+                break;
+            }
+            if (prev_token == OPEN_BRACKET)
+            {
+                if (next_token == Keyword.PADSTACK)
+                {
+                    if (!read_padstack_scope(p_par.scanner, p_par.layer_structure,
+                            p_par.coordinate_transform, p_par.board_handling.get_routing_board().library.padstacks))
+                    {
+                        return false;
+                    }
+                }
+                else if (next_token == Keyword.IMAGE)
+                {
+                    Package curr_package = Package.read_scope(p_par.scanner, p_par.layer_structure);
+                    if (curr_package == null)
+                    {
+                        return false;
+                    }
+                    p_package_list.add(curr_package);
+                }
+                else
+                {
+                    skip_scope(p_par.scanner);
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Reads the padstacks and images in p_sub_scopes in parallel threads.
+     * Returns false, if a sub scope could not be read.
+     */
+    private static boolean read_parallel(SubScopes p_sub_scopes, final ReadScopeParameter p_par)
+    {
+        SubScopes.Reader reader = new SubScopes.Reader()
+        {
+            public Object read(Object p_keyword, Scanner p_scanner)
+            {
+                if (p_keyword == Keyword.PADSTACK)
+                {
+                    return read_padstack(p_scanner, p_par.layer_structure);
+                }
+                return Package.read_scope(p_scanner, p_par.layer_structure);
+            }
+        };
+        return p_sub_scopes.read_parallel(Arrays.asList(Keyword.PADSTACK, Keyword.IMAGE), reader);
+    }
+    
+    /**
+     * Inserts the padstacks read in parallel into the org.thehellnet.tools.freerouting.board and adds the images to p_package_list
+     * in the order of the file.
+     */
+    private static boolean insert_sub_scopes(SubScopes p_sub_scopes, ReadScopeParameter p_par, Collection<Package> p_package_list)
+    {
+        org.thehellnet.tools.freerouting.library.Padstacks board_padstacks = p_par.board_handling.get_routing_board().library.padstacks;
+        for (SubScopes.SubScope curr_sub_scope : p_sub_scopes.list)
+        {
+            if (curr_sub_scope.keyword == Keyword.PADSTACK)
+            {
+                if (!insert_padstack((PadstackScope) curr_sub_scope.result, p_par.layer_structure,
+                        p_par.coordinate_transform, board_padstacks))
+                {
+                    return false;
+                }
+            }
+            else if (curr_sub_scope.keyword == Keyword.IMAGE)
+            {
+                p_package_list.add((Package) curr_sub_scope.result);
+            }
+        }
+        return true;
+    }
+    
     public static void write_scope(WriteScopeParameter p_par) throws java.io.IOException
     {
         p_par.file.start_scope();
@@ -278,6 +350,20 @@ public class Library extends ScopeKeyword
     
     static boolean  read_padstack_scope(Scanner p_scanner, LayerStructure p_layer_structure,
             CoordinateTransform p_coordinate_transform, org.thehellnet.tools.freerouting.library.Padstacks p_board_padstacks)
+    {
+        PadstackScope padstack_scope = read_padstack(p_scanner, p_layer_structure);
+        if (padstack_scope == null)
+        {
+            return false;
+        }
+        return insert_padstack(padstack_scope, p_layer_structure, p_coordinate_transform, p_board_padstacks);
+    }
+    
+    /**
+     * Reads a padstack scope without inserting the padstack into the org.thehellnet.tools.freerouting.board.
+     * Returns null, if an error occured.
+     */
+    private static PadstackScope read_padstack(Scanner p_scanner, LayerStructure p_layer_structure)
     {
         String padstack_name = null;
         boolean is_drilllable = true;
@@ -293,7 +379,7 @@ public class Library extends ScopeKeyword
             else
             {
                 System.out.println("Library.read_padstack_scope: unexpected padstack identifier");
-                return false;
+                return null;
             }
             
             while (next_token != Keyword.CLOSED_BRACKET)
@@ -319,7 +405,7 @@ public class Library extends ScopeKeyword
                         if (curr_next_token != Keyword.CLOSED_BRACKET)
                         {
                             System.out.println("Library.read_padstack_scope: closing bracket expected");
-                            return false;
+                            return null;
                         }
                     }
                     else if (next_token == Keyword.ATTACH)
@@ -342,8 +428,19 @@ public class Library extends ScopeKeyword
         {
             System.out.println("Library.read_padstack_scope: IO error scanning file");
             System.out.println(e);
-            return false;
+            return null;
         }
+        return new PadstackScope(padstack_name, shape_list, is_drilllable, placed_absolute);
+    }
+    
+    /**
+     * Inserts a padstack read by read_padstack into p_board_padstacks.
+     */
+    private static boolean insert_padstack(PadstackScope p_padstack_scope, LayerStructure p_layer_structure,
+            CoordinateTransform p_coordinate_transform, org.thehellnet.tools.freerouting.library.Padstacks p_board_padstacks)
+    {
+        String padstack_name = p_padstack_scope.name;
+        Collection<Shape> shape_list = p_padstack_scope.shape_list;
         if (p_board_padstacks.get(padstack_name) != null)
         {
             // Padstack exists already
@@ -416,7 +513,7 @@ public class Library extends ScopeKeyword
                 padstack_shapes[shape_layer] = padstack_shape;
             }
         }
-        p_board_padstacks.add(padstack_name, padstack_shapes, is_drilllable, placed_absolute);
+        p_board_padstacks.add(padstack_name, padstack_shapes, p_padstack_scope.is_drilllable, p_padstack_scope.placed_absolute);
         return true;
     }
     
@@ -443,4 +540,23 @@ public class Library extends ScopeKeyword
             ++curr_name_index;
         }
     }
+    
+    /**
+     * The content of a padstack scope before it is inserted into the org.thehellnet.tools.freerouting.board.
+     */
+    private static class PadstackScope
+    {
+        PadstackScope(String p_name, Collection<Shape> p_shape_list, boolean p_is_drilllable, boolean p_placed_absolute)
+        {
+            name = p_name;
+            shape_list = p_shape_list;
+            is_drilllable = p_is_drilllable;
+            placed_absolute = p_placed_absolute;
+        }
+        
+        final String name;
+        final Collection<Shape> shape_list;
+        final boolean is_drilllable;
+        final boolean placed_absolute;
+    }
 }
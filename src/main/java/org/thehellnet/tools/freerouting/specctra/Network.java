@@ -23,6 +23,7 @@ import org.thehellnet.tools.freerouting.planar.IntPoint;
 import org.thehellnet.tools.freerouting.planar.Point;
 import org.thehellnet.tools.freerouting.planar.Vector;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Set;
@@ -55,6 +56,40 @@ public class Network extends ScopeKeyword
         Collection<NetClass.ClassClass> class_class_list = new LinkedList<NetClass.ClassClass>();
         Collection<org.thehellnet.tools.freerouting.rules.ViaInfo> via_infos = new LinkedList<org.thehellnet.tools.freerouting.rules.ViaInfo>();
         Collection<Collection<String>> via_rules = new LinkedList<Collection<String>>();
+        SubScopes sub_scopes = SubScopes.get_instance(p_par.scanner);
+        if (sub_scopes != null && !read_parallel(sub_scopes, p_par))
+        {
+            // Read the scope sequentially to get the same result and error messages as without sub scopes.
+            sub_scopes.restore();
+            sub_scopes = null;
+        }
+        if (sub_scopes != null)
+        {
+            if (!insert_sub_scopes(sub_scopes, p_par, classes, class_class_list, via_infos, via_rules))
+            {
+                return false;
+            }
+        }
+        else if (!read_sub_scopes(p_par, classes, class_class_list, via_infos, via_rules))
+        {
+            return false;
+        }
+        insert_via_infos(via_infos, p_par.board_handling.get_routing_board(), p_par.via_at_smd_allowed);
+        insert_via_rules(via_rules, p_par.board_handling.get_routing_board());
+        insert_net_classes(classes, p_par);
+        insert_class_pairs(class_class_list, p_par);
+        insert_compoments(p_par);
+        insert_logical_parts(p_par);
+        return true;
+    }
+
+    /**
+     * Reads the sub scopes of the network scope one after the other from the scanner of p_par.
+     */
+    private boolean read_sub_scopes(ReadScopeParameter p_par, Collection<NetClass> p_classes,
+            Collection<NetClass.ClassClass> p_class_class_list, Collection<org.thehellnet.tools.freerouting.rules.ViaInfo> p_via_infos,
+            Collection<Collection<String>> p_via_rules)
+    {
         Object next_token = null;
         for (;;)
         {
@@ -92,7 +127,7 @@ public class Network extends ScopeKeyword
                     {
                         return false;
                     }
-                    via_infos.add(curr_via_info);
+                    p_via_infos.add(curr_via_info);
                 }
                 else if (next_token == Keyword.VIA_RULE)
                 {
@@ -101,7 +136,7 @@ public class Network extends ScopeKeyword
                     {
                         return false;
                     }
-                    via_rules.add(curr_via_rule);
+                    p_via_rules.add(curr_via_rule);
                 }
                 else if (next_token == Keyword.CLASS)
                 {
@@ -110,7 +145,7 @@ public class Network extends ScopeKeyword
                     {
                         return false;
                     }
-                    classes.add(curr_class);
+                    p_classes.add(curr_class);
                 }
                 else if (next_token == Keyword.CLASS_CLASS)
                 {
@@ -119,7 +154,7 @@ public class Network extends ScopeKeyword
                     {
                         return false;
                     }
-                    class_class_list.add(curr_class_class);
+                    p_class_class_list.add(curr_class_class);
                 }
                 else
                 {
@@ -127,12 +162,76 @@ public class Network extends ScopeKeyword
                 }
             }
         }
-        insert_via_infos(via_infos, p_par.board_handling.get_routing_board(), p_par.via_at_smd_allowed);
-        insert_via_rules(via_rules, p_par.board_handling.get_routing_board());
-        insert_net_classes(classes, p_par);
-        insert_class_pairs(class_class_list, p_par);
-        insert_compoments(p_par);
-        insert_logical_parts(p_par);
+        return true;
+    }
+
+    /**
+     * Reads the nets and classes in p_sub_scopes in parallel threads.
+     * Returns false, if a sub scope could not be read.
+     */
+    private static boolean read_parallel(SubScopes p_sub_scopes, ReadScopeParameter p_par)
+    {
+        SubScopes.Reader reader = new SubScopes.Reader()
+        {
+            public Object read(Object p_keyword, Scanner p_scanner)
+            {
+                if (p_keyword == Keyword.NET)
+                {
+                    return read_net(p_scanner);
+                }
+                if (p_keyword == Keyword.CLASS)
+                {
+                    return NetClass.read_scope(p_scanner);
+                }
+                return NetClass.read_class_class_scope(p_scanner);
+            }
+        };
+        return p_sub_scopes.read_parallel(Arrays.asList(Keyword.NET, Keyword.CLASS, Keyword.CLASS_CLASS), reader);
+    }
+
+    /**
+     * Inserts the nets read in parallel into the org.thehellnet.tools.freerouting.board and collects the other sub scopes
+     * in the order of the file.
+     */
+    private static boolean insert_sub_scopes(SubScopes p_sub_scopes, ReadScopeParameter p_par, Collection<NetClass> p_classes,
+            Collection<NetClass.ClassClass> p_class_class_list, Collection<org.thehellnet.tools.freerouting.rules.ViaInfo> p_via_infos,
+            Collection<Collection<String>> p_via_rules)
+    {
+        RoutingBoard routing_board = p_par.board_handling.get_routing_board();
+        for (SubScopes.SubScope curr_sub_scope : p_sub_scopes.list)
+        {
+            if (curr_sub_scope.keyword == Keyword.NET)
+            {
+                insert_net((NetScope) curr_sub_scope.result, p_par.netlist, routing_board,
+                        p_par.coordinate_transform, p_par.layer_structure, p_par.board_handling.get_locale());
+            }
+            else if (curr_sub_scope.keyword == Keyword.VIA)
+            {
+                org.thehellnet.tools.freerouting.rules.ViaInfo curr_via_info = read_via_info(curr_sub_scope.scanner, routing_board);
+                if (curr_via_info == null)
+                {
+                    return false;
+                }
+                p_via_infos.add(curr_via_info);
+            }
+            else if (curr_sub_scope.keyword == Keyword.VIA_RULE)
+            {
+                Collection<String> curr_via_rule = read_via_rule(curr_sub_scope.scanner, routing_board);
+                if (curr_via_rule == null)
+                {
+                    return false;
+                }
+                p_via_rules.add(curr_via_rule);
+            }
+            else if (curr_sub_scope.keyword == Keyword.CLASS)
+            {
+                p_classes.add((NetClass) curr_sub_scope.result);
+            }
+            else if (curr_sub_scope.keyword == Keyword.CLASS_CLASS)
+            {
+                p_class_class_list.add((NetClass.ClassClass) curr_sub_scope.result);
+            }
+        }
         return true;
     }
 
@@ -306,6 +405,20 @@ public class Network extends ScopeKeyword
 
     private boolean read_net_scope(Scanner p_scanner, NetList p_net_list, RoutingBoard p_board,
             CoordinateTransform p_coordinate_transform, LayerStructure p_layer_structure, java.util.Locale p_locale)
+    {
+        NetScope net_scope = read_net(p_scanner);
+        if (net_scope == null)
+        {
+            return false;
+        }
+        return insert_net(net_scope, p_net_list, p_board, p_coordinate_transform, p_layer_structure, p_locale);
+    }
+
+    /**
+     * Reads a net scope without inserting the net into the org.thehellnet.tools.freerouting.board.
+     * Returns null, if an error occured.
+     */
+    private static NetScope read_net(Scanner p_scanner)
     {
         // read the net name
         Object next_token;
@@ -315,12 +428,12 @@ public class Network extends ScopeKeyword
         } catch (java.io.IOException e)
         {
             System.out.println("Network.read_net_scope: IO error while scanning file");
-            return false;
+            return null;
         }
         if (!(next_token instanceof String))
         {
             System.out.println("Network.read_net_scope: String expected");
-            return false;
+            return null;
         }
         String net_name = (String) next_token;
         int subnet_number = 1;
@@ -330,7 +443,7 @@ public class Network extends ScopeKeyword
         } catch (java.io.IOException e)
         {
             System.out.println("Network.read_net_scope: IO error while scanning file");
-            return false;
+            return null;
         }
         boolean scope_is_empty = (next_token == CLOSED_BRACKET);
         if (next_token instanceof Integer)
@@ -352,12 +465,12 @@ public class Network extends ScopeKeyword
                 } catch (java.io.IOException e)
                 {
                     System.out.println("Network.read_net_scope: IO error scanning file");
-                    return false;
+                    return null;
                 }
                 if (next_token == null)
                 {
                     System.out.println("Network.read_net_scope: unexpected end of file");
-                    return false;
+                    return null;
                 }
                 if (next_token == CLOSED_BRACKET)
                 {
@@ -370,7 +483,7 @@ public class Network extends ScopeKeyword
                     {
                         if (!read_net_pins(p_scanner, pin_list))
                         {
-                            return false;
+                            return null;
                         }
                     }
                     else if (next_token == Keyword.ORDER)
@@ -378,7 +491,7 @@ public class Network extends ScopeKeyword
                         pin_order_found = true;
                         if (!read_net_pins(p_scanner, pin_list))
                         {
-                            return false;
+                            return null;
                         }
                     }
                     else if (next_token == Keyword.FROMTO)
@@ -386,7 +499,7 @@ public class Network extends ScopeKeyword
                         Set<Net.Pin> curr_subnet_pin_list = new java.util.TreeSet<Net.Pin>();
                         if (!read_net_pins(p_scanner, curr_subnet_pin_list))
                         {
-                            return false;
+                            return null;
                         }
                         subnet_pin_lists.add(curr_subnet_pin_list);
                     }
@@ -417,7 +530,19 @@ public class Network extends ScopeKeyword
                 subnet_pin_lists.add(pin_list);
             }
         }
-        for (Collection<Net.Pin> curr_pin_list : subnet_pin_lists)
+        return new NetScope(net_name, subnet_number, net_rules, subnet_pin_lists);
+    }
+
+    /**
+     * Inserts a net read by read_net into p_net_list and into the org.thehellnet.tools.freerouting.rules of p_board.
+     */
+    private static boolean insert_net(NetScope p_net_scope, NetList p_net_list, RoutingBoard p_board,
+            CoordinateTransform p_coordinate_transform, LayerStructure p_layer_structure, java.util.Locale p_locale)
+    {
+        String net_name = p_net_scope.net_name;
+        int subnet_number = p_net_scope.subnet_number;
+        Collection<Rule> net_rules = p_net_scope.net_rules;
+        for (Collection<Net.Pin> curr_pin_list : p_net_scope.subnet_pin_lists)
         {
             Net.Id net_id = new Net.Id(net_name, subnet_number);
             if (!p_net_list.contains(net_id))
@@ -1533,4 +1658,24 @@ public class Network extends ScopeKeyword
                     rotation_in_degree, new_component.no, fixed_state);
         }
     }
+
+    /**
+     * The content of a net scope before it is inserted into the org.thehellnet.tools.freerouting.board.
+     */
+    private static class NetScope
+    {
+        NetScope(String p_net_name, int p_subnet_number, Collection<Rule> p_net_rules,
+                Collection<Collection<Net.Pin>> p_subnet_pin_lists)
+        {
+            net_name = p_net_name;
+            subnet_number = p_subnet_number;
+            net_rules = p_net_rules;
+            subnet_pin_lists = p_subnet_pin_lists;
+        }
+
+        final String net_name;
+        final int subnet_number;
+        final Collection<Rule> net_rules;
+        final Collection<Collection<Net.Pin>> subnet_pin_lists;
+    }
 }
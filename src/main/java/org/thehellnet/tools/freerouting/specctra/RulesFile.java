@@ -64,7 +64,7 @@ public class RulesFile
             org.thehellnet.tools.freerouting.interactive.BoardHandling p_board_handling)
     {
         BasicBoard routing_board = p_board_handling.get_routing_board();
-        Scanner scanner =  new SpecctraFileScanner(p_input_stream);
+        Scanner scanner = ByteBufferScanner.get_instance(p_input_stream);
         try
         {
             Object curr_token = scanner.next_token();
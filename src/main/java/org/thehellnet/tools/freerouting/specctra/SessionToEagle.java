@@ -39,7 +39,7 @@ public class SessionToEagle extends javax.swing.JFrame
         
         // create a scanner for reading the session_file.
         
-        Scanner scanner = new SpecctraFileScanner(p_session);
+        Scanner scanner = ByteBufferScanner.get_instance(p_session);
         
         // create a file_writer for the eagle script file.
         java.io.OutputStreamWriter file_writer = new java.io.OutputStreamWriter(p_output_stream);
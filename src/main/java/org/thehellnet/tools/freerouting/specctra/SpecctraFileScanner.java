@@ -49,12 +49,12 @@ class SpecctraFileScanner implements Scanner {
   /** 
    * Translates characters to character classes
    */
-  private static final char [] ZZ_CMAP = zzUnpackCMap(ZZ_CMAP_PACKED);
+  static final char [] ZZ_CMAP = zzUnpackCMap(ZZ_CMAP_PACKED);
 
   /** 
    * Translates DFA states to action switch labels.
    */
-  private static final int [] ZZ_ACTION = zzUnpackAction();
+  static final int [] ZZ_ACTION = zzUnpackAction();
 
   private static final String ZZ_ACTION_PACKED_0 =
     "\7\0\1\1\1\2\2\3\3\4\1\5\1\6\1\7"+
@@ -111,7 +111,7 @@ class SpecctraFileScanner implements Scanner {
   /** 
    * Translates a state to a row index in the transition table
    */
-  private static final int [] ZZ_ROWMAP = zzUnpackRowMap();
+  static final int [] ZZ_ROWMAP = zzUnpackRowMap();
 
   private static final String ZZ_ROWMAP_PACKED_0 =
     "\0\0\0\55\0\132\0\207\0\264\0\341\0\u010e\0\u013b"+
@@ -225,7 +225,7 @@ class SpecctraFileScanner implements Scanner {
   /** 
    * The transition table of the DFA
    */
-  private static final int [] ZZ_TRANS = zzUnpackTrans();
+  static final int [] ZZ_TRANS = zzUnpackTrans();
 
   private static final String ZZ_TRANS_PACKED_0 =
     "\1\11\1\12\2\13\1\14\1\15\1\16\1\15\1\17"+
@@ -595,7 +595,7 @@ class SpecctraFileScanner implements Scanner {
   /**
    * ZZ_ATTRIBUTE[aState] contains the attributes of state <code>aState</code>
    */
-  private static final int [] ZZ_ATTRIBUTE = zzUnpackAttribute();
+  static final int [] ZZ_ATTRIBUTE = zzUnpackAttribute();
 
   private static final String ZZ_ATTRIBUTE_PACKED_0 =
     "\7\0\1\1\1\11\1\1\1\11\4\1\2\11\24\1"+
@@ -0,0 +1,288 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * SubScopes.java
+ */
+
+package org.thehellnet.tools.freerouting.specctra;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The sub scopes of a scope in a dsn file, which was read at once into the byte buffer of a ByteBufferScanner.
+ * Each sub scope gets its own scanner, so that large sub scopes like padstacks, images or nets
+ * can be read in parallel threads into intermediate objects, before they are inserted
+ * into the org.thehellnet.tools.freerouting.board one after the other in the order of the file.
+ */
+class SubScopes
+{
+
+    /**
+     * Splits the current scope of p_scanner into its sub scopes and moves p_scanner behind the closing bracket of the scope.
+     * Returns null, if the sub scopes cannot be read in parallel, because p_scanner is not a ByteBufferScanner,
+     * there is only one processor, or the end of the scope was not found. In this case p_scanner is not changed.
+     */
+    static SubScopes get_instance(Scanner p_scanner)
+    {
+        if (!(p_scanner instanceof ByteBufferScanner) || Runtime.getRuntime().availableProcessors() <= 1)
+        {
+            return null;
+        }
+        ByteBufferScanner scanner = (ByteBufferScanner) p_scanner;
+        SubScopes result = new SubScopes(scanner);
+        Object next_token = null;
+        for (;;)
+        {
+            Object prev_token = next_token;
+            try
+            {
+                next_token = scanner.next_token();
+            }
+            catch (java.io.IOException e)
+            {
+                next_token = null;
+            }
+            if (next_token == null)
+            {
+                result.restore();
+                return null;
+            }
+            if (next_token == Keyword.CLOSED_BRACKET)
+            {
+                // end of scope
+                break;
+            }
+            if (prev_token == Keyword.OPEN_BRACKET)
+            {
+                int start_pos = scanner.get_position();
+                int start_state = scanner.get_lexical_state();
+                if (!ScopeKeyword.skip_scope(scanner))
+                {
+                    result.restore();
+                    return null;
+                }
+                ByteBufferScanner sub_scanner = scanner.get_sub_scanner(start_pos, scanner.get_position(), start_state);
+                result.list.add(new SubScope(next_token, sub_scanner));
+            }
+        }
+        return result;
+    }
+
+    private SubScopes(ByteBufferScanner p_scanner)
+    {
+        this.scanner = p_scanner;
+        this.start_pos = p_scanner.get_position();
+        this.start_state = p_scanner.get_lexical_state();
+    }
+
+    /**
+     * Reads the sub scopes with a keyword in p_keywords with p_reader in parallel threads
+     * and stores the results in the sub scopes.
+     * Returns false, if reading a sub scope failed or did not end at the end of the sub scope.
+     * In this case the scope should be read again after calling restore().
+     * The messages printed by p_reader are therefore kept back and printed in the order of the file
+     * only if all sub scopes were read, so that they are not printed twice.
+     */
+    boolean read_parallel(Collection<Keyword> p_keywords, final Reader p_reader)
+    {
+        final List<SubScope> read_list = new ArrayList<SubScope>();
+        for (SubScope curr_sub_scope : this.list)
+        {
+            if (p_keywords.contains(curr_sub_scope.keyword))
+            {
+                read_list.add(curr_sub_scope);
+            }
+        }
+        if (read_list.isEmpty())
+        {
+            return true;
+        }
+        int thread_count = Math.min(Runtime.getRuntime().availableProcessors(), read_list.size());
+        ExecutorService executor = Executors.newFixedThreadPool(thread_count);
+        boolean result = true;
+        final ByteArrayOutputStream[] thread_outputs = new ByteArrayOutputStream[thread_count];
+        PrintStream prev_out = System.out;
+        final ThreadOutput thread_output = new ThreadOutput(prev_out);
+        System.setOut(new PrintStream(thread_output, true));
+        try
+        {
+            // Each thread reads a contiguous block of sub scopes to keep the overhead per sub scope small.
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(thread_count);
+            for (int i = 0; i < thread_count; ++i)
+            {
+                final int from_index = i * read_list.size() / thread_count;
+                final int to_index = (i + 1) * read_list.size() / thread_count;
+                final ByteArrayOutputStream curr_output = new ByteArrayOutputStream();
+                thread_outputs[i] = curr_output;
+                futures.add(executor.submit(new Callable<Boolean>()
+                {
+                    public Boolean call()
+                    {
+                        thread_output.buffers.set(curr_output);
+                        try
+                        {
+                            for (int j = from_index; j < to_index; ++j)
+                            {
+                                SubScope curr_sub_scope = read_list.get(j);
+                                curr_sub_scope.result = p_reader.read(curr_sub_scope.keyword, curr_sub_scope.scanner);
+                                if (curr_sub_scope.result == null
+                                        || curr_sub_scope.scanner.get_position() != curr_sub_scope.scanner.get_end_position())
+                                {
+                                    return false;
+                                }
+                            }
+                            return true;
+                        }
+                        finally
+                        {
+                            thread_output.buffers.remove();
+                        }
+                    }
+                }));
+            }
+            for (Future<Boolean> curr_future : futures)
+            {
+                try
+                {
+                    if (!curr_future.get())
+                    {
+                        result = false;
+                    }
+                }
+                catch (Exception e)
+                {
+                    result = false;
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            System.setOut(prev_out);
+        }
+        if (result)
+        {
+            // The threads read contiguous blocks of sub scopes, so their messages are in the order of the file.
+            for (ByteArrayOutputStream curr_output : thread_outputs)
+            {
+                prev_out.print(curr_output.toString());
+            }
+            prev_out.flush();
+        }
+        return result;
+    }
+
+    /**
+     * Moves the scanner back to the start of the scope, so that the scope can be read sequentially.
+     */
+    void restore()
+    {
+        this.scanner.reset(this.start_pos, this.start_state);
+    }
+
+    /**
+     * Collects the output of the reading threads in their buffer and passes the output of the other threads
+     * to the previous standard output.
+     */
+    private static class ThreadOutput extends OutputStream
+    {
+        ThreadOutput(PrintStream p_prev_out)
+        {
+            prev_out = p_prev_out;
+        }
+
+        public void write(int p_byte)
+        {
+            ByteArrayOutputStream curr_buffer = buffers.get();
+            if (curr_buffer != null)
+            {
+                curr_buffer.write(p_byte);
+            }
+            else
+            {
+                prev_out.write(p_byte);
+            }
+        }
+
+        public void write(byte[] p_bytes, int p_offset, int p_length)
+        {
+            ByteArrayOutputStream curr_buffer = buffers.get();
+            if (curr_buffer != null)
+            {
+                curr_buffer.write(p_bytes, p_offset, p_length);
+            }
+            else
+            {
+                prev_out.write(p_bytes, p_offset, p_length);
+            }
+        }
+
+        public void flush()
+        {
+            prev_out.flush();
+        }
+
+        private final PrintStream prev_out;
+        final ThreadLocal<ByteArrayOutputStream> buffers = new ThreadLocal<ByteArrayOutputStream>();
+    }
+
+    /** The sub scopes in the order of the file */
+    final List<SubScope> list = new ArrayList<SubScope>();
+
+    private final ByteBufferScanner scanner;
+    private final int start_pos;
+    private final int start_state;
+
+    /**
+     * A sub scope with the token following its opening bracket.
+     */
+    static class SubScope
+    {
+        private SubScope(Object p_keyword, ByteBufferScanner p_scanner)
+        {
+            keyword = p_keyword;
+            scanner = p_scanner;
+        }
+
+        /** The token following the opening bracket of the sub scope */
+        final Object keyword;
+
+        /** Reads the sub scope behind its keyword */
+        final ByteBufferScanner scanner;
+
+        /** The object created by the Reader from the sub scope, or null, if the sub scope was not read in parallel */
+        Object result = null;
+    }
+
+    /**
+     * Reads a sub scope into an intermediate object without changing the org.thehellnet.tools.freerouting.board.
+     */
+    interface Reader
+    {
+        /**
+         * Reads the sub scope starting with p_keyword from p_scanner. Returns null, if an error occured.
+         */
+        Object read(Object p_keyword, Scanner p_scanner);
+    }
+}
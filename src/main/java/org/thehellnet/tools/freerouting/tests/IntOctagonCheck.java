@@ -0,0 +1,143 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * IntOctagonCheck.java
+ */
+
+package org.thehellnet.tools.freerouting.tests;
+
+import java.util.Random;
+
+import org.thehellnet.tools.freerouting.planar.IntOctagon;
+import org.thehellnet.tools.freerouting.planar.IntPoint;
+import org.thehellnet.tools.freerouting.planar.Shape;
+import org.thehellnet.tools.freerouting.planar.Simplex;
+import org.thehellnet.tools.freerouting.planar.TileShape;
+
+/**
+ * Randomized differential check of the integer octagon tests in IntOctagon against
+ * the tests of the same octagons converted to simplexes, which use the border lines.
+ * <p>
+ * is_outside, contains and overlaps must give the same results. contains is compared with the line test
+ * of the corners of the octagon, which are rounded to integer points like in IntOctagon.corner.
+ * intersects compares only the 4 ranges of the octagons and may therefore return true
+ * for octagons, whose corners come close, but which do not intersect.
+ * It must not return false for intersecting octagons, and the octagon and the shape version must agree.
+ * Empty octagons must be contained in every octagon.
+ */
+public class IntOctagonCheck
+{
+    /**
+     * Compares the results for p_count random pairs of octagons.
+     * Returns false, if a difference was detected.
+     */
+    public static boolean check(int p_count)
+    {
+        Random random = new Random(1);
+        int checked_count = 0;
+        int approximated_count = 0;
+        for (int i = 0; i < p_count; ++i)
+        {
+            IntOctagon curr_octagon = random_octagon(random);
+            IntOctagon other_octagon = random_octagon(random);
+            if (other_octagon.is_empty() && !curr_octagon.contains((TileShape) other_octagon))
+            {
+                System.out.println("IntOctagonCheck: the empty octagon " + to_string(other_octagon)
+                        + " is not contained in " + to_string(curr_octagon));
+                return false;
+            }
+            if (curr_octagon.is_empty() || other_octagon.is_empty())
+            {
+                continue;
+            }
+            ++checked_count;
+            Simplex curr_simplex = curr_octagon.to_Simplex();
+            Simplex other_simplex = other_octagon.to_Simplex();
+            IntPoint curr_point = new IntPoint(random.nextInt(60) - 30, random.nextInt(60) - 30);
+            String difference = null;
+            if (curr_octagon.is_outside(curr_point) != curr_simplex.is_outside(curr_point))
+            {
+                difference = "is_outside";
+            }
+            else if (curr_octagon.contains((TileShape) other_octagon) != curr_simplex.contains((TileShape) other_octagon))
+            {
+                difference = "contains";
+            }
+            else if (curr_octagon.overlaps(other_octagon) != (curr_simplex.intersection(other_simplex).dimension() == 2))
+            {
+                difference = "overlaps";
+            }
+            else if (curr_octagon.intersects((Shape) other_octagon) != curr_octagon.intersects(other_octagon))
+            {
+                difference = "intersects of shape";
+            }
+            else if (curr_octagon.intersects(other_octagon) != curr_simplex.intersects(other_simplex))
+            {
+                if (!curr_octagon.intersects(other_octagon))
+                {
+                    difference = "intersects";
+                }
+                else
+                {
+                    ++approximated_count;
+                }
+            }
+            if (difference != null)
+            {
+                System.out.println("IntOctagonCheck: " + difference + " differs for " + to_string(curr_octagon)
+                        + ", " + to_string(other_octagon) + ", (" + curr_point.x + ", " + curr_point.y + ")");
+                return false;
+            }
+        }
+        System.out.println("IntOctagonCheck: " + checked_count + " pairs of octagons ok, intersects was true for "
+                + approximated_count + " pairs without intersection");
+        return true;
+    }
+
+    public static void main(String p_args[])
+    {
+        int count = 200000;
+        if (p_args.length > 0)
+        {
+            count = Integer.parseInt(p_args[0]);
+        }
+        if (!check(count))
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns a normalized octagon with small coordinates, so that the octagons often touch or intersect.
+     */
+    private static IntOctagon random_octagon(Random p_random)
+    {
+        int x = p_random.nextInt(40) - 20;
+        int y = p_random.nextInt(40) - 20;
+        int width = p_random.nextInt(20);
+        int height = p_random.nextInt(20);
+        int ulx = x - y - height + p_random.nextInt(10) - 3;
+        int lrx = x + width - y + p_random.nextInt(10) - 7;
+        int llx = x + y + p_random.nextInt(10) - 3;
+        int urx = x + width + y + height - p_random.nextInt(10) + 3;
+        return new IntOctagon(x, y, x + width, y + height, ulx, lrx, llx, urx).normalize();
+    }
+
+    private static String to_string(IntOctagon p_octagon)
+    {
+        return "(" + p_octagon.lx + ", " + p_octagon.ly + ", " + p_octagon.rx + ", " + p_octagon.uy + ", "
+                + p_octagon.ulx + ", " + p_octagon.lrx + ", " + p_octagon.llx + ", " + p_octagon.urx + ")";
+    }
+}
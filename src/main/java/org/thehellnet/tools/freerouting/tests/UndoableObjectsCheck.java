@@ -0,0 +1,384 @@
+/*
+ *  Copyright (C) 2014  Alfons Wirtz
+ *   website www.freerouting.net
+ *
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License at <http://www.gnu.org/licenses/>
+ *   for more details.
+ *
+ * UndoableObjectsCheck.java
+ */
+
+package org.thehellnet.tools.freerouting.tests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.thehellnet.tools.freerouting.datastructures.UndoableObjects;
+
+/**
+ * Randomized differential check of the undo database in UndoableObjects.
+ * Random sequences of insert, delete, save_for_undo, generate_snapshot, undo, redo, pop_snapshot
+ * and get_changes are applied to an UndoableObjects list and to a simple reference, which keeps
+ * a complete copy of the objects for each snapshot. After each operation the objects in the list,
+ * the return values and the objects output by undo, redo and get_changes are compared.
+ * Some lists are written to a stream and read back in between.
+ */
+public class UndoableObjectsCheck
+{
+    /**
+     * Runs p_sequence_count random sequences with p_operation_count operations each.
+     * Returns false, if a difference was detected.
+     */
+    public static boolean check(int p_sequence_count, int p_operation_count)
+    {
+        for (int i = 0; i < p_sequence_count; ++i)
+        {
+            if (!check_sequence(i, p_operation_count))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String p_args[])
+    {
+        int sequence_count = 3000;
+        if (p_args.length > 0)
+        {
+            sequence_count = Integer.parseInt(p_args[0]);
+        }
+        if (check(sequence_count, 300))
+        {
+            System.out.println("UndoableObjectsCheck: " + sequence_count + " sequences ok");
+        }
+        else
+        {
+            System.exit(1);
+        }
+    }
+
+    private static boolean check_sequence(int p_seed, int p_operation_count)
+    {
+        Random random = new Random(p_seed);
+        UndoableObjects undo_list = new UndoableObjects();
+        Reference reference = new Reference();
+        int next_id_no = 0;
+        for (int i = 0; i < p_operation_count; ++i)
+        {
+            int operation = random.nextInt(9);
+            boolean list_result = true;
+            boolean reference_result = true;
+            List<UndoableObjects.Storable> list_cancelled = new LinkedList<UndoableObjects.Storable>();
+            List<UndoableObjects.Storable> list_restored = new LinkedList<UndoableObjects.Storable>();
+            Collection<String> reference_cancelled = new LinkedList<String>();
+            Collection<String> reference_restored = new LinkedList<String>();
+            switch (operation)
+            {
+                case 0:
+                case 1:
+                    undo_list.insert(new TestObject(next_id_no));
+                    reference.insert(next_id_no);
+                    ++next_id_no;
+                    break;
+                case 2:
+                    if (next_id_no > 0)
+                    {
+                        TestObject curr_object = find(undo_list, random.nextInt(next_id_no));
+                        if (curr_object != null)
+                        {
+                            list_result = undo_list.delete(curr_object);
+                            reference.delete(curr_object.id_no);
+                        }
+                    }
+                    break;
+                case 3:
+                    if (next_id_no > 0)
+                    {
+                        TestObject curr_object = find(undo_list, random.nextInt(next_id_no));
+                        if (curr_object != null)
+                        {
+                            undo_list.save_for_undo(curr_object);
+                            ++curr_object.value;
+                            reference.change(curr_object.id_no);
+                        }
+                    }
+                    break;
+                case 4:
+                    undo_list.generate_snapshot();
+                    reference.generate_snapshot();
+                    break;
+                case 5:
+                    list_result = undo_list.undo(list_cancelled, list_restored);
+                    reference_result = reference.undo(reference_cancelled, reference_restored);
+                    break;
+                case 6:
+                    list_result = undo_list.redo(list_cancelled, list_restored);
+                    reference_result = reference.redo(reference_cancelled, reference_restored);
+                    break;
+                case 7:
+                    list_result = undo_list.pop_snapshot();
+                    reference_result = reference.pop_snapshot();
+                    break;
+                default:
+                    list_result = undo_list.get_changes(list_cancelled, list_restored);
+                    reference_result = reference.get_changes(reference_cancelled, reference_restored);
+                    break;
+            }
+            if (p_seed % 7 == 0 && i % 50 == 25)
+            {
+                undo_list = copy(undo_list);
+            }
+            String difference = null;
+            if (list_result != reference_result)
+            {
+                difference = "result " + list_result + " instead of " + reference_result;
+            }
+            else if (!to_strings(undo_list).equals(reference.to_strings()))
+            {
+                difference = "objects " + to_strings(undo_list) + " instead of " + reference.to_strings();
+            }
+            else if (!sorted(list_cancelled).equals(sorted(reference_cancelled)))
+            {
+                difference = "cancelled or new objects " + sorted(list_cancelled) + " instead of " + sorted(reference_cancelled);
+            }
+            else if (!sorted(list_restored).equals(sorted(reference_restored)))
+            {
+                difference = "restored or removed objects " + sorted(list_restored) + " instead of " + sorted(reference_restored);
+            }
+            if (difference != null)
+            {
+                System.out.println("UndoableObjectsCheck: sequence " + p_seed + ", operation " + i + " (" + operation + "): " + difference);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TestObject find(UndoableObjects p_undo_list, int p_id_no)
+    {
+        Iterator<UndoableObjects.UndoableObjectNode> it = p_undo_list.start_read_object();
+        for (;;)
+        {
+            TestObject curr_object = (TestObject) p_undo_list.read_object(it);
+            if (curr_object == null || curr_object.id_no == p_id_no)
+            {
+                return curr_object;
+            }
+        }
+    }
+
+    private static List<String> to_strings(UndoableObjects p_undo_list)
+    {
+        List<String> result = new ArrayList<String>();
+        Iterator<UndoableObjects.UndoableObjectNode> it = p_undo_list.start_read_object();
+        for (;;)
+        {
+            UndoableObjects.Storable curr_object = p_undo_list.read_object(it);
+            if (curr_object == null)
+            {
+                break;
+            }
+            result.add(curr_object.toString());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static List<String> sorted(Collection<?> p_objects)
+    {
+        List<String> result = new ArrayList<String>();
+        for (Object curr_object : p_objects)
+        {
+            result.add(curr_object.toString());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Writes p_undo_list to a stream and reads it back.
+     */
+    private static UndoableObjects copy(UndoableObjects p_undo_list)
+    {
+        try
+        {
+            java.io.ByteArrayOutputStream byte_stream = new java.io.ByteArrayOutputStream();
+            java.io.ObjectOutputStream object_stream = new java.io.ObjectOutputStream(byte_stream);
+            object_stream.writeObject(p_undo_list);
+            object_stream.close();
+            java.io.ObjectInputStream input_stream =
+                    new java.io.ObjectInputStream(new java.io.ByteArrayInputStream(byte_stream.toByteArray()));
+            return (UndoableObjects) input_stream.readObject();
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException("UndoableObjectsCheck.copy: " + e);
+        }
+    }
+
+    /**
+     * Object stored in the checked UndoableObjects list. Its value is increased at each change.
+     */
+    private static class TestObject implements UndoableObjects.Storable, java.io.Serializable
+    {
+        TestObject(int p_id_no)
+        {
+            this.id_no = p_id_no;
+        }
+
+        public int compareTo(Object p_other)
+        {
+            return this.id_no - ((TestObject) p_other).id_no;
+        }
+
+        public Object clone()
+        {
+            TestObject result = new TestObject(this.id_no);
+            result.value = this.value;
+            return result;
+        }
+
+        public String toString()
+        {
+            return id_to_string(this.id_no, this.value);
+        }
+
+        final int id_no;
+        int value = 0;
+    }
+
+    private static String id_to_string(int p_id_no, int p_value)
+    {
+        return p_id_no + ":" + p_value;
+    }
+
+    /**
+     * Keeps the values of the objects at each snapshot and before each undo completely.
+     * The outputs of undo, redo and get_changes are the differences between two of these states.
+     */
+    private static class Reference
+    {
+        void insert(int p_id_no)
+        {
+            this.redo_states.clear();
+            this.objects.put(p_id_no, 0);
+        }
+
+        void delete(int p_id_no)
+        {
+            this.redo_states.clear();
+            this.objects.remove(p_id_no);
+        }
+
+        void change(int p_id_no)
+        {
+            this.redo_states.clear();
+            this.objects.put(p_id_no, this.objects.get(p_id_no) + 1);
+        }
+
+        void generate_snapshot()
+        {
+            this.redo_states.clear();
+            this.snapshots.add(new TreeMap<Integer, Integer>(this.objects));
+        }
+
+        boolean undo(Collection<String> p_cancelled, Collection<String> p_restored)
+        {
+            if (this.snapshots.isEmpty())
+            {
+                return false;
+            }
+            TreeMap<Integer, Integer> prev_state = this.snapshots.remove(this.snapshots.size() - 1);
+            add_differences(this.objects, prev_state, p_cancelled);
+            add_differences(prev_state, this.objects, p_restored);
+            this.redo_states.add(this.objects);
+            this.objects = prev_state;
+            return true;
+        }
+
+        boolean redo(Collection<String> p_cancelled, Collection<String> p_restored)
+        {
+            if (this.redo_states.isEmpty())
+            {
+                return false;
+            }
+            TreeMap<Integer, Integer> next_state = this.redo_states.remove(this.redo_states.size() - 1);
+            add_differences(this.objects, next_state, p_cancelled);
+            add_differences(next_state, this.objects, p_restored);
+            this.snapshots.add(this.objects);
+            this.objects = next_state;
+            return true;
+        }
+
+        boolean pop_snapshot()
+        {
+            this.redo_states.clear();
+            if (this.snapshots.isEmpty())
+            {
+                return false;
+            }
+            this.snapshots.remove(this.snapshots.size() - 1);
+            return true;
+        }
+
+        boolean get_changes(Collection<String> p_new_objects, Collection<String> p_removed_objects)
+        {
+            if (this.snapshots.isEmpty())
+            {
+                return false;
+            }
+            TreeMap<Integer, Integer> snapshot = this.snapshots.get(this.snapshots.size() - 1);
+            add_differences(this.objects, snapshot, p_new_objects);
+            add_differences(snapshot, this.objects, p_removed_objects);
+            return true;
+        }
+
+        List<String> to_strings()
+        {
+            List<String> result = new ArrayList<String>();
+            for (Map.Entry<Integer, Integer> curr_entry : this.objects.entrySet())
+            {
+                result.add(id_to_string(curr_entry.getKey(), curr_entry.getValue()));
+            }
+            Collections.sort(result);
+            return result;
+        }
+
+        /**
+         * Adds the objects of p_state, which are not contained with the same value in p_other_state, to p_result.
+         */
+        private static void add_differences(TreeMap<Integer, Integer> p_state, TreeMap<Integer, Integer> p_other_state,
+                Collection<String> p_result)
+        {
+            for (Map.Entry<Integer, Integer> curr_entry : p_state.entrySet())
+            {
+                if (!curr_entry.getValue().equals(p_other_state.get(curr_entry.getKey())))
+                {
+                    p_result.add(id_to_string(curr_entry.getKey(), curr_entry.getValue()));
+                }
+            }
+        }
+        /** The values of the current objects by their id numbers */
+        private TreeMap<Integer, Integer> objects = new TreeMap<Integer, Integer>();
+        /** The objects at the snapshots, which can be restored by undo */
+        private final List<TreeMap<Integer, Integer>> snapshots = new ArrayList<TreeMap<Integer, Integer>>();
+        /** The objects before the undos, which can be restored by redo */
+        private final List<TreeMap<Integer, Integer>> redo_states = new ArrayList<TreeMap<Integer, Integer>>();
+    }
+}